@@ -0,0 +1,72 @@
+package com.threadly.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.threadly.common.dto.ApiResponseDTO;
+import com.threadly.user.dto.response.AuthResponse;
+import com.threadly.user.dto.response.UserProfileResponse;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of the response bodies user-service returns most often.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ApiResponseSerializationBenchmark {
+
+    private ObjectMapper objectMapper;
+    private ApiResponseDTO<AuthResponse> authResponse;
+    private ApiResponseDTO<UserProfileResponse> profileResponse;
+
+    @Setup
+    public void setup() {
+        // Same settings Spring Boot applies to its auto-configured mapper
+        objectMapper = JsonMapper.builder()
+                .findAndAddModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+
+        AuthResponse auth = AuthResponse.builder()
+                .accessToken("eyJhbGciOiJIUzI1NiJ9.eyJ0eXBlIjoiYWNjZXNzIiwic3ViIjoiNDIifQ.signature")
+                .refreshToken("eyJhbGciOiJIUzI1NiJ9.eyJ0eXBlIjoicmVmcmVzaCIsInN1YiI6IjQyIn0.signature")
+                .tokenType("Bearer")
+                .expiresIn(3600)
+                .userId(42L)
+                .email("jane@threadly.dev")
+                .roles(Set.of("USER"))
+                .message("Login successful")
+                .build();
+        authResponse = ApiResponseDTO.ok(auth, "/api/auth/login", "User logged in successfully", 200);
+
+        UserProfileResponse profile = UserProfileResponse.builder()
+                .userId(42L)
+                .email("jane@threadly.dev")
+                .fullName("Jane Doe")
+                .avatarUrl("https://cdn.threadly.dev/avatars/42.png")
+                .roles(Set.of("USER", "ADMIN"))
+                .createdAt(LocalDateTime.of(2025, 1, 1, 12, 0))
+                .updatedAt(LocalDateTime.of(2025, 6, 1, 12, 0))
+                .build();
+        profileResponse = ApiResponseDTO.ok(profile, "/api/users/profile", "Profile retrieved successfully", 200);
+    }
+
+    @Benchmark
+    public byte[] serializeAuthResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(authResponse);
+    }
+
+    @Benchmark
+    public byte[] serializeProfileResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(profileResponse);
+    }
+}
@@ -0,0 +1,68 @@
+package com.threadly.benchmarks;
+
+import com.threadly.gateway.filter.AuthenticationFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.http.server.reactive.MockServerHttpResponse;
+import org.springframework.web.server.adapter.DefaultServerWebExchange;
+import org.springframework.web.server.i18n.AcceptHeaderLocaleContextResolver;
+import org.springframework.web.server.session.DefaultWebSessionManager;
+
+import reactor.core.publisher.Mono;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The gateway AuthenticationFilter on a protected route: JWT verification (validateJWT)
+ * with and without the verified-token cache, plus the rejection path for a bad token.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AuthenticationFilterBenchmark {
+
+    private static final GatewayFilterChain NOOP_CHAIN = exchange -> Mono.empty();
+
+    @Param({"true", "false"})
+    public boolean tokenCache;
+
+    private AuthenticationFilter filter;
+    private String bearer;
+
+    // Shared so each exchange does not rebuild codecs (MockServerWebExchange.from would)
+    private final DefaultWebSessionManager sessionManager = new DefaultWebSessionManager();
+    private final ServerCodecConfigurer codecConfigurer = ServerCodecConfigurer.create();
+    private final AcceptHeaderLocaleContextResolver localeResolver = new AcceptHeaderLocaleContextResolver();
+
+    @Setup
+    public void setup() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        filter = Fixtures.authenticationFilter(tokenCache, registry);
+        bearer = "Bearer " + Fixtures.jwtUtil(registry).generateAccessToken(42L, Set.of("USER"));
+    }
+
+    @Benchmark
+    public Void validProtectedRequest() {
+        return filter.filter(exchange(bearer), NOOP_CHAIN).block();
+    }
+
+    @Benchmark
+    public Void invalidTokenRequest() {
+        return filter.filter(exchange("Bearer not-a-jwt"), NOOP_CHAIN).block();
+    }
+
+    private DefaultServerWebExchange exchange(String authorization) {
+        MockServerHttpRequest request = MockServerHttpRequest.get("/api/users/profile")
+                .header("Authorization", authorization)
+                .build();
+        return new DefaultServerWebExchange(request, new MockServerHttpResponse(),
+                sessionManager, codecConfigurer, localeResolver);
+    }
+}
@@ -0,0 +1,29 @@
+package com.threadly.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the GC profiler always on, so allocation rate is reported next to ops/s.
+ * Accepts the usual JMH command line, e.g. {@code java -jar target/benchmarks.jar JwtUtilBenchmark -f 2}.
+ * Benchmarks that need a running service are only run when named explicitly.
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+
+        OptionsBuilder options = new OptionsBuilder();
+        options.parent(commandLine);
+        options.addProfiler(GCProfiler.class);
+        if (commandLine.getIncludes().isEmpty()) {
+            options.exclude(UserServiceHttpBenchmark.class.getSimpleName());
+        }
+
+        new Runner(options.build()).run();
+    }
+}
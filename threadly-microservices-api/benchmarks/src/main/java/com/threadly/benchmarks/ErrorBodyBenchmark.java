@@ -0,0 +1,25 @@
+package com.threadly.benchmarks;
+
+import com.threadly.gateway.filter.GatewayErrorResponse;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.HttpStatus;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Formatting of the gateway's JSON error body, as written by AuthenticationFilter.unauthorized().
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ErrorBodyBenchmark {
+
+    @Benchmark
+    public String unauthorizedBody() {
+        return GatewayErrorResponse.body(HttpStatus.UNAUTHORIZED,
+                "Invalid or expired token", "UNAUTHORIZED_ACCESS", "/api/users/profile");
+    }
+}
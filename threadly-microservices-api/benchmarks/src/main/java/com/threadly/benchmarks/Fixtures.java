@@ -0,0 +1,55 @@
+package com.threadly.benchmarks;
+
+import com.threadly.gateway.config.GatewaySecurityProperties;
+import com.threadly.gateway.config.RevocationProperties;
+import com.threadly.gateway.filter.AuthenticationFilter;
+import com.threadly.gateway.security.RevocationRegistry;
+import com.threadly.gateway.security.RoutePolicy;
+import com.threadly.gateway.security.RoutePolicyMatcher;
+import com.threadly.gateway.security.VerifiedTokenCache;
+import com.threadly.user.util.JwtUtil;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Builds the production beans outside Spring, with the same settings as application.yml.
+ */
+final class Fixtures {
+
+    static final String JWT_SECRET = "ThrDly2025!Dev3l0pm3ntK3yW1thH1ghS3cur1tyF0rL0calT3st1ngPurp0s3s";
+
+    private Fixtures() {
+    }
+
+    static JwtUtil jwtUtil(MeterRegistry registry) {
+        JwtUtil jwtUtil = new JwtUtil(registry);
+        ReflectionTestUtils.setField(jwtUtil, "secret", JWT_SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "accessTokenExpiration", 3_600_000L);
+        ReflectionTestUtils.setField(jwtUtil, "refreshTokenExpiration", 604_800_000L);
+        ReflectionTestUtils.invokeMethod(jwtUtil, "init");
+        return jwtUtil;
+    }
+
+    static RoutePolicyMatcher routePolicyMatcher() {
+        GatewaySecurityProperties properties = new GatewaySecurityProperties();
+        for (String path : new String[]{"/api/auth/register/**", "/api/auth/login/**", "/api/auth/refresh/**"}) {
+            GatewaySecurityProperties.Route route = new GatewaySecurityProperties.Route();
+            route.setPath(path);
+            route.setPolicy(RoutePolicy.OPEN);
+            properties.getRoutes().add(route);
+        }
+        return new RoutePolicyMatcher(properties, new MockEnvironment());
+    }
+
+    static AuthenticationFilter authenticationFilter(boolean tokenCacheEnabled, MeterRegistry registry) {
+        AuthenticationFilter filter = new AuthenticationFilter(
+                new VerifiedTokenCache(tokenCacheEnabled, 10_000),
+                routePolicyMatcher(),
+                new RevocationRegistry(new RevocationProperties()),
+                registry);
+        ReflectionTestUtils.setField(filter, "jwtSecret", JWT_SECRET);
+        ReflectionTestUtils.invokeMethod(filter, "initParser");
+        return filter;
+    }
+}
@@ -0,0 +1,47 @@
+package com.threadly.benchmarks;
+
+import com.threadly.user.util.JwtUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token generation and validation in user-service's JwtUtil.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtUtilBenchmark {
+
+    private static final String EMAIL = "bench@threadly.dev";
+    private static final Set<String> ROLES = Set.of("USER");
+
+    private JwtUtil jwtUtil;
+    private String refreshToken;
+
+    @Setup
+    public void setup() {
+        jwtUtil = Fixtures.jwtUtil(new SimpleMeterRegistry());
+        refreshToken = jwtUtil.generateRefreshToken(42L, EMAIL, ROLES, 1L);
+    }
+
+    @Benchmark
+    public String generateAccessToken() {
+        return jwtUtil.generateAccessToken(42L, ROLES);
+    }
+
+    @Benchmark
+    public String generateRefreshToken() {
+        return jwtUtil.generateRefreshToken(42L, EMAIL, ROLES, 1L);
+    }
+
+    @Benchmark
+    public Object validateRefresh() {
+        return jwtUtil.validateRefresh(refreshToken);
+    }
+}
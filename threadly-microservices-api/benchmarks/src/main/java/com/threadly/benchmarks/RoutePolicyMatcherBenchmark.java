@@ -0,0 +1,36 @@
+package com.threadly.benchmarks;
+
+import com.threadly.gateway.security.RoutePolicyMatcher;
+import com.threadly.gateway.security.RouteRule;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Route-policy lookup that replaced AuthenticationFilter.isOpenEndpoint. Should allocate nothing.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RoutePolicyMatcherBenchmark {
+
+    private RoutePolicyMatcher matcher;
+
+    @Setup
+    public void setup() {
+        matcher = Fixtures.routePolicyMatcher();
+    }
+
+    @Benchmark
+    public RouteRule openEndpoint() {
+        return matcher.match("POST", "/api/auth/login");
+    }
+
+    @Benchmark
+    public RouteRule protectedEndpoint() {
+        return matcher.match("GET", "/api/users/profile");
+    }
+}
@@ -0,0 +1,88 @@
+package com.threadly.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * End-to-end throughput of a running user-service, used to compare platform and virtual
+ * threads (start the service with VIRTUAL_THREADS_ENABLED=false / true, see
+ * virtual-threads-comparison.sh). Calls user-service directly, bypassing the gateway.
+ * Not part of the default run: include it explicitly by name.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+@Threads(32)
+@State(Scope.Benchmark)
+public class UserServiceHttpBenchmark {
+
+    private static final String PASSWORD = "bench-password";
+    private static final Pattern USER_ID = Pattern.compile("\"userId\"\\s*:\\s*(\\d+)");
+
+    private HttpClient client;
+    private URI profileUri;
+    private HttpRequest loginRequest;
+    private String userId;
+
+    @Setup
+    public void setup() throws IOException, InterruptedException {
+        String baseUrl = System.getProperty("userService.url", "http://localhost:8081");
+        client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        profileUri = URI.create(baseUrl + "/api/users/profile");
+
+        String email = "bench-" + UUID.randomUUID() + "@threadly.dev";
+        String credentials = "{\"email\":\"" + email + "\",\"password\":\"" + PASSWORD + "\"}";
+
+        HttpResponse<String> registered = client.send(json(baseUrl + "/api/auth/register", credentials),
+                HttpResponse.BodyHandlers.ofString());
+        Matcher matcher = USER_ID.matcher(registered.body());
+        if (registered.statusCode() != 201 || !matcher.find()) {
+            throw new IllegalStateException("Could not register benchmark user: " + registered.body());
+        }
+        userId = matcher.group(1);
+        loginRequest = json(baseUrl + "/api/auth/login", credentials);
+    }
+
+    @Benchmark
+    public int profile() throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(profileUri)
+                .header("X-User-ID", userId)
+                .header("X-Gateway-Validated", "true")
+                .GET()
+                .build();
+        return expectOk(client.send(request, HttpResponse.BodyHandlers.discarding()));
+    }
+
+    @Benchmark
+    public int login() throws IOException, InterruptedException {
+        return expectOk(client.send(loginRequest, HttpResponse.BodyHandlers.discarding()));
+    }
+
+    private static int expectOk(HttpResponse<?> response) {
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Unexpected status " + response.statusCode());
+        }
+        return response.statusCode();
+    }
+
+    private static HttpRequest json(String url, String body) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+}
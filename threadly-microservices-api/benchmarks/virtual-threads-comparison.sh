@@ -0,0 +1,31 @@
+#!/usr/bin/env bash
+# Compare user-service on platform threads vs virtual threads for
+# GET /api/users/profile and POST /api/auth/login.
+# Needs the MySQL instance from user-service's application.yml and JDK 21.
+set -euo pipefail
+
+cd "$(dirname "$0")"
+ROOT="$(pwd)/.."
+
+# benchmarks/pom.xml depends on both services' plain jars
+(cd "$ROOT/gateway" && ./mvnw -q install -DskipTests)
+(cd "$ROOT/user-service" && ./mvnw -q install -DskipTests)
+mvn -q package
+
+JAR="$(ls "$ROOT"/user-service/target/user-service-*-exec.jar)"
+
+for mode in false true; do
+    echo "=== virtual threads: $mode"
+    VIRTUAL_THREADS_ENABLED=$mode java -jar "$JAR" --eureka.client.enabled=false > "target/user-service-virtual-$mode.log" 2>&1 &
+    pid=$!
+    trap 'kill $pid 2>/dev/null || true' EXIT
+
+    until curl -sf http://localhost:9081/actuator/health > /dev/null; do
+        sleep 1
+    done
+
+    java -jar target/benchmarks.jar UserServiceHttpBenchmark -rf json -rff "target/virtual-threads-$mode.json"
+
+    kill $pid
+    wait $pid 2>/dev/null || true
+done
@@ -0,0 +1,11 @@
+package com.threadly.gateway.cache;
+
+/**
+ * A cached upstream response body with its ETag.
+ */
+public record CachedResponse(byte[] body, String contentType, String etag, long expiresAtMillis) {
+
+    public boolean isExpired(long nowMillis) {
+        return expiresAtMillis <= nowMillis;
+    }
+}
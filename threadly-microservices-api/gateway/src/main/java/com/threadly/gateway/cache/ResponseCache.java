@@ -0,0 +1,94 @@
+package com.threadly.gateway.cache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded LRU cache of upstream responses, keyed by route, user ID and path.
+ * Entries expire after the route's TTL, which bounds how stale a cached response can get.
+ */
+@Component
+public class ResponseCache {
+
+    private final Map<Key, CachedResponse> entries;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder notModified = new LongAdder();
+
+    public ResponseCache(@Value("${gateway.response-cache.max-entries:10000}") int maxEntries) {
+        this.entries = new LinkedHashMap<>(Math.min(maxEntries, 1024), 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, CachedResponse> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    public CachedResponse get(Key key) {
+        long now = System.currentTimeMillis();
+        synchronized (entries) {
+            CachedResponse cached = entries.get(key);
+            if (cached != null && cached.isExpired(now)) {
+                entries.remove(key);
+                cached = null;
+            }
+            if (cached == null) {
+                misses.increment();
+            } else {
+                hits.increment();
+            }
+            return cached;
+        }
+    }
+
+    public void put(Key key, CachedResponse response) {
+        synchronized (entries) {
+            entries.put(key, response);
+        }
+    }
+
+    public void recordNotModified() {
+        notModified.increment();
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getNotModifiedCount() {
+        return notModified.sum();
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * Strong ETag derived from the response body.
+     */
+    public static String etag(byte[] body) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(body);
+            return "\"" + HexFormat.of().formatHex(hash, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public record Key(String routeId, Long userId, String pathAndQuery) {
+    }
+}
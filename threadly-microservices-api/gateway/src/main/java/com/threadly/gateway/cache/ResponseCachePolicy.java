@@ -0,0 +1,12 @@
+package com.threadly.gateway.cache;
+
+import java.time.Duration;
+
+/**
+ * Opt-in response caching for a route, attached as metadata under {@link #METADATA_KEY}.
+ * Only GET responses with status 200 for authenticated users are cached.
+ */
+public record ResponseCachePolicy(Duration ttl) {
+
+    public static final String METADATA_KEY = "response-cache";
+}
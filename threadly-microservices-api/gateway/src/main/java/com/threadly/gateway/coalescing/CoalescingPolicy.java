@@ -0,0 +1,11 @@
+package com.threadly.gateway.coalescing;
+
+/**
+ * Enables request coalescing on a route, attached as metadata under {@link #METADATA_KEY}.
+ *
+ * @param maxBodyBytes responses larger than this are not shared; waiters fall back to their own upstream call
+ */
+public record CoalescingPolicy(int maxBodyBytes) {
+
+    public static final String METADATA_KEY = "request-coalescing";
+}
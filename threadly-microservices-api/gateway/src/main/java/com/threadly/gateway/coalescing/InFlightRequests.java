@@ -0,0 +1,70 @@
+package com.threadly.gateway.coalescing;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Single-flight table of identical in-flight upstream requests.
+ * The first caller for a key becomes the leader and performs the upstream call;
+ * later callers wait on the leader's result.
+ */
+@Component
+public class InFlightRequests {
+
+    private final Map<Key, Sinks.One<SharedResponse>> inFlight = new ConcurrentHashMap<>();
+    private final int maxInFlight;
+
+    private final LongAdder leaders = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    public InFlightRequests(@Value("${gateway.coalescing.max-in-flight:1000}") int maxInFlight) {
+        this.maxInFlight = maxInFlight;
+    }
+
+    /**
+     * Join an in-flight request for this key, or register as its leader.
+     *
+     * @return the leader's result to wait on, or null if the caller is the leader
+     *         (or the table is full and the caller should go upstream on its own)
+     */
+    public Mono<SharedResponse> join(Key key, Sinks.One<SharedResponse> leaderSink) {
+        Sinks.One<SharedResponse> existing = inFlight.get(key);
+        if (existing == null) {
+            if (inFlight.size() >= maxInFlight) {
+                return null;
+            }
+            existing = inFlight.putIfAbsent(key, leaderSink);
+            if (existing == null) {
+                leaders.increment();
+                return null;
+            }
+        }
+        coalesced.increment();
+        return existing.asMono();
+    }
+
+    /**
+     * Called by the leader once its response has been published (or abandoned).
+     */
+    public void complete(Key key, Sinks.One<SharedResponse> leaderSink) {
+        inFlight.remove(key, leaderSink);
+        leaderSink.tryEmitEmpty();
+    }
+
+    public long getLeaderCount() {
+        return leaders.sum();
+    }
+
+    public long getCoalescedCount() {
+        return coalesced.sum();
+    }
+
+    public record Key(String routeId, String method, String pathAndQuery, Long userId) {
+    }
+}
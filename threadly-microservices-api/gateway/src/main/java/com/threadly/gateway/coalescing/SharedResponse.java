@@ -0,0 +1,9 @@
+package com.threadly.gateway.coalescing;
+
+import org.springframework.http.HttpHeaders;
+
+/**
+ * Buffered upstream response fanned out to every waiter of a coalesced request.
+ */
+public record SharedResponse(int status, HttpHeaders headers, byte[] body) {
+}
@@ -0,0 +1,70 @@
+package com.threadly.gateway.concurrency;
+
+import com.threadly.gateway.config.ConcurrencyLimitProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One {@link GradientLimit} per route, created on the route's first request, with
+ * {@code gateway.concurrency.*} meters tagged by route.
+ */
+@Component
+public class ConcurrencyLimiterRegistry {
+
+    private final ConcurrencyLimitProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Optional<Limiter>> limiters = new ConcurrentHashMap<>();
+
+    public ConcurrencyLimiterRegistry(ConcurrencyLimitProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * The route's limiter, or {@code null} if limiting is off for it.
+     */
+    public Limiter get(String routeId) {
+        if (!properties.isEnabled()) {
+            return null;
+        }
+        return limiters.computeIfAbsent(routeId, this::create).orElse(null);
+    }
+
+    private Optional<Limiter> create(String routeId) {
+        ConcurrencyLimitProperties.Limits limits = properties.limitsFor(routeId);
+        if (!limits.isEnabled()) {
+            return Optional.empty();
+        }
+        GradientLimit limit = new GradientLimit(properties, limits);
+        Gauge.builder("gateway.concurrency.limit", limit, GradientLimit::getLimit)
+                .description("Current adaptive concurrency limit")
+                .tag("route", routeId)
+                .register(meterRegistry);
+        Gauge.builder("gateway.concurrency.in.flight", limit, GradientLimit::getInFlight)
+                .description("Upstream calls in flight")
+                .tag("route", routeId)
+                .register(meterRegistry);
+        Counter rejected = Counter.builder("gateway.concurrency.rejected")
+                .description("Requests shed at the concurrency limit")
+                .tag("route", routeId)
+                .register(meterRegistry);
+        return Optional.of(new Limiter(limit, rejected));
+    }
+
+    public record Limiter(GradientLimit limit, Counter rejected) {
+
+        public boolean tryAcquire() {
+            if (limit.tryAcquire()) {
+                return true;
+            }
+            rejected.increment();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.threadly.gateway.concurrency;
+
+import com.threadly.gateway.config.ConcurrencyLimitProperties;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrency limit for one route, adjusted from observed RTT (gradient algorithm):
+ * a long-term RTT average is the baseline, a short-term one the current latency. While the
+ * current latency stays within {@code tolerance} of the baseline the limit grows by a queue
+ * allowance of sqrt(limit); as latency inflates it shrinks in proportion, down to half per
+ * sample. The limit only moves while at least half of it is in use. A dropped call (error or
+ * 5xx) halves the limit at once, whatever the load; its RTT is not sampled, since a fast
+ * failure would make the upstream look quicker than it is.
+ */
+public class GradientLimit {
+
+    private static final double DROP_BACKOFF = 0.5;
+
+    private final double tolerance;
+    private final double smoothing;
+    private final double shortFactor;
+    private final double longFactor;
+    private final int minLimit;
+    private final int maxLimit;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile int limit;
+
+    private double estimatedLimit;
+    private double shortRtt;
+    private double longRtt;
+    private boolean sampled;
+
+    public GradientLimit(ConcurrencyLimitProperties properties, ConcurrencyLimitProperties.Limits limits) {
+        this.tolerance = properties.getTolerance();
+        this.smoothing = properties.getSmoothing();
+        this.shortFactor = 2.0 / (Math.max(1, properties.getShortWindow()) + 1);
+        this.longFactor = 2.0 / (Math.max(1, properties.getLongWindow()) + 1);
+        this.minLimit = limits.getMinLimit();
+        this.maxLimit = limits.getMaxLimit();
+        this.estimatedLimit = limits.getInitialLimit();
+        this.limit = limits.getInitialLimit();
+    }
+
+    /**
+     * Claims a slot, or returns false if the route is at its limit.
+     */
+    public boolean tryAcquire() {
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= limit) {
+                return false;
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    /**
+     * Frees a slot taken by {@link #tryAcquire}, feeding the call's RTT into the limit.
+     * Pass a negative RTT for calls that were cancelled and say nothing about latency.
+     */
+    public void release(long rttNanos, boolean dropped) {
+        int inFlightBefore = inFlight.getAndDecrement();
+        if (rttNanos >= 0) {
+            onSample(rttNanos, inFlightBefore, dropped);
+        }
+    }
+
+    private synchronized void onSample(long rttNanos, int inFlightBefore, boolean dropped) {
+        if (dropped) {
+            update(estimatedLimit * DROP_BACKOFF);
+            return;
+        }
+        if (!sampled) {
+            shortRtt = rttNanos;
+            longRtt = rttNanos;
+            sampled = true;
+            return;
+        }
+        shortRtt += (rttNanos - shortRtt) * shortFactor;
+        longRtt += (rttNanos - longRtt) * longFactor;
+
+        // Let the baseline follow a lasting latency drop quickly instead of over the long window
+        if (longRtt / shortRtt > 2) {
+            longRtt *= 0.95;
+        }
+
+        // Not enough load to say anything about the limit
+        if (inFlightBefore < estimatedLimit / 2) {
+            return;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * longRtt / shortRtt));
+        double next = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        update(estimatedLimit * (1 - smoothing) + next * smoothing);
+    }
+
+    private void update(double next) {
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, next));
+        limit = (int) estimatedLimit;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
@@ -0,0 +1,30 @@
+package com.threadly.gateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Settings for the structured access log, bound from {@code gateway.access-log.*}.
+ * Sample rates are between 0.0 and 1.0; requests that end in an error status or fail with an
+ * error are always logged.
+ */
+@Data
+@ConfigurationProperties(prefix = "gateway.access-log")
+public class AccessLogProperties {
+
+    private boolean enabled = true;
+
+    /** Ring buffer capacity, rounded up to a power of two. Records are dropped when full. */
+    private int bufferSize = 8192;
+
+    /** How long the writer thread sleeps when the buffer is empty. */
+    private long flushIntervalMs = 10;
+
+    private double defaultSampleRate = 1.0;
+
+    /** Per-route sample rate, keyed by route ID. */
+    private Map<String, Double> routeSampleRates = new HashMap<>();
+}
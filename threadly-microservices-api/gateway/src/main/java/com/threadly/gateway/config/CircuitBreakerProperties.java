@@ -0,0 +1,55 @@
+package com.threadly.gateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Circuit breaker and bulkhead settings per route, bound from {@code gateway.circuit-breaker.*}.
+ * Every route gets the defaults unless {@code routes} overrides them.
+ */
+@Data
+@ConfigurationProperties(prefix = "gateway.circuit-breaker")
+public class CircuitBreakerProperties {
+
+    private boolean enabled = true;
+
+    private Settings defaults = new Settings();
+
+    /** Per-route overrides, keyed by route ID. */
+    private Map<String, Settings> routes = new HashMap<>();
+
+    public Settings settingsFor(String routeId) {
+        return routes.getOrDefault(routeId, defaults);
+    }
+
+    @Data
+    public static class Settings {
+        private boolean enabled = true;
+
+        /** Percentage of failed calls (errors, 5xx) in the window that opens the circuit. */
+        private float failureRateThreshold = 50;
+
+        /** Percentage of calls slower than slow-call-duration in the window that opens the circuit. */
+        private float slowCallRateThreshold = 80;
+
+        private Duration slowCallDuration = Duration.ofSeconds(2);
+
+        /** Most recent calls the rates are computed over. */
+        private int slidingWindowSize = 50;
+
+        /** Calls needed in the window before the rates are acted on. */
+        private int minimumCalls = 20;
+
+        private Duration waitInOpen = Duration.ofSeconds(10);
+
+        /** Probe calls let through while half-open. */
+        private int permittedCallsInHalfOpen = 5;
+
+        /** Bulkhead: most calls in flight to the route; more are rejected at once. */
+        private int maxConcurrentCalls = 100;
+    }
+}
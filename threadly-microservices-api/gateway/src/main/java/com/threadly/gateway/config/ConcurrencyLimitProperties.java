@@ -0,0 +1,47 @@
+package com.threadly.gateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Adaptive concurrency limits per route, bound from {@code gateway.concurrency-limit.*}.
+ * Every route gets a limiter with the default limits unless {@code routes} overrides them.
+ */
+@Data
+@ConfigurationProperties(prefix = "gateway.concurrency-limit")
+public class ConcurrencyLimitProperties {
+
+    private boolean enabled = true;
+
+    /** Latency inflation tolerated before the limit shrinks (long-term RTT / short-term RTT). */
+    private double tolerance = 1.5;
+
+    /** Weight of each new limit estimate, 0..1. */
+    private double smoothing = 0.2;
+
+    /** Samples averaged into the short-term RTT. */
+    private int shortWindow = 10;
+
+    /** Samples averaged into the long-term (baseline) RTT. */
+    private int longWindow = 600;
+
+    private Limits defaults = new Limits();
+
+    /** Per-route overrides, keyed by route ID. */
+    private Map<String, Limits> routes = new HashMap<>();
+
+    public Limits limitsFor(String routeId) {
+        return routes.getOrDefault(routeId, defaults);
+    }
+
+    @Data
+    public static class Limits {
+        private boolean enabled = true;
+        private int initialLimit = 20;
+        private int minLimit = 4;
+        private int maxLimit = 200;
+    }
+}
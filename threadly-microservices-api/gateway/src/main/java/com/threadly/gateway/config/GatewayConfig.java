@@ -1,18 +1,97 @@
 package com.threadly.gateway.config;
 
+import com.threadly.gateway.cache.ResponseCachePolicy;
+import com.threadly.gateway.coalescing.CoalescingPolicy;
+import com.threadly.gateway.hedging.HedgePolicy;
+import com.threadly.gateway.loadbalancer.LoadBalancerStrategy;
+import com.threadly.gateway.ratelimit.RateLimit;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
 import org.springframework.cloud.gateway.route.RouteLocator;
+import org.springframework.cloud.gateway.support.RouteMetadataUtils;
 import org.springframework.cloud.gateway.route.builder.RouteLocatorBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+
+import java.time.Duration;
 
 @Configuration
+@EnableConfigurationProperties({GatewaySecurityProperties.class, AccessLogProperties.class, RevocationProperties.class,
+        ConcurrencyLimitProperties.class, CircuitBreakerProperties.class})
+@LoadBalancerClients(defaultConfiguration = LoadBalancerConfiguration.class)
 public class GatewayConfig {
 
+    // Credential endpoints hit BCrypt in user-service, so they get a tight per-IP limit
+    @Value("${gateway.rate-limit.credentials.capacity:10}")
+    private int credentialsCapacity;
+
+    @Value("${gateway.rate-limit.credentials.refill-per-second:0.2}")
+    private double credentialsRefillPerSecond;
+
+    @Value("${gateway.rate-limit.users.capacity:100}")
+    private int usersCapacity;
+
+    @Value("${gateway.rate-limit.users.refill-per-second:20}")
+    private double usersRefillPerSecond;
+
+    @Value("${gateway.response-cache.profile-ttl:30s}")
+    private Duration profileCacheTtl;
+
+    @Value("${gateway.coalescing.max-body-bytes:262144}")
+    private int coalescingMaxBodyBytes;
+
+    @Value("${gateway.hedging.profile.percentile:0.95}")
+    private double profileHedgePercentile;
+
+    @Value("${gateway.hedging.profile.min-delay:10ms}")
+    private Duration profileHedgeMinDelay;
+
+    @Value("${gateway.hedging.profile.max-delay:500ms}")
+    private Duration profileHedgeMaxDelay;
+
+    @Value("${gateway.load-balancer.strategy:PEAK_EWMA}")
+    private LoadBalancerStrategy loadBalancerStrategy;
+
     @Bean
     public RouteLocator customRouteLocator(RouteLocatorBuilder builder) {
         return builder.routes()
-                .route("user-service", r -> r
-                        .path("/api/users/**", "/api/auth/**")
+                .route("auth-credentials", r -> r
+                        .path("/api/auth/login", "/api/auth/register")
+                        .metadata(RateLimit.METADATA_KEY,
+                                new RateLimit(credentialsCapacity, credentialsRefillPerSecond))
+                        .metadata(LoadBalancerStrategy.METADATA_KEY, loadBalancerStrategy)
+                        .uri("lb://user-service"))
+                .route("auth", r -> r
+                        .path("/api/auth/**")
+                        .metadata(LoadBalancerStrategy.METADATA_KEY, loadBalancerStrategy)
+                        .uri("lb://user-service"))
+                .route("users-profile", r -> r
+                        .path("/api/users/profile")
+                        .and().method(HttpMethod.GET)
+                        .metadata(RateLimit.METADATA_KEY,
+                                new RateLimit(usersCapacity, usersRefillPerSecond))
+                        .metadata(ResponseCachePolicy.METADATA_KEY,
+                                new ResponseCachePolicy(profileCacheTtl))
+                        .metadata(CoalescingPolicy.METADATA_KEY,
+                                new CoalescingPolicy(coalescingMaxBodyBytes))
+                        .metadata(HedgePolicy.METADATA_KEY,
+                                new HedgePolicy(profileHedgePercentile, profileHedgeMinDelay, profileHedgeMaxDelay))
+                        .metadata(LoadBalancerStrategy.METADATA_KEY, loadBalancerStrategy)
+                        .uri("lb://user-service"))
+                // Bulk import streams both ways; ADMIN only (gateway policy, checked again by user-service).
+                // Round robin and no response timeout: imports run for minutes.
+                .route("users-admin", r -> r
+                        .path("/api/admin/users/**")
+                        .metadata(LoadBalancerStrategy.METADATA_KEY, LoadBalancerStrategy.ROUND_ROBIN)
+                        .metadata(RouteMetadataUtils.RESPONSE_TIMEOUT_ATTR, -1)
+                        .uri("lb://user-service"))
+                .route("users", r -> r
+                        .path("/api/users/**")
+                        .metadata(RateLimit.METADATA_KEY,
+                                new RateLimit(usersCapacity, usersRefillPerSecond))
+                        .metadata(LoadBalancerStrategy.METADATA_KEY, loadBalancerStrategy)
                         .uri("lb://user-service"))
                 .build();
     }
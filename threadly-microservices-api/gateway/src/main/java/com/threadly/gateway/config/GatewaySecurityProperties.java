@@ -0,0 +1,29 @@
+package com.threadly.gateway.config;
+
+import com.threadly.gateway.security.RoutePolicy;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Route-policy table bound from {@code gateway.security.*}.
+ * Paths are exact unless they end in {@code /**}, which matches the prefix and everything below it.
+ */
+@Data
+@ConfigurationProperties(prefix = "gateway.security")
+public class GatewaySecurityProperties {
+
+    private RoutePolicy defaultPolicy = RoutePolicy.AUTHENTICATED;
+
+    private List<Route> routes = new ArrayList<>();
+
+    @Data
+    public static class Route {
+        private String method;
+        private String path;
+        private RoutePolicy policy = RoutePolicy.OPEN;
+        private String role;
+    }
+}
@@ -0,0 +1,28 @@
+package com.threadly.gateway.config;
+
+import com.threadly.gateway.loadbalancer.PeakEwmaLoadBalancer;
+import com.threadly.gateway.loadbalancer.PeakEwmaStats;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.loadbalancer.core.ReactorLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+
+/**
+ * Load-balancer client configuration for every {@code lb://} service, registered through
+ * {@code @LoadBalancerClients} on GatewayConfig. Deliberately not a {@code @Configuration}:
+ * it is instantiated in each service's load-balancer context, not the application context.
+ */
+public class LoadBalancerConfiguration {
+
+    @Bean
+    public ReactorLoadBalancer<ServiceInstance> peakEwmaLoadBalancer(
+            Environment environment,
+            LoadBalancerClientFactory clientFactory,
+            PeakEwmaStats stats) {
+        String serviceId = environment.getProperty(LoadBalancerClientFactory.PROPERTY_NAME);
+        return new PeakEwmaLoadBalancer(
+                clientFactory.getLazyProvider(serviceId, ServiceInstanceListSupplier.class), serviceId, stats);
+    }
+}
@@ -0,0 +1,42 @@
+package com.threadly.gateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Token revocation snapshot settings, bound from {@code gateway.revocation.*}.
+ * The snapshot is pulled from user-service; nothing is fetched on the request path.
+ */
+@Data
+@ConfigurationProperties(prefix = "gateway.revocation")
+public class RevocationProperties {
+
+    private boolean enabled = true;
+
+    /** Base URL of the revocation feed; {@code lb://}-style service IDs resolve through discovery. */
+    private String serviceUrl = "http://user-service";
+
+    /** How often deltas are pulled. Bounds how long a revoked token is still accepted. */
+    private Duration pollInterval = Duration.ofSeconds(2);
+
+    /** How often the whole feed is re-read, which also drops expired entries. */
+    private Duration fullResyncInterval = Duration.ofMinutes(5);
+
+    /**
+     * Row IDs below the cursor that every delta pull reads again. IDs are handed out at insert
+     * but rows become visible at commit, so a row can appear behind the cursor; re-reading a
+     * trailing window picks it up on the next poll instead of the next full resync.
+     */
+    private int cursorOverlap = 1000;
+
+    private Duration requestTimeout = Duration.ofSeconds(2);
+
+    private int pageSize = 1000;
+
+    /** Token IDs the Bloom filter is sized for; it is rebuilt larger if exceeded. */
+    private int expectedEntries = 100_000;
+
+    private double falsePositiveRate = 0.01;
+}
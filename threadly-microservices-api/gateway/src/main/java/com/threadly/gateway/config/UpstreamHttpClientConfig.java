@@ -0,0 +1,72 @@
+package com.threadly.gateway.config;
+
+import io.netty.channel.ChannelOption;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.netty.http.Http2AllocationStrategy;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * The HttpClient the gateway routes with. Defining it replaces Spring Cloud Gateway's own,
+ * so the pool and protocols come from {@code gateway.upstream.*}; timeouts, header limits,
+ * compression and wiretap are still read from {@code spring.cloud.gateway.httpclient.*}
+ * (pool, proxy and SSL settings there no longer apply).
+ */
+@Configuration
+@EnableConfigurationProperties(UpstreamHttpClientProperties.class)
+@Slf4j
+public class UpstreamHttpClientConfig {
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider upstreamConnectionProvider(UpstreamHttpClientProperties properties) {
+        UpstreamHttpClientProperties.Pool pool = properties.getPool();
+        ConnectionProvider.Builder builder = ConnectionProvider.builder("upstream")
+                .maxConnections(pool.getMaxConnections())
+                .pendingAcquireMaxCount(pool.getPendingAcquireMaxCount())
+                .pendingAcquireTimeout(pool.getPendingAcquireTimeout())
+                .maxIdleTime(pool.getMaxIdleTime())
+                .maxLifeTime(pool.getMaxLifeTime())
+                .evictInBackground(pool.getEvictionInterval())
+                // Reuse the most recent connection so surplus ones go idle and are closed by us
+                .lifo()
+                .metrics(pool.isMetrics());
+        if (properties.getProtocols().contains(HttpProtocol.H2C)) {
+            builder.allocationStrategy(Http2AllocationStrategy.builder()
+                    .maxConnections(pool.getMaxConnections())
+                    .minConnections(pool.getMinConnections())
+                    .maxConcurrentStreams(pool.getMaxConcurrentStreams())
+                    .build());
+        }
+        log.info("Upstream pool: protocols = {}, max connections per instance = {}, pending acquire max = {}",
+                properties.getProtocols(), pool.getMaxConnections(), pool.getPendingAcquireMaxCount());
+        return builder.build();
+    }
+
+    @Bean
+    public HttpClient gatewayHttpClient(ConnectionProvider upstreamConnectionProvider,
+                                        UpstreamHttpClientProperties properties,
+                                        HttpClientProperties gatewayProperties) {
+        HttpClient httpClient = HttpClient.create(upstreamConnectionProvider)
+                .protocol(properties.getProtocols().toArray(HttpProtocol[]::new))
+                .httpResponseDecoder(spec -> {
+                    if (gatewayProperties.getMaxHeaderSize() != null) {
+                        spec.maxHeaderSize((int) gatewayProperties.getMaxHeaderSize().toBytes());
+                    }
+                    if (gatewayProperties.getMaxInitialLineLength() != null) {
+                        spec.maxInitialLineLength((int) gatewayProperties.getMaxInitialLineLength().toBytes());
+                    }
+                    return spec;
+                })
+                .compress(gatewayProperties.isCompression())
+                .wiretap(gatewayProperties.isWiretap());
+        if (gatewayProperties.getConnectTimeout() != null) {
+            httpClient = httpClient.option(ChannelOption.CONNECT_TIMEOUT_MILLIS, gatewayProperties.getConnectTimeout());
+        }
+        return httpClient;
+    }
+}
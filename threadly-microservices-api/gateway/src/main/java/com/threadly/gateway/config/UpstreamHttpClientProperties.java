@@ -0,0 +1,66 @@
+package com.threadly.gateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import reactor.netty.http.HttpProtocol;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Connection management for gateway-to-service calls, bound from {@code gateway.upstream.*}.
+ * Pools are kept per remote address, so pool limits apply to each service instance.
+ */
+@Data
+@ConfigurationProperties(prefix = "gateway.upstream")
+public class UpstreamHttpClientProperties {
+
+    /** H2C alone is prior knowledge; with HTTP11 too, each connection starts with an h2c upgrade. */
+    private List<HttpProtocol> protocols = new ArrayList<>(List.of(HttpProtocol.HTTP11, HttpProtocol.H2C));
+
+    private Pool pool = new Pool();
+
+    private WarmUp warmUp = new WarmUp();
+
+    @Data
+    public static class Pool {
+        /** Connections per instance. Over HTTP/2 each carries up to max-concurrent-streams requests. */
+        private int maxConnections = 50;
+
+        /** Connections per instance kept open over HTTP/2, even when idle. */
+        private int minConnections = 1;
+
+        private int maxConcurrentStreams = 100;
+
+        /** Requests allowed to wait for a connection per instance; more fail at once. */
+        private int pendingAcquireMaxCount = 200;
+
+        private Duration pendingAcquireTimeout = Duration.ofSeconds(2);
+
+        /** Below user-service's keep-alive timeout, so the gateway closes idle connections first. */
+        private Duration maxIdleTime = Duration.ofSeconds(15);
+
+        private Duration maxLifeTime = Duration.ofMinutes(5);
+
+        private Duration evictionInterval = Duration.ofSeconds(10);
+
+        /** Exposes reactor.netty.connection.provider.* pool meters. */
+        private boolean metrics = true;
+    }
+
+    @Data
+    public static class WarmUp {
+        private boolean enabled = true;
+
+        /** Service IDs whose new instances get connections opened ahead of traffic. */
+        private List<String> services = new ArrayList<>(List.of("user-service"));
+
+        private int connections = 4;
+
+        /** Cheap request used to open each connection; the response is ignored. */
+        private String path = "/";
+
+        private Duration timeout = Duration.ofSeconds(2);
+    }
+}
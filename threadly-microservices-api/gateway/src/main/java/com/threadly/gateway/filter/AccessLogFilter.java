@@ -0,0 +1,108 @@
+package com.threadly.gateway.filter;
+
+import com.threadly.gateway.config.AccessLogProperties;
+import com.threadly.gateway.logging.AccessLogAppender;
+import com.threadly.gateway.logging.AccessLogRecord;
+import com.threadly.gateway.logging.UpstreamSqlHeaders;
+import com.threadly.gateway.security.AuthOutcome;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.ErrorResponse;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Emits one structured access-log record per exchange (method, path, route, status,
+ * user ID, auth outcome, latency, upstream SQL totals). Records are sampled per route, except that error
+ * responses and exchanges that fail with an error are always logged (the latter with the error's status,
+ * or 500), and are handed to {@link AccessLogAppender} without blocking.
+ * The upstream SQL headers are read and removed just before the response is committed, so
+ * clients never see them, whether or not the access log is enabled.
+ */
+@Component
+@RequiredArgsConstructor
+public class AccessLogFilter implements GlobalFilter, Ordered {
+
+    private static final int ERROR_STATUS = 400;
+    private static final int INTERNAL_SERVER_ERROR = 500;
+    private static final String ERROR_STATUS_ATTR = AccessLogFilter.class.getName() + ".errorStatus";
+    private static final String SQL_TOTALS_ATTR = AccessLogFilter.class.getName() + ".sqlTotals";
+    private static final UpstreamSqlHeaders NO_SQL = new UpstreamSqlHeaders(null, null);
+
+    private final AccessLogProperties properties;
+    private final AccessLogAppender appender;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        exchange.getResponse().beforeCommit(() -> {
+            UpstreamSqlHeaders totals = UpstreamSqlHeaders.take(exchange.getResponse().getHeaders());
+            exchange.getAttributes().put(SQL_TOTALS_ATTR, totals);
+            return Mono.empty();
+        });
+        if (!properties.isEnabled()) {
+            return chain.filter(exchange);
+        }
+
+        long start = System.nanoTime();
+        return chain.filter(exchange)
+                .doOnError(error -> exchange.getAttributes().put(ERROR_STATUS_ATTR, errorStatus(error)))
+                .doFinally(signal -> record(exchange, start, signal));
+    }
+
+    private void record(ServerWebExchange exchange, long start, SignalType signal) {
+        long latencyMs = (System.nanoTime() - start) / 1_000_000;
+
+        // An error escaping the chain is answered by the error handler later, whatever status was set so far
+        boolean failed = signal == SignalType.ON_ERROR;
+        HttpStatusCode statusCode = exchange.getResponse().getStatusCode();
+        int status = failed
+                ? exchange.getAttributeOrDefault(ERROR_STATUS_ATTR, INTERNAL_SERVER_ERROR)
+                : statusCode != null ? statusCode.value() : 200;
+
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        String routeId = route != null ? route.getId() : null;
+
+        if (!failed && status < ERROR_STATUS && !sampled(routeId)) {
+            return;
+        }
+
+        UpstreamSqlHeaders sql = exchange.getAttributeOrDefault(SQL_TOTALS_ATTR, NO_SQL);
+        appender.append(new AccessLogRecord(
+                System.currentTimeMillis(),
+                exchange.getRequest().getMethod().name(),
+                exchange.getRequest().getURI().getPath(),
+                routeId,
+                status,
+                exchange.getAttribute(AuthOutcome.USER_ID_ATTR),
+                AuthOutcome.of(exchange),
+                latencyMs,
+                sql.statements(),
+                sql.timeMs()
+        ));
+    }
+
+    private static int errorStatus(Throwable error) {
+        return error instanceof ErrorResponse response ? response.getStatusCode().value() : INTERNAL_SERVER_ERROR;
+    }
+
+    private boolean sampled(String routeId) {
+        double rate = routeId != null
+                ? properties.getRouteSampleRates().getOrDefault(routeId, properties.getDefaultSampleRate())
+                : properties.getDefaultSampleRate();
+        return rate >= 1.0 || (rate > 0.0 && ThreadLocalRandom.current().nextDouble() < rate);
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+}
@@ -1,135 +1,245 @@
 package com.threadly.gateway.filter;
 
+import com.threadly.gateway.security.AuthOutcome;
+import com.threadly.gateway.security.RevocationRegistry;
+import com.threadly.gateway.security.RoutePolicy;
+import com.threadly.gateway.security.RoutePolicyMatcher;
+import com.threadly.gateway.security.RouteRule;
+import com.threadly.gateway.security.VerifiedToken;
+import com.threadly.gateway.security.VerifiedTokenCache;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
 import org.springframework.core.Ordered;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.server.reactive.ServerHttpRequest;
-import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
 import javax.crypto.SecretKey;
-import java.util.Arrays;
-import java.util.Date;
-import java.util.List;
+import java.net.URI;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Component
+@RequiredArgsConstructor
 @Slf4j
 public class AuthenticationFilter implements GlobalFilter, Ordered {
 
+    private static final String CLAIM_ROLES = "roles";
+
+    private final VerifiedTokenCache tokenCache;
+    private final RoutePolicyMatcher routePolicyMatcher;
+    private final RevocationRegistry revocationRegistry;
+    private final MeterRegistry meterRegistry;
+
     @Value("${jwt.secret}")
     private String jwtSecret;
 
-    private static final List<String> OPEN_ENDPOINTS = Arrays.asList(
-            "/api/auth/register",
-            "/api/auth/login",
-            "/api/auth/refresh"
-    );
+    private JwtParser jwtParser;
+
+    private Timer jwtVerifyTimer;
+    private final Map<AuthOutcome, Counter> outcomeCounters = new EnumMap<>(AuthOutcome.class);
+
+    @PostConstruct
+    void initParser() {
+        SecretKey key = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        this.jwtParser = Jwts.parser()
+                .verifyWith(key)
+                .build();
+
+        this.jwtVerifyTimer = Timer.builder("gateway.auth.jwt.verify")
+                .description("JWT signature verification and claim parsing (cache misses only)")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        for (AuthOutcome outcome : AuthOutcome.values()) {
+            outcomeCounters.put(outcome, Counter.builder("gateway.auth.outcome")
+                    .description("Authentication outcomes at the gateway")
+                    .tag("outcome", outcome.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+    }
 
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
-        String path = exchange.getRequest().getURI().getPath();
+        String path = policyPath(exchange.getRequest().getURI());
         String method = exchange.getRequest().getMethod().name();
 
-        log.info("Gateway request: {} {}", method, path); // ← Change to INFO
+        log.debug("Gateway request: {} {}", method, path);
 
         // Skip authentication cho open endpoints
-        if (isOpenEndpoint(path)) {
-            log.info("Open endpoint accessed: {}", path); // ← Change to INFO
+        RouteRule rule = routePolicyMatcher.match(method, path);
+        log.debug("Route policy for {} {}: {}", method, path, rule.policy());
+        if (rule.policy() == RoutePolicy.DENIED) {
+            log.debug("Denied path requested: {}", path);
+            recordOutcome(exchange, AuthOutcome.DENIED);
+            return GatewayErrorResponse.write(exchange, HttpStatus.NOT_FOUND, "Not found", "NOT_FOUND");
+        }
+        if (rule.policy() == RoutePolicy.OPEN) {
+            log.debug("Open endpoint accessed: {}", path);
+            recordOutcome(exchange, AuthOutcome.OPEN);
             return chain.filter(exchange);
         }
 
-        log.info("Protected endpoint - checking auth: {}", path);
+        log.debug("Protected endpoint - checking auth: {}", path);
 
         // Check Bearer token cho protected endpoints
         String authHeader = exchange.getRequest().getHeaders().getFirst("Authorization");
 
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-            log.warn("Missing or invalid Authorization header for: {}", path);
+            log.debug("Missing or invalid Authorization header for: {}", path);
+            recordOutcome(exchange, AuthOutcome.MISSING);
             return unauthorized(exchange, "Missing or invalid Authorization header");
         }
 
         String token = authHeader.substring(7);
         if (token.trim().isEmpty()) {
-            log.warn("Empty token for: {}", path);
+            log.debug("Empty token for: {}", path);
+            recordOutcome(exchange, AuthOutcome.MISSING);
             return unauthorized(exchange, "Empty authentication token");
         }
 
-        try {
-            Claims claims = validateJWT(token);
+        // An empty snapshot would let every revoked token through, so refuse until one has loaded
+        if (!revocationRegistry.isReady()) {
+            log.debug("Revocation snapshot not loaded yet, refusing token for: {}", path);
+            recordOutcome(exchange, AuthOutcome.UNAVAILABLE);
+            exchange.getResponse().getHeaders().set("Retry-After", "1");
+            return GatewayErrorResponse.write(exchange, HttpStatus.SERVICE_UNAVAILABLE,
+                    "Authentication temporarily unavailable, retry later", "AUTH_UNAVAILABLE");
+        }
 
-            // Extract userId from JWT subject (CORRECT WAY)
-            String userIdStr = claims.getSubject();
-            Long userId = Long.valueOf(userIdStr);
+        try {
+            VerifiedToken verified = verifyToken(token);
+            Long userId = verified.userId();
 
-            log.info("Extracted userId: {} from JWT subject", userId);
+            log.debug("Extracted userId: {} from JWT subject", userId);
+            exchange.getAttributes().put(AuthOutcome.USER_ID_ATTR, userId);
 
             // Check token expiration
-            if (claims.getExpiration().before(new Date())) {
-                log.warn("Expired token for user: {}", userId);
+            if (verified.isExpired(System.currentTimeMillis())) {
+                log.debug("Expired token for user: {}", userId);
+                recordOutcome(exchange, AuthOutcome.EXPIRED);
                 return unauthorized(exchange, "Token has expired");
             }
 
+            // In-memory snapshot lookup, never a remote call
+            if (revocationRegistry.isRevoked(verified)) {
+                log.debug("Revoked token for user: {}", userId);
+                recordOutcome(exchange, AuthOutcome.REVOKED);
+                return unauthorized(exchange, "Token has been revoked");
+            }
+
+            if (rule.policy() == RoutePolicy.ROLE_REQUIRED && !verified.hasRole(rule.role())) {
+                log.debug("User {} lacks role {} for: {}", userId, rule.role(), path);
+                recordOutcome(exchange, AuthOutcome.FORBIDDEN);
+                return forbidden(exchange, "Insufficient permissions");
+            }
+
             // Enrich request với user info
             ServerHttpRequest modifiedRequest = exchange.getRequest().mutate()
                     .header("X-User-ID", String.valueOf(userId))
                     .header("X-Gateway-Validated", "true")
+                    // Lets user-service keep reads right after register on the primary, on any instance
+                    .header("X-Token-Issued-At", String.valueOf(verified.issuedAtMillis()))
                     .build();
 
-            log.info("JWT validated successfully for user ID: {}", userId);
+            log.debug("JWT validated successfully for user ID: {}", userId);
+            recordOutcome(exchange, AuthOutcome.OK);
             return chain.filter(exchange.mutate().request(modifiedRequest).build());
 
+        } catch (ExpiredJwtException e) {
+            log.debug("Expired token for: {}", path);
+            recordOutcome(exchange, AuthOutcome.EXPIRED);
+            return unauthorized(exchange, "Invalid or expired token");
         } catch (Exception e) {
-            log.warn("JWT validation failed for {}: {}", path, e.getMessage());
+            log.debug("JWT validation failed for {}: {}", path, e.getMessage());
+            recordOutcome(exchange, AuthOutcome.INVALID);
             return unauthorized(exchange, "Invalid or expired token");
         }
     }
 
+    /**
+     * Request path as the upstream server resolves it, dot segments removed and repeated
+     * slashes merged, so {@code /user-service//internal} cannot slip past a DENIED prefix.
+     */
+    private static String policyPath(URI uri) {
+        String path = uri.normalize().getPath();
+        if (path == null || path.isEmpty()) {
+            return "/";
+        }
+        return path.contains("//") ? path.replaceAll("/{2,}", "/") : path;
+    }
+
+    /**
+     * Verify the token, consulting the verified-token cache first so a repeated
+     * token skips the HMAC check and claim parsing.
+     */
+    private VerifiedToken verifyToken(String token) throws JwtException {
+        VerifiedToken cached = tokenCache.get(token);
+        if (cached != null) {
+            return cached;
+        }
+
+        Claims claims = validateJWT(token);
+        VerifiedToken verified = new VerifiedToken(
+                Long.valueOf(claims.getSubject()),
+                claims.getId(),
+                extractRoles(claims),
+                claims.getIssuedAt() == null ? 0 : claims.getIssuedAt().getTime(),
+                claims.getExpiration().getTime());
+        tokenCache.put(token, verified);
+        return verified;
+    }
+
     private Claims validateJWT(String token) throws JwtException {
-        SecretKey key = Keys.hmacShaKeyFor(jwtSecret.getBytes());
-        return Jwts.parser()
-                .verifyWith(key)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            return jwtParser
+                    .parseSignedClaims(token)
+                    .getPayload();
+        } finally {
+            sample.stop(jwtVerifyTimer);
+        }
+    }
+
+    private void recordOutcome(ServerWebExchange exchange, AuthOutcome outcome) {
+        outcome.record(exchange);
+        outcomeCounters.get(outcome).increment();
     }
 
-    private boolean isOpenEndpoint(String path) {
-        boolean isOpen = OPEN_ENDPOINTS.stream().anyMatch(path::startsWith);
-        log.info("Checking endpoint {}: isOpen = {}", path, isOpen); // ← Add debug info
-        return isOpen;
+    private Set<String> extractRoles(Claims claims) {
+        Object roles = claims.get(CLAIM_ROLES);
+        if (roles instanceof Collection<?> values) {
+            return values.stream().map(String::valueOf).collect(Collectors.toSet());
+        }
+        return Set.of();
     }
 
     private Mono<Void> unauthorized(ServerWebExchange exchange, String message) {
-        ServerHttpResponse response = exchange.getResponse();
-        response.setStatusCode(HttpStatus.UNAUTHORIZED);
-        response.getHeaders().add("Content-Type", "application/json");
-
-        String errorBody = """
-            {
-                "status": 401,
-                "success": false,
-                "message": "%s",
-                "error": "UNAUTHORIZED_ACCESS",
-                "timestamp": %d,
-                "path": "%s"
-            }
-            """.formatted(message, System.currentTimeMillis(), exchange.getRequest().getURI().getPath());
+        return GatewayErrorResponse.write(exchange, HttpStatus.UNAUTHORIZED, message, "UNAUTHORIZED_ACCESS");
+    }
 
-        return response.writeWith(
-                Mono.just(response.bufferFactory().wrap(errorBody.getBytes()))
-        );
+    private Mono<Void> forbidden(ServerWebExchange exchange, String message) {
+        return GatewayErrorResponse.write(exchange, HttpStatus.FORBIDDEN, message, "FORBIDDEN");
     }
 
     @Override
     public int getOrder() {
-        return -1;
+        // Before RateLimitFilter, ResponseCacheFilter and RequestCoalescingFilter, which key on the verified user ID
+        return NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 4;
     }
 }
 
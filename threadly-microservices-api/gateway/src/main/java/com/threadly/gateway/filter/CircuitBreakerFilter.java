@@ -0,0 +1,79 @@
+package com.threadly.gateway.filter;
+
+import com.threadly.gateway.resilience.RouteGuardRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-route circuit breaker and bulkhead. While a route's circuit is open, or its bulkhead
+ * is full, requests are answered at once with a pre-serialized 503 instead of waiting on a
+ * stalled upstream. Errors and 5xx responses count as failures; calls over the slow-call
+ * duration count as slow. Responses the gateway wrote itself, such as ConcurrencyLimitFilter's
+ * load-shedding 503, say nothing about the upstream and are not recorded.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CircuitBreakerFilter implements GlobalFilter, Ordered {
+
+    private static final GatewayErrorResponse.Prepared CIRCUIT_OPEN = new GatewayErrorResponse.Prepared(
+            HttpStatus.SERVICE_UNAVAILABLE, "Service temporarily unavailable, retry later", "CIRCUIT_OPEN");
+    private static final GatewayErrorResponse.Prepared BULKHEAD_FULL = new GatewayErrorResponse.Prepared(
+            HttpStatus.SERVICE_UNAVAILABLE, "Service is busy, retry later", "SERVICE_OVERLOADED");
+
+    private final RouteGuardRegistry registry;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        RouteGuardRegistry.RouteGuard guard = route == null ? null : registry.get(route.getId());
+        if (guard == null) {
+            return chain.filter(exchange);
+        }
+
+        if (!guard.breaker().tryAcquirePermission()) {
+            guard.rejectedOpen().increment();
+            long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(guard.breaker().remainingOpenNanos()) + 1);
+            exchange.getResponse().getHeaders().set("Retry-After", String.valueOf(retryAfter));
+            return CIRCUIT_OPEN.write(exchange);
+        }
+        if (!guard.bulkhead().tryAcquire()) {
+            guard.breaker().release();
+            guard.rejectedFull().increment();
+            log.debug("Bulkhead full on route {}", route.getId());
+            exchange.getResponse().getHeaders().set("Retry-After", "1");
+            return BULKHEAD_FULL.write(exchange);
+        }
+
+        long start = System.nanoTime();
+        return chain.filter(exchange).doFinally(signal -> {
+            guard.bulkhead().release();
+            if (signal == SignalType.CANCEL || GatewayErrorResponse.isGenerated(exchange)) {
+                guard.breaker().release();
+                return;
+            }
+            HttpStatusCode status = exchange.getResponse().getStatusCode();
+            boolean failed = signal == SignalType.ON_ERROR || (status != null && status.is5xxServerError());
+            guard.breaker().onResult(System.nanoTime() - start, failed);
+        });
+    }
+
+    @Override
+    public int getOrder() {
+        // After RateLimitFilter, before ConcurrencyLimitFilter
+        return 1;
+    }
+}
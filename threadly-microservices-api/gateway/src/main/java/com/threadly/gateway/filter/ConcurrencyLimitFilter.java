@@ -0,0 +1,64 @@
+package com.threadly.gateway.filter;
+
+import com.threadly.gateway.concurrency.ConcurrencyLimiterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+/**
+ * Sheds requests with 503 once a route has as many upstream calls in flight as its adaptive
+ * limit allows, so excess load is turned away here instead of queueing in user-service.
+ * Runs after the response cache, coalescing, rate limiting and the circuit breaker, so only
+ * requests that would reach upstream count. Errors and 5xx responses are reported to the
+ * limit as drops.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ConcurrencyLimitFilter implements GlobalFilter, Ordered {
+
+    private final ConcurrencyLimiterRegistry registry;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        ConcurrencyLimiterRegistry.Limiter limiter = route == null ? null : registry.get(route.getId());
+        if (limiter == null) {
+            return chain.filter(exchange);
+        }
+
+        if (!limiter.tryAcquire()) {
+            log.debug("Concurrency limit {} reached on route {}", limiter.limit().getLimit(), route.getId());
+            exchange.getResponse().getHeaders().set("Retry-After", "1");
+            return GatewayErrorResponse.write(exchange, HttpStatus.SERVICE_UNAVAILABLE,
+                    "Service is busy, retry later", "SERVICE_OVERLOADED");
+        }
+
+        long start = System.nanoTime();
+        return chain.filter(exchange).doFinally(signal -> {
+            if (signal == SignalType.CANCEL) {
+                limiter.limit().release(-1, false);
+                return;
+            }
+            HttpStatusCode status = exchange.getResponse().getStatusCode();
+            boolean dropped = signal == SignalType.ON_ERROR || (status != null && status.is5xxServerError());
+            limiter.limit().release(System.nanoTime() - start, dropped);
+        });
+    }
+
+    @Override
+    public int getOrder() {
+        // After RateLimitFilter and CircuitBreakerFilter
+        return 2;
+    }
+}
@@ -0,0 +1,99 @@
+package com.threadly.gateway.filter;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes gateway-generated error responses in the same JSON shape as user-service's ApiResponseDTO errors.
+ */
+public final class GatewayErrorResponse {
+
+    /**
+     * Set on exchanges whose response was written by the gateway itself rather than an upstream,
+     * so filters that measure upstream health can leave those responses out.
+     */
+    public static final String GENERATED_ATTR = GatewayErrorResponse.class.getName() + ".generated";
+
+    private GatewayErrorResponse() {
+    }
+
+    public static boolean isGenerated(ServerWebExchange exchange) {
+        return exchange.getAttributes().containsKey(GENERATED_ATTR);
+    }
+
+    public static String body(HttpStatus status, String message, String error, String path) {
+        return template(status, message, error, String.valueOf(System.currentTimeMillis()), path);
+    }
+
+    private static String template(HttpStatus status, String message, String error, String timestamp, String path) {
+        return """
+            {
+                "status": %d,
+                "success": false,
+                "message": "%s",
+                "error": "%s",
+                "timestamp": %s,
+                "path": "%s"
+            }
+            """.formatted(status.value(), message, error, timestamp, path);
+    }
+
+    public static Mono<Void> write(ServerWebExchange exchange, HttpStatus status, String message, String error) {
+        exchange.getAttributes().put(GENERATED_ATTR, Boolean.TRUE);
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(status);
+        response.getHeaders().add("Content-Type", "application/json");
+
+        String errorBody = body(status, message, error, exchange.getRequest().getURI().getPath());
+
+        return response.writeWith(
+                Mono.just(response.bufferFactory().wrap(errorBody.getBytes(StandardCharsets.UTF_8)))
+        );
+    }
+
+    /**
+     * An error body serialized once, with only the timestamp and path filled in per response.
+     * For fallbacks that may be sent at full request rate.
+     */
+    public static final class Prepared {
+
+        private static final String TIMESTAMP_MARKER = "\u0000timestamp\u0000";
+        private static final String PATH_MARKER = "\u0000path\u0000";
+
+        private final HttpStatus status;
+        private final byte[] head;
+        private final byte[] middle;
+        private final byte[] tail;
+
+        public Prepared(HttpStatus status, String message, String error) {
+            this.status = status;
+            String template = template(status, message, error, TIMESTAMP_MARKER, PATH_MARKER);
+            int timestampAt = template.indexOf(TIMESTAMP_MARKER);
+            int pathAt = template.indexOf(PATH_MARKER);
+            this.head = template.substring(0, timestampAt).getBytes(StandardCharsets.UTF_8);
+            this.middle = template.substring(timestampAt + TIMESTAMP_MARKER.length(), pathAt).getBytes(StandardCharsets.UTF_8);
+            this.tail = template.substring(pathAt + PATH_MARKER.length()).getBytes(StandardCharsets.UTF_8);
+        }
+
+        public Mono<Void> write(ServerWebExchange exchange) {
+            exchange.getAttributes().put(GENERATED_ATTR, Boolean.TRUE);
+            ServerHttpResponse response = exchange.getResponse();
+            response.setStatusCode(status);
+            response.getHeaders().add("Content-Type", "application/json");
+
+            byte[] timestamp = String.valueOf(System.currentTimeMillis()).getBytes(StandardCharsets.UTF_8);
+            byte[] path = exchange.getRequest().getURI().getPath().getBytes(StandardCharsets.UTF_8);
+            byte[] body = new byte[head.length + timestamp.length + middle.length + path.length + tail.length];
+            int offset = 0;
+            for (byte[] part : new byte[][]{head, timestamp, middle, path, tail}) {
+                System.arraycopy(part, 0, body, offset, part.length);
+                offset += part.length;
+            }
+            return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+        }
+    }
+}
@@ -0,0 +1,332 @@
+package com.threadly.gateway.filter;
+
+import com.threadly.gateway.hedging.HedgeBudget;
+import com.threadly.gateway.hedging.HedgeDelays;
+import com.threadly.gateway.hedging.HedgePolicy;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.ReactiveLoadBalancerClientFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ResponseCookie;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.ServerWebExchangeDecorator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+import reactor.core.publisher.Sinks;
+import reactor.netty.Connection;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Hedges GET/HEAD requests on routes with {@link HedgePolicy} metadata. The upstream call runs
+ * on a private copy of the exchange; if it has not answered within the route's hedge delay, a
+ * second copy is sent to a different instance. The first complete response is written to the
+ * client and the other attempt is cancelled. A primary that cannot reach its instance is
+ * hedged at once instead of after the delay; any other primary failure drops a pending hedge.
+ * Hedges are capped by the {@link HedgeBudget}, and none is sent (or paid for) when the
+ * service has no other instance to send it to.
+ * Runs before the load-balancer filter so each attempt picks its own instance.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class HedgingFilter implements GlobalFilter, Ordered {
+
+    private final HedgeBudget budget;
+    private final HedgeDelays delays;
+    private final LoadBalancerClientFactory clientFactory;
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        HttpMethod method = exchange.getRequest().getMethod();
+        if (route == null
+                || (method != HttpMethod.GET && method != HttpMethod.HEAD)
+                || !(route.getMetadata().get(HedgePolicy.METADATA_KEY) instanceof HedgePolicy policy)) {
+            return chain.filter(exchange);
+        }
+
+        String routeId = route.getId();
+        long delayNanos = delays.delayNanos(routeId, policy);
+        budget.deposit();
+
+        AttemptExchange primary = new AttemptExchange(exchange);
+        // Fires the hedge early when the primary fails in a way another instance may not
+        Sinks.Empty<Void> primaryFailed = Sinks.empty();
+        long primaryStart = System.nanoTime();
+        Mono<AttemptResult> first = attempt(primary, chain, false)
+                .doOnError(e -> {
+                    if (isRetryable(e)) {
+                        primaryFailed.tryEmitEmpty();
+                    } else {
+                        primaryFailed.tryEmitError(e);
+                    }
+                })
+                .doFinally(signal -> {
+                    // A cancelled primary lost to the hedge; its latency so far is not a sample
+                    if (signal == SignalType.ON_COMPLETE || signal == SignalType.ON_ERROR) {
+                        delays.record(routeId, policy, System.nanoTime() - primaryStart);
+                    }
+                });
+
+        Mono<Void> trigger = Mono.firstWithSignal(Mono.delay(Duration.ofNanos(delayNanos)).then(), primaryFailed.asMono());
+        Mono<AttemptResult> hedge = trigger
+                .then(Mono.defer(() -> {
+                    Response<ServiceInstance> chosen = primary.getAttribute(ServerWebExchangeUtils.GATEWAY_LOADBALANCER_RESPONSE_ATTR);
+                    ServiceInstance excluded = chosen != null && chosen.hasServer() ? chosen.getServer() : null;
+                    return hasOtherInstance(route, excluded).flatMap(available -> {
+                        if (!available) {
+                            counter("gateway.hedge.unavailable", routeId).increment();
+                            return Mono.empty();
+                        }
+                        if (!budget.tryWithdraw()) {
+                            counter("gateway.hedge.budget.exhausted", routeId).increment();
+                            return Mono.empty();
+                        }
+                        AttemptExchange second = new AttemptExchange(exchange);
+                        if (excluded != null) {
+                            second.getAttributes().put(HedgePolicy.EXCLUDED_INSTANCE_ATTR, excluded);
+                        }
+                        log.debug("Hedging {} {} after {} ms", method, exchange.getRequest().getURI().getPath(),
+                                Duration.ofNanos(delayNanos).toMillis());
+                        counter("gateway.hedge.sent", routeId).increment();
+                        return attempt(second, chain, true);
+                    });
+                }));
+
+        return Mono.firstWithValue(first, hedge)
+                .onErrorMap(NoSuchElementException.class,
+                        e -> e.getSuppressed().length > 0 ? e.getSuppressed()[0] : e)
+                .flatMap(result -> {
+                    if (result.hedge()) {
+                        counter("gateway.hedge.won", routeId).increment();
+                    }
+                    return write(exchange, result);
+                });
+    }
+
+    /**
+     * Runs the rest of the chain on the attempt and reads the upstream body, which
+     * NettyWriteResponseFilter would otherwise stream from the attempt's connection.
+     */
+    private Mono<AttemptResult> attempt(AttemptExchange attempt, GatewayFilterChain chain, boolean hedge) {
+        return chain.filter(attempt).then(Mono.defer(() -> {
+            AttemptResponse response = attempt.getResponse();
+            Connection connection = attempt.getAttribute(ServerWebExchangeUtils.CLIENT_RESPONSE_CONN_ATTR);
+            Mono<byte[]> body = connection != null
+                    ? connection.inbound().receive().aggregate().asByteArray()
+                    : Mono.justOrEmpty(response.body);
+            return body.defaultIfEmpty(new byte[0])
+                    .map(bytes -> new AttemptResult(response.status, response.headers, response.cookies, bytes, hedge));
+        }));
+    }
+
+    /**
+     * Whether a failed attempt is worth sending elsewhere right away: the upstream could not be
+     * reached, dropped the connection or did not answer in time.
+     */
+    static boolean isRetryable(Throwable error) {
+        return error instanceof IOException || error instanceof TimeoutException;
+    }
+
+    /**
+     * Whether the route's service has an instance a hedge could go to, read from the same
+     * cached instance list the load balancer uses. Routes not resolved through discovery
+     * are always hedged.
+     */
+    private Mono<Boolean> hasOtherInstance(Route route, ServiceInstance excluded) {
+        URI uri = route.getUri();
+        if (!"lb".equals(uri.getScheme())) {
+            return Mono.just(true);
+        }
+        ServiceInstanceListSupplier supplier = clientFactory.getInstance(uri.getHost(), ServiceInstanceListSupplier.class);
+        if (supplier == null) {
+            return Mono.just(true);
+        }
+        return supplier.get().next()
+                .map(instances -> {
+                    long candidates = instances.stream()
+                            .filter(instance -> !HedgePolicy.isExcluded(instance, excluded))
+                            .count();
+                    // Without a known first instance, a single one could be picked twice
+                    return excluded != null ? candidates > 0 : candidates > 1;
+                })
+                .defaultIfEmpty(false);
+    }
+
+    private Mono<Void> write(ServerWebExchange exchange, AttemptResult result) {
+        ServerHttpResponse response = exchange.getResponse();
+        if (result.status() != null) {
+            response.setStatusCode(result.status());
+        }
+        response.getHeaders().putAll(result.headers());
+        response.getHeaders().remove(HttpHeaders.TRANSFER_ENCODING);
+        // A HEAD response has no body; keep the upstream's Content-Length for the GET it describes
+        if (exchange.getRequest().getMethod() != HttpMethod.HEAD) {
+            response.getHeaders().setContentLength(result.body().length);
+        }
+        result.cookies().values().forEach(cookies -> cookies.forEach(response::addCookie));
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(result.body())));
+    }
+
+    private Counter counter(String name, String routeId) {
+        return Counter.builder(name)
+                .tag("route", routeId)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public int getOrder() {
+        return ReactiveLoadBalancerClientFilter.LOAD_BALANCER_CLIENT_FILTER_ORDER - 1;
+    }
+
+    private record AttemptResult(HttpStatusCode status, HttpHeaders headers,
+                                 MultiValueMap<String, ResponseCookie> cookies, byte[] body, boolean hedge) {
+    }
+
+    /**
+     * The exchange with its own attributes and response, so two attempts can route
+     * independently (request URL, chosen instance, "already routed" flag, client connection).
+     */
+    private static final class AttemptExchange extends ServerWebExchangeDecorator {
+
+        private final Map<String, Object> attributes;
+        private final AttemptResponse response;
+
+        AttemptExchange(ServerWebExchange delegate) {
+            super(delegate);
+            this.attributes = new HashMap<>(delegate.getAttributes());
+            this.response = new AttemptResponse(delegate.getResponse());
+        }
+
+        @Override
+        public Map<String, Object> getAttributes() {
+            return attributes;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T getAttribute(String name) {
+            return (T) attributes.get(name);
+        }
+
+        @Override
+        public AttemptResponse getResponse() {
+            return response;
+        }
+    }
+
+    /**
+     * Collects status, headers and cookies set by the routing filter instead of committing
+     * them to the client response.
+     */
+    private static final class AttemptResponse extends ServerHttpResponseDecorator {
+
+        private final HttpHeaders headers = new HttpHeaders();
+        private final MultiValueMap<String, ResponseCookie> cookies = new LinkedMultiValueMap<>();
+        private HttpStatusCode status;
+        private byte[] body;
+
+        AttemptResponse(ServerHttpResponse delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public boolean setStatusCode(HttpStatusCode status) {
+            this.status = status;
+            return true;
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() {
+            return status;
+        }
+
+        @Override
+        @SuppressWarnings("deprecation")
+        public boolean setRawStatusCode(Integer value) {
+            this.status = value == null ? null : HttpStatusCode.valueOf(value);
+            return true;
+        }
+
+        @Override
+        @SuppressWarnings("deprecation")
+        public Integer getRawStatusCode() {
+            return status == null ? null : status.value();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+
+        @Override
+        public MultiValueMap<String, ResponseCookie> getCookies() {
+            return cookies;
+        }
+
+        @Override
+        public void addCookie(ResponseCookie cookie) {
+            cookies.add(cookie.getName(), cookie);
+        }
+
+        @Override
+        public void beforeCommit(Supplier<? extends Mono<Void>> action) {
+        }
+
+        @Override
+        public boolean isCommitted() {
+            return false;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            return DataBufferUtils.join(Flux.from(body)).doOnNext(joined -> {
+                byte[] bytes = new byte[joined.readableByteCount()];
+                joined.read(bytes);
+                DataBufferUtils.release(joined);
+                this.body = bytes;
+            }).then();
+        }
+
+        @Override
+        public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+            return writeWith(Flux.from(body).flatMapSequential(Flux::from));
+        }
+
+        @Override
+        public Mono<Void> setComplete() {
+            return Mono.empty();
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.threadly.gateway.filter;
+
+import com.threadly.gateway.loadbalancer.LoadBalancerStrategy;
+import com.threadly.gateway.loadbalancer.PeakEwmaStats;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.ReactiveLoadBalancerClientFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+/**
+ * Feeds {@link PeakEwmaStats} from the upstream call of routes that use
+ * {@link LoadBalancerStrategy#PEAK_EWMA}. Runs right after the load-balancer filter has
+ * picked the instance, so the timing covers only the upstream call up to its response
+ * headers. 5xx responses and errors count as failures; cancelled calls only free their slot.
+ */
+@Component
+@RequiredArgsConstructor
+public class LoadBalancerStatsFilter implements GlobalFilter, Ordered {
+
+    private final PeakEwmaStats stats;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        Response<ServiceInstance> chosen = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_LOADBALANCER_RESPONSE_ATTR);
+        if (LoadBalancerStrategy.of(route) != LoadBalancerStrategy.PEAK_EWMA || chosen == null || !chosen.hasServer()) {
+            return chain.filter(exchange);
+        }
+
+        // The balancer's service ID is the lb:// host, whatever case discovery reports
+        String serviceId = route.getUri().getHost();
+        ServiceInstance instance = chosen.getServer();
+        long start = System.nanoTime();
+        stats.start(serviceId, instance);
+        return chain.filter(exchange).doFinally(signal -> {
+            PeakEwmaStats.Outcome outcome;
+            if (signal == SignalType.CANCEL) {
+                outcome = PeakEwmaStats.Outcome.CANCELLED;
+            } else {
+                HttpStatusCode status = exchange.getResponse().getStatusCode();
+                boolean failed = signal == SignalType.ON_ERROR || (status != null && status.is5xxServerError());
+                outcome = failed ? PeakEwmaStats.Outcome.FAILED : PeakEwmaStats.Outcome.SUCCESS;
+            }
+            stats.complete(serviceId, instance, System.nanoTime() - start, outcome);
+        });
+    }
+
+    @Override
+    public int getOrder() {
+        return ReactiveLoadBalancerClientFilter.LOAD_BALANCER_CLIENT_FILTER_ORDER + 1;
+    }
+}
@@ -0,0 +1,131 @@
+package com.threadly.gateway.filter;
+
+import com.threadly.gateway.coalescing.CoalescingPolicy;
+import com.threadly.gateway.coalescing.InFlightRequests;
+import com.threadly.gateway.coalescing.SharedResponse;
+import com.threadly.gateway.logging.UpstreamSqlHeaders;
+import com.threadly.gateway.security.AuthOutcome;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+/**
+ * Collapses concurrent identical GET/HEAD requests (same route, path, query and user)
+ * into one upstream call and fans the buffered response out to every waiter.
+ * Enabled per route with {@link CoalescingPolicy} metadata in GatewayConfig.
+ * Only a 2xx response is shared. If the leader's response is an error, has no status or is
+ * too large, waiters make their own upstream call rather than replay it.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RequestCoalescingFilter implements GlobalFilter, Ordered {
+
+    private final InFlightRequests inFlightRequests;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        HttpMethod method = exchange.getRequest().getMethod();
+        if (route == null
+                || (method != HttpMethod.GET && method != HttpMethod.HEAD)
+                || !(route.getMetadata().get(CoalescingPolicy.METADATA_KEY) instanceof CoalescingPolicy policy)) {
+            return chain.filter(exchange);
+        }
+
+        String query = exchange.getRequest().getURI().getRawQuery();
+        InFlightRequests.Key key = new InFlightRequests.Key(
+                route.getId(),
+                method.name(),
+                exchange.getRequest().getURI().getRawPath() + (query == null ? "" : "?" + query),
+                exchange.getAttribute(AuthOutcome.USER_ID_ATTR));
+
+        Sinks.One<SharedResponse> sink = Sinks.one();
+        Mono<SharedResponse> leaderResult = inFlightRequests.join(key, sink);
+
+        if (leaderResult == null) {
+            ServerHttpResponse sharing = new SharingResponse(exchange.getResponse(), sink, policy);
+            return chain.filter(exchange.mutate().response(sharing).build())
+                    .doFinally(signal -> inFlightRequests.complete(key, sink));
+        }
+
+        log.debug("Coalescing {} onto in-flight request", key);
+        return leaderResult
+                .flatMap(shared -> writeShared(exchange, shared))
+                .switchIfEmpty(Mono.defer(() -> chain.filter(exchange)));
+    }
+
+    private Mono<Void> writeShared(ServerWebExchange exchange, SharedResponse shared) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatusCode.valueOf(shared.status()));
+        response.getHeaders().putAll(shared.headers());
+        response.getHeaders().setContentLength(shared.body().length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(shared.body())));
+    }
+
+    @Override
+    public int getOrder() {
+        return NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1;
+    }
+
+    /**
+     * Buffers the leader's 2xx upstream body and publishes it to waiters before writing it.
+     */
+    private static class SharingResponse extends ServerHttpResponseDecorator {
+
+        private final Sinks.One<SharedResponse> sink;
+        private final CoalescingPolicy policy;
+
+        SharingResponse(ServerHttpResponse delegate, Sinks.One<SharedResponse> sink, CoalescingPolicy policy) {
+            super(delegate);
+            this.sink = sink;
+            this.policy = policy;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            HttpStatusCode status = getStatusCode();
+            if (status == null || !status.is2xxSuccessful() || getHeaders().getContentLength() > policy.maxBodyBytes()) {
+                return super.writeWith(body);
+            }
+
+            return DataBufferUtils.join(Flux.from(body)).flatMap(joined -> {
+                byte[] bytes = new byte[joined.readableByteCount()];
+                joined.read(bytes);
+                DataBufferUtils.release(joined);
+
+                if (bytes.length <= policy.maxBodyBytes()) {
+                    HttpHeaders headers = new HttpHeaders();
+                    headers.putAll(getHeaders());
+                    headers.remove(HttpHeaders.TRANSFER_ENCODING);
+                    headers.remove(HttpHeaders.CONTENT_LENGTH);
+                    // Waiters ran no SQL; only the leader's own access-log record carries it
+                    UpstreamSqlHeaders.strip(headers);
+                    sink.tryEmitValue(new SharedResponse(status.value(), headers, bytes));
+                }
+
+                getHeaders().remove(HttpHeaders.TRANSFER_ENCODING);
+                getHeaders().setContentLength(bytes.length);
+                return super.writeWith(Mono.just(bufferFactory().wrap(bytes)));
+            });
+        }
+    }
+}
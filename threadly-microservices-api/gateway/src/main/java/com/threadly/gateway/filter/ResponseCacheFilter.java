@@ -0,0 +1,173 @@
+package com.threadly.gateway.filter;
+
+import com.threadly.gateway.cache.CachedResponse;
+import com.threadly.gateway.cache.ResponseCache;
+import com.threadly.gateway.cache.ResponseCachePolicy;
+import com.threadly.gateway.security.AuthOutcome;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Serves opted-in GET routes from {@link ResponseCache} and answers
+ * {@code If-None-Match} with 304 without calling upstream. The header is read as a list of
+ * entity tags (or {@code *}) and compared weakly, as RFC 9110 requires for If-None-Match.
+ * Runs after {@link AuthenticationFilter} (the key includes the verified user ID) and
+ * {@link RateLimitFilter} (hits are rate limited too), and just before
+ * {@link NettyWriteResponseFilter}, so it can capture the upstream body on a miss.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ResponseCacheFilter implements GlobalFilter, Ordered {
+
+    private static final String CACHE_HEADER = "X-Cache";
+
+    private final ResponseCache cache;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        Long userId = exchange.getAttribute(AuthOutcome.USER_ID_ATTR);
+        if (route == null || userId == null
+                || exchange.getRequest().getMethod() != HttpMethod.GET
+                || !(route.getMetadata().get(ResponseCachePolicy.METADATA_KEY) instanceof ResponseCachePolicy policy)) {
+            return chain.filter(exchange);
+        }
+
+        ResponseCache.Key key = new ResponseCache.Key(route.getId(), userId,
+                exchange.getRequest().getURI().getRawPath() + queryOf(exchange));
+        List<String> ifNoneMatch = exchange.getRequest().getHeaders().get(HttpHeaders.IF_NONE_MATCH);
+
+        CachedResponse cached = cache.get(key);
+        if (cached != null) {
+            return writeCached(exchange, cached, ifNoneMatch);
+        }
+
+        ServerHttpResponse capturing = new CapturingResponse(exchange.getResponse(), key, policy, ifNoneMatch);
+        return chain.filter(exchange.mutate().response(capturing).build());
+    }
+
+    private Mono<Void> writeCached(ServerWebExchange exchange, CachedResponse cached, List<String> ifNoneMatch) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.getHeaders().setETag(cached.etag());
+        response.getHeaders().set(CACHE_HEADER, "HIT");
+
+        if (noneMatchFails(ifNoneMatch, cached.etag())) {
+            cache.recordNotModified();
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            return response.setComplete();
+        }
+
+        response.setStatusCode(HttpStatus.OK);
+        if (cached.contentType() != null) {
+            response.getHeaders().set(HttpHeaders.CONTENT_TYPE, cached.contentType());
+        }
+        response.getHeaders().setContentLength(cached.body().length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(cached.body())));
+    }
+
+    /**
+     * Whether an {@code If-None-Match} header (possibly repeated, each a comma-separated list)
+     * names {@code etag} or is {@code *}. Weak comparison: a {@code W/} prefix is ignored.
+     */
+    static boolean noneMatchFails(List<String> ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        String opaque = opaqueTag(etag);
+        for (String header : ifNoneMatch) {
+            for (String tag : header.split(",")) {
+                String candidate = tag.trim();
+                if (candidate.equals("*") || (!candidate.isEmpty() && opaqueTag(candidate).equals(opaque))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static String opaqueTag(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+
+    private static String queryOf(ServerWebExchange exchange) {
+        String query = exchange.getRequest().getURI().getRawQuery();
+        return query == null ? "" : "?" + query;
+    }
+
+    @Override
+    public int getOrder() {
+        return NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 2;
+    }
+
+    /**
+     * Buffers a 200 upstream body, stores it, and adds the ETag (or turns it into a 304).
+     */
+    private class CapturingResponse extends ServerHttpResponseDecorator {
+
+        private final ResponseCache.Key key;
+        private final ResponseCachePolicy policy;
+        private final List<String> ifNoneMatch;
+
+        CapturingResponse(ServerHttpResponse delegate, ResponseCache.Key key,
+                          ResponseCachePolicy policy, List<String> ifNoneMatch) {
+            super(delegate);
+            this.key = key;
+            this.policy = policy;
+            this.ifNoneMatch = ifNoneMatch;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            if (getStatusCode() == null || getStatusCode().value() != HttpStatus.OK.value()) {
+                return super.writeWith(body);
+            }
+
+            return DataBufferUtils.join(Flux.from(body)).flatMap(joined -> {
+                byte[] bytes = new byte[joined.readableByteCount()];
+                joined.read(bytes);
+                DataBufferUtils.release(joined);
+
+                String etag = ResponseCache.etag(bytes);
+                cache.put(key, new CachedResponse(bytes,
+                        getHeaders().getFirst(HttpHeaders.CONTENT_TYPE),
+                        etag,
+                        System.currentTimeMillis() + policy.ttl().toMillis()));
+
+                getHeaders().setETag(etag);
+                getHeaders().set(CACHE_HEADER, "MISS");
+                getHeaders().remove(HttpHeaders.TRANSFER_ENCODING);
+
+                if (noneMatchFails(ifNoneMatch, etag)) {
+                    cache.recordNotModified();
+                    getHeaders().remove(HttpHeaders.CONTENT_LENGTH);
+                    setStatusCode(HttpStatus.NOT_MODIFIED);
+                    return setComplete();
+                }
+
+                getHeaders().setContentLength(bytes.length);
+                return super.writeWith(Mono.just(bufferFactory().wrap(bytes)));
+            });
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.threadly.gateway.hedging;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Gateway-wide cap on hedges as a share of hedgeable requests. Each request deposits
+ * {@code ratio} of a token (up to {@code maxBalance}); each hedge spends a whole one, so over
+ * time hedges add at most {@code ratio} extra upstream load, even when every request is slow.
+ */
+@Component
+@Slf4j
+public class HedgeBudget {
+
+    // Fixed-point: one token = SCALE units
+    private static final long SCALE = 1000;
+
+    private final long depositUnits;
+    private final long maxUnits;
+    private final AtomicLong balance = new AtomicLong();
+
+    public HedgeBudget(
+            @Value("${gateway.hedging.budget.ratio:0.05}") double ratio,
+            @Value("${gateway.hedging.budget.max-balance:10}") int maxBalance) {
+        this.depositUnits = Math.max(1, Math.round(ratio * SCALE));
+        this.maxUnits = maxBalance * SCALE;
+        log.info("Hedge budget ratio = {}, max balance = {}", ratio, maxBalance);
+    }
+
+    public void deposit() {
+        balance.accumulateAndGet(depositUnits, (current, units) -> Math.min(maxUnits, current + units));
+    }
+
+    public boolean tryWithdraw() {
+        long current;
+        do {
+            current = balance.get();
+            if (current < SCALE) {
+                return false;
+            }
+        } while (!balance.compareAndSet(current, current - SCALE));
+        return true;
+    }
+
+    public double getBalance() {
+        return (double) balance.get() / SCALE;
+    }
+}
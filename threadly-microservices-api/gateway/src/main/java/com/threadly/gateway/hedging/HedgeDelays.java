@@ -0,0 +1,70 @@
+package com.threadly.gateway.hedging;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hedge delay per route: the policy's latency percentile over the route's most recent
+ * upstream latencies, clamped to the policy's bounds. The percentile is recomputed every
+ * {@code recompute-every} samples, so the request path only reads a cached value.
+ */
+@Component
+public class HedgeDelays {
+
+    private final int windowSize;
+    private final int recomputeEvery;
+    private final Map<String, Window> windows = new ConcurrentHashMap<>();
+
+    public HedgeDelays(
+            @Value("${gateway.hedging.window-size:1024}") int windowSize,
+            @Value("${gateway.hedging.recompute-every:64}") int recomputeEvery) {
+        this.windowSize = windowSize;
+        this.recomputeEvery = recomputeEvery;
+    }
+
+    public long delayNanos(String routeId, HedgePolicy policy) {
+        Window window = windows.get(routeId);
+        long percentile = window == null ? -1 : window.percentileNanos;
+        if (percentile < 0) {
+            return policy.maxDelay().toNanos();
+        }
+        return Math.max(policy.minDelay().toNanos(), Math.min(policy.maxDelay().toNanos(), percentile));
+    }
+
+    public void record(String routeId, HedgePolicy policy, long latencyNanos) {
+        windows.computeIfAbsent(routeId, id -> new Window(windowSize))
+                .add(latencyNanos, policy.percentile(), recomputeEvery);
+    }
+
+    private static final class Window {
+
+        private final long[] samples;
+        private int next;
+        private int count;
+        private int sinceRecompute;
+
+        // -1 until the first recompute-every samples are in
+        private volatile long percentileNanos = -1;
+
+        Window(int size) {
+            this.samples = new long[size];
+        }
+
+        synchronized void add(long latencyNanos, double percentile, int recomputeEvery) {
+            samples[next] = latencyNanos;
+            next = (next + 1) % samples.length;
+            count = Math.min(count + 1, samples.length);
+            if (++sinceRecompute >= recomputeEvery) {
+                sinceRecompute = 0;
+                long[] sorted = Arrays.copyOf(samples, count);
+                Arrays.sort(sorted);
+                int index = (int) Math.min(sorted.length - 1, Math.ceil(percentile * sorted.length) - 1);
+                percentileNanos = sorted[Math.max(0, index)];
+            }
+        }
+    }
+}
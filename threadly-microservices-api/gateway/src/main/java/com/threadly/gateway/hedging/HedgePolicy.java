@@ -0,0 +1,30 @@
+package com.threadly.gateway.hedging;
+
+import org.springframework.cloud.client.ServiceInstance;
+
+import java.time.Duration;
+
+/**
+ * Opt-in request hedging for a route, attached as metadata under {@link #METADATA_KEY}.
+ * Only GET and HEAD requests are hedged.
+ *
+ * @param percentile upstream latency percentile (0..1) after which a second attempt is sent
+ * @param minDelay   lower bound of the hedge delay
+ * @param maxDelay   upper bound of the hedge delay, also used until enough latencies are known
+ */
+public record HedgePolicy(double percentile, Duration minDelay, Duration maxDelay) {
+
+    public static final String METADATA_KEY = "hedging";
+
+    /** Attempt attribute naming the instance a hedge must avoid (the first attempt's). */
+    public static final String EXCLUDED_INSTANCE_ATTR = HedgePolicy.class.getName() + ".excludedInstance";
+
+    /**
+     * Whether {@code instance} is the one a hedge must avoid; instances are matched by host and port.
+     */
+    public static boolean isExcluded(ServiceInstance instance, ServiceInstance excluded) {
+        return excluded != null
+                && instance.getHost().equals(excluded.getHost())
+                && instance.getPort() == excluded.getPort();
+    }
+}
@@ -0,0 +1,39 @@
+package com.threadly.gateway.loadbalancer;
+
+import org.springframework.cloud.client.loadbalancer.RequestData;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+
+/**
+ * Instance selection for a route's {@code lb://} URI, attached as metadata under
+ * {@link #METADATA_KEY}. Routes without it use round robin.
+ */
+public enum LoadBalancerStrategy {
+    ROUND_ROBIN,
+    /** Power of two choices on Peak-EWMA latency times outstanding requests. */
+    PEAK_EWMA;
+
+    public static final String METADATA_KEY = "load-balancer";
+
+    public static LoadBalancerStrategy of(Route route) {
+        if (route != null && route.getMetadata().get(METADATA_KEY) instanceof LoadBalancerStrategy strategy) {
+            return strategy;
+        }
+        return ROUND_ROBIN;
+    }
+
+    /**
+     * Strategy of the route a load-balancer request was made for. Requests that did not come
+     * through a gateway route (e.g. the gateway's own WebClient calls) use round robin.
+     */
+    public static LoadBalancerStrategy forRequest(Object requestContext) {
+        if (requestContext instanceof RequestDataContext context) {
+            RequestData data = context.getClientRequest();
+            if (data != null && data.getAttributes() != null) {
+                return of((Route) data.getAttributes().get(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR));
+            }
+        }
+        return ROUND_ROBIN;
+    }
+}
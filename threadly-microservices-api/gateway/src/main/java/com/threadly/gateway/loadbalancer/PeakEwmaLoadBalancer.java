@@ -0,0 +1,96 @@
+package com.threadly.gateway.loadbalancer;
+
+import com.threadly.gateway.hedging.HedgePolicy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.EmptyResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.core.NoopServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.RoundRobinLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.SelectedInstanceCallback;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Picks two distinct instances at random and sends the request to the cheaper one by
+ * {@link PeakEwmaStats#cost}. Requests whose route does not select
+ * {@link LoadBalancerStrategy#PEAK_EWMA} go to the regular round-robin balancer, unless
+ * they are hedges, which must avoid the instance of the first attempt.
+ */
+@Slf4j
+public class PeakEwmaLoadBalancer implements ReactorServiceInstanceLoadBalancer {
+
+    private final ObjectProvider<ServiceInstanceListSupplier> supplierProvider;
+    private final String serviceId;
+    private final PeakEwmaStats stats;
+    private final RoundRobinLoadBalancer roundRobin;
+
+    public PeakEwmaLoadBalancer(ObjectProvider<ServiceInstanceListSupplier> supplierProvider,
+                                String serviceId, PeakEwmaStats stats) {
+        this.supplierProvider = supplierProvider;
+        this.serviceId = serviceId;
+        this.stats = stats;
+        this.roundRobin = new RoundRobinLoadBalancer(supplierProvider, serviceId);
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    public Mono<Response<ServiceInstance>> choose(Request request) {
+        ServiceInstance excluded = excludedInstance(request.getContext());
+        if (excluded == null
+                && LoadBalancerStrategy.forRequest(request.getContext()) != LoadBalancerStrategy.PEAK_EWMA) {
+            return roundRobin.choose(request);
+        }
+        ServiceInstanceListSupplier supplier = supplierProvider.getIfAvailable(NoopServiceInstanceListSupplier::new);
+        return supplier.get(request).next().map(instances -> {
+            Response<ServiceInstance> response = select(instances, excluded);
+            if (supplier instanceof SelectedInstanceCallback callback && response.hasServer()) {
+                callback.selectedServiceInstance(response.getServer());
+            }
+            return response;
+        });
+    }
+
+    private Response<ServiceInstance> select(List<ServiceInstance> all, ServiceInstance excluded) {
+        stats.retain(serviceId, all);
+        List<ServiceInstance> instances = excluded == null ? all : all.stream()
+                .filter(instance -> !HedgePolicy.isExcluded(instance, excluded))
+                .toList();
+        int size = instances.size();
+        if (size == 0) {
+            log.warn("No servers available for service: {}", serviceId);
+            return new EmptyResponse();
+        }
+        if (size == 1) {
+            return new DefaultResponse(instances.get(0));
+        }
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(size);
+        int second = random.nextInt(size - 1);
+        if (second >= first) {
+            second++;
+        }
+        ServiceInstance a = instances.get(first);
+        ServiceInstance b = instances.get(second);
+        return new DefaultResponse(stats.cost(serviceId, b) < stats.cost(serviceId, a) ? b : a);
+    }
+
+    private static ServiceInstance excludedInstance(Object requestContext) {
+        if (requestContext instanceof RequestDataContext context
+                && context.getClientRequest() != null
+                && context.getClientRequest().getAttributes() != null
+                && context.getClientRequest().getAttributes().get(HedgePolicy.EXCLUDED_INSTANCE_ATTR) instanceof ServiceInstance instance) {
+            return instance;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,176 @@
+package com.threadly.gateway.loadbalancer;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Per-instance latency and load, fed by the gateway's own upstream timings.
+ * Latency is a Peak-EWMA: a slower sample is taken as is, faster ones are blended in with
+ * weight decaying over {@code decay}. The cost of an instance is that latency times
+ * (outstanding requests + 1), so a slow or busy instance gets less traffic right away and
+ * recovers gradually.
+ * Stats are keyed by the load balancer's service ID (the {@code lb://} host), not by
+ * {@link ServiceInstance#getServiceId()}, which discovery may spell differently (Eureka
+ * upper-cases it); otherwise {@link #retain} would never find the entries to prune.
+ */
+@Component
+@Slf4j
+public class PeakEwmaStats {
+
+    // Cost of an instance with requests in flight but no completed sample yet
+    private static final double UNSAMPLED_BUSY_COST = Double.MAX_VALUE / 2;
+
+    private final long decayNanos;
+    private final long failurePenaltyNanos;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Map<String, InstanceStats>> services = new ConcurrentHashMap<>();
+
+    public PeakEwmaStats(
+            @Value("${gateway.load-balancer.peak-ewma.decay:10s}") Duration decay,
+            @Value("${gateway.load-balancer.peak-ewma.failure-penalty:2s}") Duration failurePenalty,
+            MeterRegistry meterRegistry) {
+        this.decayNanos = Math.max(1, decay.toNanos());
+        this.failurePenaltyNanos = failurePenalty.toNanos();
+        this.meterRegistry = meterRegistry;
+        log.info("Peak-EWMA load balancing decay = {}, failure penalty = {}", decay, failurePenalty);
+    }
+
+    public double cost(String serviceId, ServiceInstance instance) {
+        return stats(serviceId, instance).cost(System.nanoTime());
+    }
+
+    public void start(String serviceId, ServiceInstance instance) {
+        stats(serviceId, instance).outstanding.incrementAndGet();
+    }
+
+    /**
+     * Ends a request started with {@link #start}. A failed request counts as at least the
+     * failure penalty; a cancelled one only releases its outstanding slot.
+     */
+    public void complete(String serviceId, ServiceInstance instance, long latencyNanos, Outcome outcome) {
+        InstanceStats stats = stats(serviceId, instance);
+        stats.outstanding.decrementAndGet();
+        if (outcome == Outcome.CANCELLED) {
+            return;
+        }
+        long sample = outcome == Outcome.FAILED ? Math.max(latencyNanos, failurePenaltyNanos) : latencyNanos;
+        stats.observe(sample, System.nanoTime());
+    }
+
+    /**
+     * Drops stats (and gauges) of instances no longer in the service's instance list.
+     */
+    public void retain(String serviceId, List<ServiceInstance> instances) {
+        Map<String, InstanceStats> byInstance = services.get(serviceId);
+        if (byInstance == null || byInstance.size() <= instances.size()) {
+            return;
+        }
+        Set<String> live = instances.stream().map(PeakEwmaStats::key).collect(Collectors.toSet());
+        byInstance.entrySet().removeIf(entry -> {
+            if (live.contains(entry.getKey())) {
+                return false;
+            }
+            entry.getValue().meters.forEach(meterRegistry::remove);
+            return true;
+        });
+    }
+
+    private InstanceStats stats(String serviceId, ServiceInstance instance) {
+        return services.computeIfAbsent(serviceId, id -> new ConcurrentHashMap<>())
+                .computeIfAbsent(key(instance), key -> register(serviceId, key));
+    }
+
+    /**
+     * Instances with stats for the service; for tests and diagnostics.
+     */
+    Set<String> instanceKeys(String serviceId) {
+        Map<String, InstanceStats> byInstance = services.get(serviceId);
+        return byInstance == null ? Set.of() : Set.copyOf(byInstance.keySet());
+    }
+
+    private InstanceStats register(String serviceId, String key) {
+        InstanceStats stats = new InstanceStats(decayNanos);
+        stats.meters = List.of(
+                Gauge.builder("gateway.lb.instance.latency", stats, s -> s.latencyNanos() / 1e6)
+                        .description("Peak-EWMA upstream latency of the instance")
+                        .baseUnit("milliseconds")
+                        .tags("service", serviceId, "instance", key)
+                        .register(meterRegistry),
+                Gauge.builder("gateway.lb.instance.outstanding", stats, s -> s.outstanding.get())
+                        .description("Requests in flight to the instance")
+                        .tags("service", serviceId, "instance", key)
+                        .register(meterRegistry));
+        return stats;
+    }
+
+    private static String key(ServiceInstance instance) {
+        return instance.getHost() + ":" + instance.getPort();
+    }
+
+    public enum Outcome {
+        SUCCESS,
+        FAILED,
+        CANCELLED
+    }
+
+    static final class InstanceStats {
+
+        private final long decayNanos;
+        private final AtomicInteger outstanding = new AtomicInteger();
+        private Collection<Meter> meters = List.of();
+
+        private double ewmaNanos;
+        private long lastUpdateNanos;
+        private boolean sampled;
+
+        InstanceStats(long decayNanos) {
+            this.decayNanos = decayNanos;
+        }
+
+        synchronized void observe(long rttNanos, long now) {
+            if (!sampled || rttNanos > ewmaNanos) {
+                ewmaNanos = rttNanos;
+                sampled = true;
+            } else {
+                double weight = Math.exp(-(double) (now - lastUpdateNanos) / decayNanos);
+                ewmaNanos = ewmaNanos * weight + rttNanos * (1 - weight);
+            }
+            lastUpdateNanos = now;
+        }
+
+        /**
+         * Latency estimate times (outstanding + 1). An idle instance's estimate decays
+         * towards zero so it is probed again; a busy one keeps its estimate until requests
+         * complete, so a stalled instance does not look fast.
+         */
+        synchronized double cost(long now) {
+            int pending = outstanding.get();
+            if (!sampled) {
+                return pending == 0 ? 0 : UNSAMPLED_BUSY_COST;
+            }
+            double latency = ewmaNanos;
+            if (pending == 0) {
+                latency *= Math.exp(-(double) Math.max(0, now - lastUpdateNanos) / decayNanos);
+            }
+            return latency * (pending + 1);
+        }
+
+        synchronized double latencyNanos() {
+            return ewmaNanos;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.threadly.gateway.logging;
+
+import com.threadly.gateway.config.AccessLogProperties;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Lock-free multi-producer / single-consumer ring buffer for access-log records.
+ * Request threads only claim a slot with a CAS and publish the record; a single
+ * background thread formats and writes them, so the event loop never blocks on logging.
+ * When the buffer is full the record is dropped and counted.
+ */
+@Component
+@Slf4j
+public class AccessLogAppender {
+
+    private static final Logger ACCESS_LOG = LoggerFactory.getLogger("com.threadly.gateway.access");
+
+    private final AtomicReferenceArray<AccessLogRecord> slots;
+    private final int mask;
+    private final long flushIntervalNanos;
+
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head;
+
+    private final LongAdder dropped = new LongAdder();
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    public AccessLogAppender(AccessLogProperties properties) {
+        int capacity = Integer.highestOneBit(Math.max(2, properties.getBufferSize() - 1)) << 1;
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, properties.getFlushIntervalMs()));
+
+        this.writer = new Thread(this::drainLoop, "access-log-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Enqueue a record without blocking. Returns false if the buffer was full.
+     */
+    public boolean append(AccessLogRecord record) {
+        long seq;
+        do {
+            seq = tail.get();
+            if (seq - head >= slots.length()) {
+                dropped.increment();
+                return false;
+            }
+        } while (!tail.compareAndSet(seq, seq + 1));
+
+        slots.lazySet((int) (seq & mask), record);
+        return true;
+    }
+
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    public long getPendingCount() {
+        return tail.get() - head;
+    }
+
+    private void drainLoop() {
+        while (running) {
+            if (drain() == 0) {
+                LockSupport.parkNanos(flushIntervalNanos);
+            }
+        }
+        drain();
+    }
+
+    private int drain() {
+        int written = 0;
+        long current = head;
+        while (true) {
+            int index = (int) (current & mask);
+            AccessLogRecord record = slots.get(index);
+            if (record == null) {
+                break;
+            }
+            slots.lazySet(index, null);
+            current++;
+            head = current;
+
+            try {
+                ACCESS_LOG.info(record.toJson());
+            } catch (RuntimeException e) {
+                log.warn("Failed to write access log record: {}", e.getMessage());
+            }
+            written++;
+        }
+        return written;
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(writer);
+        writer.join(TimeUnit.SECONDS.toMillis(2));
+    }
+}
@@ -0,0 +1,61 @@
+package com.threadly.gateway.logging;
+
+import com.threadly.gateway.security.AuthOutcome;
+
+/**
+ * One access-log entry per gateway exchange. {@code dbStatements} and {@code dbTimeMs}
+ * come from the upstream's X-DB-* response headers and are null when it sent none.
+ */
+public record AccessLogRecord(
+        long timestamp,
+        String method,
+        String path,
+        String routeId,
+        int status,
+        Long userId,
+        AuthOutcome authOutcome,
+        long latencyMs,
+        Integer dbStatements,
+        Long dbTimeMs) {
+
+    /**
+     * Render as a single JSON line.
+     */
+    public String toJson() {
+        StringBuilder sb = new StringBuilder(192);
+        sb.append("{\"timestamp\":").append(timestamp)
+                .append(",\"method\":\"").append(method).append('"')
+                .append(",\"path\":");
+        appendString(sb, path);
+        sb.append(",\"route\":");
+        appendString(sb, routeId);
+        sb.append(",\"status\":").append(status)
+                .append(",\"userId\":").append(userId)
+                .append(",\"auth\":");
+        appendString(sb, authOutcome == null ? null : authOutcome.name());
+        sb.append(",\"latencyMs\":").append(latencyMs)
+                .append(",\"dbStatements\":").append(dbStatements)
+                .append(",\"dbTimeMs\":").append(dbTimeMs)
+                .append('}');
+        return sb.toString();
+    }
+
+    private static void appendString(StringBuilder sb, String value) {
+        if (value == null) {
+            sb.append("null");
+            return;
+        }
+        sb.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                sb.append('\\').append(c);
+            } else if (c < 0x20) {
+                sb.append(String.format("\\u%04x", (int) c));
+            } else {
+                sb.append(c);
+            }
+        }
+        sb.append('"');
+    }
+}
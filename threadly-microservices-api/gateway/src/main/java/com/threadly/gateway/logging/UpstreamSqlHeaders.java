@@ -0,0 +1,48 @@
+package com.threadly.gateway.logging;
+
+import org.springframework.http.HttpHeaders;
+
+import java.util.List;
+
+/**
+ * SQL totals user-service reports in its response headers. They are meant for the gateway's
+ * access log only: {@link com.threadly.gateway.filter.AccessLogFilter} takes them off every
+ * response before it is committed, and responses shared with other requests (coalesced or
+ * cached) never carry them, since those requests ran no SQL.
+ */
+public record UpstreamSqlHeaders(Integer statements, Long timeMs) {
+
+    public static final String STATEMENTS_HEADER = "X-DB-Statements";
+    public static final String ROWS_HEADER = "X-DB-Rows";
+    public static final String TIME_HEADER = "X-DB-Time-Ms";
+    public static final String SERVER_TIMING_HEADER = "Server-Timing";
+
+    private static final List<String> NAMES = List.of(STATEMENTS_HEADER, ROWS_HEADER, TIME_HEADER, SERVER_TIMING_HEADER);
+
+    /**
+     * Reads the totals, then removes every SQL header.
+     */
+    public static UpstreamSqlHeaders take(HttpHeaders headers) {
+        Long statements = asLong(headers.getFirst(STATEMENTS_HEADER));
+        UpstreamSqlHeaders totals = new UpstreamSqlHeaders(
+                statements != null ? statements.intValue() : null,
+                asLong(headers.getFirst(TIME_HEADER)));
+        strip(headers);
+        return totals;
+    }
+
+    public static void strip(HttpHeaders headers) {
+        NAMES.forEach(headers::remove);
+    }
+
+    private static Long asLong(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.threadly.gateway.metrics;
+
+import com.threadly.gateway.cache.ResponseCache;
+import com.threadly.gateway.coalescing.InFlightRequests;
+import com.threadly.gateway.hedging.HedgeBudget;
+import com.threadly.gateway.logging.AccessLogAppender;
+import com.threadly.gateway.ratelimit.RateLimiterRegistry;
+import com.threadly.gateway.security.RevocationRegistry;
+import com.threadly.gateway.security.VerifiedTokenCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Exposes the gateway's in-memory caches, limiters and buffers as Micrometer meters.
+ */
+@Component
+@RequiredArgsConstructor
+public class GatewayMetricsBinder implements MeterBinder {
+
+    private final VerifiedTokenCache tokenCache;
+    private final ResponseCache responseCache;
+    private final RateLimiterRegistry rateLimiterRegistry;
+    private final InFlightRequests inFlightRequests;
+    private final AccessLogAppender accessLogAppender;
+    private final RevocationRegistry revocationRegistry;
+    private final HedgeBudget hedgeBudget;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("gateway.token.cache.requests", tokenCache, VerifiedTokenCache::getHitCount)
+                .tag("result", "hit").register(registry);
+        FunctionCounter.builder("gateway.token.cache.requests", tokenCache, VerifiedTokenCache::getMissCount)
+                .tag("result", "miss").register(registry);
+        FunctionCounter.builder("gateway.token.cache.evictions", tokenCache, VerifiedTokenCache::getEvictionCount)
+                .register(registry);
+        Gauge.builder("gateway.token.cache.size", tokenCache, VerifiedTokenCache::size)
+                .register(registry);
+
+        FunctionCounter.builder("gateway.response.cache.requests", responseCache, ResponseCache::getHitCount)
+                .tag("result", "hit").register(registry);
+        FunctionCounter.builder("gateway.response.cache.requests", responseCache, ResponseCache::getMissCount)
+                .tag("result", "miss").register(registry);
+        FunctionCounter.builder("gateway.response.cache.not.modified", responseCache, ResponseCache::getNotModifiedCount)
+                .register(registry);
+        Gauge.builder("gateway.response.cache.size", responseCache, ResponseCache::size)
+                .register(registry);
+
+        FunctionCounter.builder("gateway.rate.limit.rejected", rateLimiterRegistry, RateLimiterRegistry::getRejectedCount)
+                .register(registry);
+        Gauge.builder("gateway.rate.limit.buckets", rateLimiterRegistry, RateLimiterRegistry::getBucketCount)
+                .register(registry);
+
+        FunctionCounter.builder("gateway.coalescing.leaders", inFlightRequests, InFlightRequests::getLeaderCount)
+                .register(registry);
+        FunctionCounter.builder("gateway.coalescing.coalesced", inFlightRequests, InFlightRequests::getCoalescedCount)
+                .register(registry);
+
+        FunctionCounter.builder("gateway.access.log.dropped", accessLogAppender, AccessLogAppender::getDroppedCount)
+                .register(registry);
+        Gauge.builder("gateway.access.log.pending", accessLogAppender, AccessLogAppender::getPendingCount)
+                .register(registry);
+
+        Gauge.builder("gateway.hedge.budget.balance", hedgeBudget, HedgeBudget::getBalance)
+                .description("Hedges that can be sent right now")
+                .register(registry);
+
+        FunctionCounter.builder("gateway.revocation.rejected", revocationRegistry, RevocationRegistry::getRejectedCount)
+                .register(registry);
+        Gauge.builder("gateway.revocation.entries", revocationRegistry, RevocationRegistry::getTokenCount)
+                .tag("kind", "token").register(registry);
+        Gauge.builder("gateway.revocation.entries", revocationRegistry, RevocationRegistry::getUserCount)
+                .tag("kind", "user").register(registry);
+        Gauge.builder("gateway.revocation.sync.age", revocationRegistry, RevocationRegistry::getSyncAgeSeconds)
+                .description("Seconds since the revocation snapshot was last pulled")
+                .baseUnit("seconds")
+                .register(registry);
+    }
+}
@@ -0,0 +1,18 @@
+package com.threadly.gateway.ratelimit;
+
+/**
+ * Token-bucket limit attached to a route as metadata under {@link #METADATA_KEY}.
+ *
+ * @param capacity        maximum burst size
+ * @param refillPerSecond tokens added per second
+ */
+public record RateLimit(int capacity, double refillPerSecond) {
+
+    public static final String METADATA_KEY = "rate-limit";
+
+    public RateLimit {
+        if (capacity < 1 || refillPerSecond <= 0) {
+            throw new IllegalArgumentException("Rate limit needs capacity >= 1 and refill > 0");
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.threadly.gateway.ratelimit;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory token buckets per route and client key. No external store:
+ * each gateway instance enforces its own share of the limit.
+ * Buckets idle for longer than {@code gateway.rate-limit.idle-timeout-ms} are evicted in the background.
+ */
+@Component
+@Slf4j
+public class RateLimiterRegistry {
+
+    private final Map<String, Map<String, TokenBucket>> buckets = new ConcurrentHashMap<>();
+    private final long idleNanos;
+    private final ScheduledExecutorService evictor;
+
+    private final LongAdder rejected = new LongAdder();
+
+    public RateLimiterRegistry(
+            @Value("${gateway.rate-limit.idle-timeout-ms:600000}") long idleTimeoutMs) {
+        this.idleNanos = TimeUnit.MILLISECONDS.toNanos(idleTimeoutMs);
+        this.evictor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "rate-limit-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(1000, idleTimeoutMs / 2);
+        this.evictor.scheduleAtFixedRate(this::evictIdle, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Take a token for this route and key.
+     *
+     * @return 0 if allowed, otherwise nanos until the next token
+     */
+    public long tryAcquire(String routeId, String key, RateLimit limit) {
+        long now = System.nanoTime();
+        TokenBucket bucket = buckets
+                .computeIfAbsent(routeId, id -> new ConcurrentHashMap<>())
+                .computeIfAbsent(key, k -> new TokenBucket(limit, now));
+
+        long waitNanos = bucket.tryAcquire(now);
+        if (waitNanos > 0) {
+            rejected.increment();
+        }
+        return waitNanos;
+    }
+
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    public int getBucketCount() {
+        return buckets.values().stream().mapToInt(Map::size).sum();
+    }
+
+    void evictIdle() {
+        long now = System.nanoTime();
+        int before = getBucketCount();
+        buckets.values().forEach(routeBuckets ->
+                routeBuckets.values().removeIf(bucket -> bucket.isIdle(now, idleNanos)));
+        int evicted = before - getBucketCount();
+        if (evicted > 0) {
+            log.debug("Evicted {} idle rate-limit buckets", evicted);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        evictor.shutdownNow();
+    }
+}
@@ -0,0 +1,48 @@
+package com.threadly.gateway.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket.
+ * The state is a single "theoretical arrival time" (GCRA form of a token bucket):
+ * each permit pushes it forward by one emission interval, and a request is allowed
+ * while it is no more than {@code capacity} intervals ahead of now.
+ */
+public final class TokenBucket {
+
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final AtomicLong theoreticalArrival;
+
+    public TokenBucket(RateLimit limit, long nowNanos) {
+        this.emissionIntervalNanos = (long) (1_000_000_000L / limit.refillPerSecond());
+        this.burstToleranceNanos = emissionIntervalNanos * (limit.capacity() - 1);
+        this.theoreticalArrival = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Try to take one token.
+     *
+     * @return 0 if allowed, otherwise the nanos until a token is available
+     */
+    public long tryAcquire(long nowNanos) {
+        while (true) {
+            long tat = theoreticalArrival.get();
+            long allowAt = tat - burstToleranceNanos;
+            if (nowNanos - allowAt < 0) {
+                return allowAt - nowNanos;
+            }
+            long next = Math.max(tat, nowNanos) + emissionIntervalNanos;
+            if (theoreticalArrival.compareAndSet(tat, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * A bucket that has been idle long enough is full again and can be dropped without changing behaviour.
+     */
+    public boolean isIdle(long nowNanos, long idleNanos) {
+        return nowNanos - theoreticalArrival.get() > idleNanos;
+    }
+}
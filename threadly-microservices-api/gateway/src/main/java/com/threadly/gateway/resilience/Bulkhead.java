@@ -0,0 +1,28 @@
+package com.threadly.gateway.resilience;
+
+import java.util.concurrent.Semaphore;
+
+/**
+ * Caps calls in flight to one route. Never waits: a call that finds no permit is rejected,
+ * so the event loop is not blocked.
+ */
+public class Bulkhead {
+
+    private final Semaphore permits;
+
+    public Bulkhead(int maxConcurrentCalls) {
+        this.permits = new Semaphore(Math.max(1, maxConcurrentCalls));
+    }
+
+    public boolean tryAcquire() {
+        return permits.tryAcquire();
+    }
+
+    public void release() {
+        permits.release();
+    }
+
+    public int getAvailable() {
+        return permits.availablePermits();
+    }
+}
@@ -0,0 +1,178 @@
+package com.threadly.gateway.resilience;
+
+import com.threadly.gateway.config.CircuitBreakerProperties;
+
+import java.util.function.BiConsumer;
+
+/**
+ * Count-based circuit breaker for one route. While closed, the outcomes of the last
+ * {@code slidingWindowSize} calls are kept; once {@code minimumCalls} are in and the failure
+ * or slow-call rate reaches its threshold, the circuit opens and calls are rejected for
+ * {@code waitInOpen}. It then lets {@code permittedCallsInHalfOpen} probes through and closes
+ * again only if they stay under both thresholds.
+ * Permission checks while closed are a volatile read; outcomes are recorded under a lock.
+ */
+public class CircuitBreaker {
+
+    private final String routeId;
+    private final float failureRateThreshold;
+    private final float slowCallRateThreshold;
+    private final long slowCallNanos;
+    private final int minimumCalls;
+    private final long waitInOpenNanos;
+    private final int permittedCallsInHalfOpen;
+    private final BiConsumer<CircuitState, CircuitState> onTransition;
+
+    // Ring of outcomes: 0 = ok, 1 = failed, 2 = slow, 3 = failed and slow
+    private final byte[] window;
+    private int next;
+    private int calls;
+    private int failures;
+    private int slowCalls;
+
+    private volatile CircuitState state = CircuitState.CLOSED;
+    private volatile long openedAtNanos;
+    private int halfOpenPermits;
+    private int halfOpenRecorded;
+
+    public CircuitBreaker(String routeId, CircuitBreakerProperties.Settings settings,
+                          BiConsumer<CircuitState, CircuitState> onTransition) {
+        this.routeId = routeId;
+        this.failureRateThreshold = settings.getFailureRateThreshold();
+        this.slowCallRateThreshold = settings.getSlowCallRateThreshold();
+        this.slowCallNanos = settings.getSlowCallDuration().toNanos();
+        this.minimumCalls = settings.getMinimumCalls();
+        this.waitInOpenNanos = settings.getWaitInOpen().toNanos();
+        this.permittedCallsInHalfOpen = settings.getPermittedCallsInHalfOpen();
+        this.onTransition = onTransition;
+        this.window = new byte[Math.max(1, settings.getSlidingWindowSize())];
+    }
+
+    /**
+     * Whether a call may go upstream now. A permitted call must end with {@link #onResult}
+     * or {@link #release}.
+     */
+    public boolean tryAcquirePermission() {
+        CircuitState current = state;
+        if (current == CircuitState.CLOSED) {
+            return true;
+        }
+        synchronized (this) {
+            if (state == CircuitState.OPEN) {
+                if (System.nanoTime() - openedAtNanos < waitInOpenNanos) {
+                    return false;
+                }
+                transition(CircuitState.HALF_OPEN);
+            }
+            if (state == CircuitState.HALF_OPEN) {
+                if (halfOpenPermits >= permittedCallsInHalfOpen) {
+                    return false;
+                }
+                halfOpenPermits++;
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Gives back a permission whose call never ran or was cancelled; nothing is recorded.
+     */
+    public void release() {
+        if (state == CircuitState.CLOSED) {
+            return;
+        }
+        synchronized (this) {
+            if (state == CircuitState.HALF_OPEN && halfOpenPermits > 0) {
+                halfOpenPermits--;
+            }
+        }
+    }
+
+    public synchronized void onResult(long durationNanos, boolean failed) {
+        boolean slow = durationNanos >= slowCallNanos;
+        switch (state) {
+            case CLOSED -> {
+                record(failed, slow);
+                if (calls >= minimumCalls && thresholdReached()) {
+                    open();
+                }
+            }
+            case HALF_OPEN -> {
+                record(failed, slow);
+                if (++halfOpenRecorded >= permittedCallsInHalfOpen) {
+                    if (thresholdReached()) {
+                        open();
+                    } else {
+                        resetWindow();
+                        transition(CircuitState.CLOSED);
+                    }
+                }
+            }
+            // Calls admitted before the circuit opened; they no longer count
+            case OPEN -> {
+            }
+        }
+    }
+
+    /**
+     * Nanos until an open circuit lets a probe through, 0 if not open.
+     */
+    public long remainingOpenNanos() {
+        if (state != CircuitState.OPEN) {
+            return 0;
+        }
+        return Math.max(0, waitInOpenNanos - (System.nanoTime() - openedAtNanos));
+    }
+
+    public CircuitState getState() {
+        return state;
+    }
+
+    public String getRouteId() {
+        return routeId;
+    }
+
+    private boolean thresholdReached() {
+        float failureRate = 100f * failures / calls;
+        float slowRate = 100f * slowCalls / calls;
+        return failureRate >= failureRateThreshold || slowRate >= slowCallRateThreshold;
+    }
+
+    private void record(boolean failed, boolean slow) {
+        byte outcome = (byte) ((failed ? 1 : 0) | (slow ? 2 : 0));
+        if (calls == window.length) {
+            byte evicted = window[next];
+            failures -= evicted & 1;
+            slowCalls -= (evicted >> 1) & 1;
+        } else {
+            calls++;
+        }
+        window[next] = outcome;
+        next = (next + 1) % window.length;
+        failures += outcome & 1;
+        slowCalls += (outcome >> 1) & 1;
+    }
+
+    private void open() {
+        openedAtNanos = System.nanoTime();
+        transition(CircuitState.OPEN);
+    }
+
+    private void resetWindow() {
+        next = 0;
+        calls = 0;
+        failures = 0;
+        slowCalls = 0;
+    }
+
+    private void transition(CircuitState to) {
+        CircuitState from = state;
+        if (to == CircuitState.HALF_OPEN) {
+            resetWindow();
+            halfOpenPermits = 0;
+            halfOpenRecorded = 0;
+        }
+        state = to;
+        onTransition.accept(from, to);
+    }
+}
@@ -0,0 +1,7 @@
+package com.threadly.gateway.resilience;
+
+public enum CircuitState {
+    CLOSED,
+    OPEN,
+    HALF_OPEN
+}
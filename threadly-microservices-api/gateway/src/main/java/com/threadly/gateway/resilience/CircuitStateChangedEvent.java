@@ -0,0 +1,7 @@
+package com.threadly.gateway.resilience;
+
+/**
+ * Published as an application event whenever a route's circuit changes state.
+ */
+public record CircuitStateChangedEvent(String routeId, CircuitState from, CircuitState to) {
+}
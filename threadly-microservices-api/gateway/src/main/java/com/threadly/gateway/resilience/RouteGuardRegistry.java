@@ -0,0 +1,92 @@
+package com.threadly.gateway.resilience;
+
+import com.threadly.gateway.config.CircuitBreakerProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Circuit breaker and bulkhead per route, created on the route's first request.
+ * State changes are logged, counted and published as {@link CircuitStateChangedEvent}s.
+ */
+@Component
+@Slf4j
+public class RouteGuardRegistry {
+
+    private final CircuitBreakerProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Map<String, Optional<RouteGuard>> guards = new ConcurrentHashMap<>();
+
+    public RouteGuardRegistry(CircuitBreakerProperties properties, MeterRegistry meterRegistry,
+                              ApplicationEventPublisher eventPublisher) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * The route's guard, or {@code null} if circuit breaking is off for it.
+     */
+    public RouteGuard get(String routeId) {
+        if (!properties.isEnabled()) {
+            return null;
+        }
+        return guards.computeIfAbsent(routeId, this::create).orElse(null);
+    }
+
+    private Optional<RouteGuard> create(String routeId) {
+        CircuitBreakerProperties.Settings settings = properties.settingsFor(routeId);
+        if (!settings.isEnabled()) {
+            return Optional.empty();
+        }
+
+        CircuitBreaker breaker = new CircuitBreaker(routeId, settings, (from, to) -> onTransition(routeId, from, to));
+        Bulkhead bulkhead = new Bulkhead(settings.getMaxConcurrentCalls());
+
+        Gauge.builder("gateway.circuit.state", breaker, b -> b.getState().ordinal())
+                .description("Circuit state: 0 closed, 1 open, 2 half-open")
+                .tag("route", routeId)
+                .register(meterRegistry);
+        Gauge.builder("gateway.bulkhead.available", bulkhead, Bulkhead::getAvailable)
+                .description("Bulkhead permits left")
+                .tag("route", routeId)
+                .register(meterRegistry);
+        return Optional.of(new RouteGuard(breaker, bulkhead,
+                rejectedCounter(routeId, "circuit-open"), rejectedCounter(routeId, "bulkhead-full")));
+    }
+
+    private Counter rejectedCounter(String routeId, String reason) {
+        return Counter.builder("gateway.circuit.rejected")
+                .description("Requests answered by the fallback")
+                .tag("route", routeId)
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    private void onTransition(String routeId, CircuitState from, CircuitState to) {
+        if (to == CircuitState.OPEN) {
+            log.warn("Circuit for route {} {} -> {}", routeId, from, to);
+        } else {
+            log.info("Circuit for route {} {} -> {}", routeId, from, to);
+        }
+        Counter.builder("gateway.circuit.transitions")
+                .tag("route", routeId)
+                .tag("from", from.name().toLowerCase())
+                .tag("to", to.name().toLowerCase())
+                .register(meterRegistry)
+                .increment();
+        eventPublisher.publishEvent(new CircuitStateChangedEvent(routeId, from, to));
+    }
+
+    public record RouteGuard(CircuitBreaker breaker, Bulkhead bulkhead,
+                             Counter rejectedOpen, Counter rejectedFull) {
+    }
+}
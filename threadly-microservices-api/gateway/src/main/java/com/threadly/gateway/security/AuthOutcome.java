@@ -0,0 +1,33 @@
+package com.threadly.gateway.security;
+
+import org.springframework.web.server.ServerWebExchange;
+
+/**
+ * Result of the gateway's authentication step for one exchange.
+ */
+public enum AuthOutcome {
+    /** Route is open, no token checked. */
+    OPEN,
+    OK,
+    MISSING,
+    EXPIRED,
+    INVALID,
+    /** Valid token found in the revocation snapshot. */
+    REVOKED,
+    /** Bearer token refused because no revocation snapshot has loaded yet. */
+    UNAVAILABLE,
+    FORBIDDEN,
+    /** Path is never exposed through the gateway. */
+    DENIED;
+
+    public static final String EXCHANGE_ATTR = AuthOutcome.class.getName();
+    public static final String USER_ID_ATTR = AuthOutcome.class.getName() + ".userId";
+
+    public static AuthOutcome of(ServerWebExchange exchange) {
+        return exchange.getAttribute(EXCHANGE_ATTR);
+    }
+
+    public void record(ServerWebExchange exchange) {
+        exchange.getAttributes().put(EXCHANGE_ATTR, this);
+    }
+}
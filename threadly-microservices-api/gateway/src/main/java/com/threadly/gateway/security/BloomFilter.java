@@ -0,0 +1,86 @@
+package com.threadly.gateway.security;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-size Bloom filter over strings. Lookups hash the key once and probe
+ * {@code hashCount} bits derived from it (double hashing), with no allocation.
+ * Not thread-safe for writes; {@link RevocationSnapshot} only writes to private copies.
+ */
+public final class BloomFilter {
+
+    private final long[] words;
+    private final int bitCount;
+    private final int hashCount;
+
+    private BloomFilter(long[] words, int hashCount) {
+        this.words = words;
+        this.bitCount = words.length * Long.SIZE;
+        this.hashCount = hashCount;
+    }
+
+    /**
+     * Filter sized for {@code expectedInsertions} keys at the given false-positive rate.
+     */
+    public static BloomFilter create(int expectedInsertions, double falsePositiveRate) {
+        int n = Math.max(1, expectedInsertions);
+        double ln2 = Math.log(2);
+        long bits = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (ln2 * ln2));
+        bits = Math.max(Long.SIZE, Math.min(bits, (long) Integer.MAX_VALUE - Long.SIZE));
+        int hashCount = Math.max(1, (int) Math.round((double) bits / n * ln2));
+        return new BloomFilter(new long[(int) ((bits + Long.SIZE - 1) / Long.SIZE)], hashCount);
+    }
+
+    public void put(String key) {
+        long hash = hash(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            int bit = index(h1 + i * h2);
+            words[bit >>> 6] |= 1L << bit;
+        }
+    }
+
+    public boolean mightContain(String key) {
+        long hash = hash(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            int bit = index(h1 + i * h2);
+            if ((words[bit >>> 6] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public BloomFilter copy() {
+        return new BloomFilter(Arrays.copyOf(words, words.length), hashCount);
+    }
+
+    public int bitCount() {
+        return bitCount;
+    }
+
+    private int index(int combined) {
+        return (combined & Integer.MAX_VALUE) % bitCount;
+    }
+
+    /**
+     * 64-bit FNV-1a over the UTF-16 chars, finished with the MurmurHash3 mixer so both
+     * halves are usable as independent hashes.
+     */
+    private static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            h ^= key.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,12 @@
+package com.threadly.gateway.security;
+
+/**
+ * One entry of user-service's revocation feed: either a single token ID, or a user-wide
+ * "not before" time (epoch millis) revoking every token of the user issued earlier.
+ */
+public record RevocationEntry(String tokenId, Long userId, Long notBefore, long expiresAt) {
+
+    public boolean isUserWide() {
+        return tokenId == null && notBefore != null;
+    }
+}
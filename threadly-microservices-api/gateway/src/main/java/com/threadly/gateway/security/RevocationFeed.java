@@ -0,0 +1,13 @@
+package com.threadly.gateway.security;
+
+import java.util.List;
+
+/**
+ * One page of the revocation feed, as served by user-service's {@code /internal/revocations}.
+ */
+public record RevocationFeed(List<RevocationEntry> entries, long cursor, boolean hasMore) {
+
+    public RevocationFeed {
+        entries = entries == null ? List.of() : entries;
+    }
+}
@@ -0,0 +1,102 @@
+package com.threadly.gateway.security;
+
+import com.threadly.gateway.config.RevocationProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Holds the current {@link RevocationSnapshot}. The request path only reads a volatile
+ * reference; {@link RevocationSync} is the single writer and swaps in a new snapshot
+ * after each pull. Until the first full pull has loaded, the registry is not ready and
+ * bearer tokens are refused rather than checked against an empty snapshot.
+ */
+@Component
+@Slf4j
+public class RevocationRegistry {
+
+    private final boolean enabled;
+    private final int expectedEntries;
+    private final double falsePositiveRate;
+
+    private volatile RevocationSnapshot snapshot;
+    private volatile long lastSyncMillis;
+    private volatile long lastFullSyncMillis;
+
+    private final LongAdder rejected = new LongAdder();
+
+    public RevocationRegistry(RevocationProperties properties) {
+        this.enabled = properties.isEnabled();
+        this.expectedEntries = properties.getExpectedEntries();
+        this.falsePositiveRate = properties.getFalsePositiveRate();
+        this.snapshot = RevocationSnapshot.empty(expectedEntries, falsePositiveRate);
+    }
+
+    /**
+     * Whether revocation checks can be trusted: sync is disabled, or a full pull has loaded.
+     */
+    public boolean isReady() {
+        return !enabled || lastFullSyncMillis != 0;
+    }
+
+    public boolean isRevoked(VerifiedToken token) {
+        if (snapshot.isRevoked(token.tokenId(), token.userId(), token.issuedAtMillis())) {
+            rejected.increment();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Replaces the snapshot with the full feed read from the start.
+     */
+    public void replace(List<RevocationEntry> entries, long cursor) {
+        long now = System.currentTimeMillis();
+        RevocationSnapshot next = RevocationSnapshot.build(entries, cursor, expectedEntries, falsePositiveRate, now);
+        log.debug("Revocation snapshot rebuilt: {} tokens, {} users, cursor {}",
+                next.tokenCount(), next.userCount(), cursor);
+        this.snapshot = next;
+        this.lastSyncMillis = now;
+        this.lastFullSyncMillis = now;
+    }
+
+    /**
+     * Applies entries pulled from the trailing window below the cursor onwards; entries
+     * already in the snapshot are skipped.
+     */
+    public void apply(List<RevocationEntry> delta, long cursor) {
+        long now = System.currentTimeMillis();
+        this.snapshot = snapshot.with(delta, cursor, now);
+        this.lastSyncMillis = now;
+    }
+
+    public long cursor() {
+        return snapshot.cursor();
+    }
+
+    public long getLastFullSyncMillis() {
+        return lastFullSyncMillis;
+    }
+
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    public int getTokenCount() {
+        return snapshot.tokenCount();
+    }
+
+    public int getUserCount() {
+        return snapshot.userCount();
+    }
+
+    /**
+     * Seconds since the last successful pull, or -1 before the first one.
+     */
+    public double getSyncAgeSeconds() {
+        long last = lastSyncMillis;
+        return last == 0 ? -1 : (System.currentTimeMillis() - last) / 1000.0;
+    }
+}
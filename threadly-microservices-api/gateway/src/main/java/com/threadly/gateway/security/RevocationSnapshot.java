@@ -0,0 +1,149 @@
+package com.threadly.gateway.security;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable view of the revocations known to this gateway. Token IDs go through a Bloom
+ * filter first, so the usual case (a token that was never revoked) touches only a few bits;
+ * the exact map is consulted on a filter hit to rule out false positives. User-wide
+ * revocations are few and kept in a plain map.
+ * Updates build a new snapshot; readers never see a partially applied delta.
+ */
+public final class RevocationSnapshot {
+
+    private final BloomFilter tokenFilter;
+    private final Map<String, Long> tokenExpiries;
+    private final Map<Long, RevocationEntry> userRevocations;
+    private final int capacity;
+    private final double falsePositiveRate;
+    private final long cursor;
+
+    private RevocationSnapshot(BloomFilter tokenFilter, Map<String, Long> tokenExpiries,
+                               Map<Long, RevocationEntry> userRevocations, int capacity,
+                               double falsePositiveRate, long cursor) {
+        this.tokenFilter = tokenFilter;
+        this.tokenExpiries = tokenExpiries;
+        this.userRevocations = userRevocations;
+        this.capacity = capacity;
+        this.falsePositiveRate = falsePositiveRate;
+        this.cursor = cursor;
+    }
+
+    public static RevocationSnapshot empty(int expectedEntries, double falsePositiveRate) {
+        return new RevocationSnapshot(BloomFilter.create(expectedEntries, falsePositiveRate),
+                Map.of(), Map.of(), expectedEntries, falsePositiveRate, 0);
+    }
+
+    /**
+     * Snapshot of {@code entries}, skipping those expired at {@code nowMillis}. The filter is
+     * sized for at least twice the live token count, so deltas rarely force a rebuild.
+     */
+    public static RevocationSnapshot build(Collection<RevocationEntry> entries, long cursor,
+                                           int expectedEntries, double falsePositiveRate, long nowMillis) {
+        Map<String, Long> tokens = new HashMap<>();
+        Map<Long, RevocationEntry> users = new HashMap<>();
+        for (RevocationEntry entry : entries) {
+            if (entry.expiresAt() > nowMillis) {
+                add(entry, tokens, users);
+            }
+        }
+
+        int capacity = Math.max(expectedEntries, tokens.size() * 2);
+        BloomFilter filter = BloomFilter.create(capacity, falsePositiveRate);
+        tokens.keySet().forEach(filter::put);
+        return new RevocationSnapshot(filter, tokens, users, capacity, falsePositiveRate, cursor);
+    }
+
+    /**
+     * New snapshot with {@code delta} applied on top of this one. Entries this snapshot
+     * already holds are skipped, so a re-read window costs nothing when it brings no news.
+     * Falls back to a full rebuild (dropping expired entries) when the filter would exceed
+     * the size it was built for.
+     */
+    public RevocationSnapshot with(Collection<RevocationEntry> update, long newCursor, long nowMillis) {
+        List<RevocationEntry> delta = new ArrayList<>();
+        for (RevocationEntry entry : update) {
+            if (!covers(entry)) {
+                delta.add(entry);
+            }
+        }
+        if (delta.isEmpty()) {
+            return newCursor == cursor ? this : new RevocationSnapshot(
+                    tokenFilter, tokenExpiries, userRevocations, capacity, falsePositiveRate, newCursor);
+        }
+        if (tokenExpiries.size() + delta.size() > capacity) {
+            List<RevocationEntry> all = new ArrayList<>(tokenExpiries.size() + userRevocations.size() + delta.size());
+            tokenExpiries.forEach((tokenId, expiresAt) -> all.add(new RevocationEntry(tokenId, null, null, expiresAt)));
+            all.addAll(userRevocations.values());
+            all.addAll(delta);
+            return build(all, newCursor, capacity, falsePositiveRate, nowMillis);
+        }
+
+        BloomFilter filter = tokenFilter.copy();
+        Map<String, Long> tokens = new HashMap<>(tokenExpiries);
+        Map<Long, RevocationEntry> users = new HashMap<>(userRevocations);
+        for (RevocationEntry entry : delta) {
+            if (entry.expiresAt() > nowMillis) {
+                add(entry, tokens, users);
+                if (entry.tokenId() != null) {
+                    filter.put(entry.tokenId());
+                }
+            }
+        }
+        return new RevocationSnapshot(filter, tokens, users, capacity, falsePositiveRate, newCursor);
+    }
+
+    /**
+     * Whether the token is revoked, by its ID or by a user-wide revocation issued after it.
+     * JWT issue times are truncated to the second; user-service rounds not-before times up
+     * to the next second, so a token from earlier in the revoking second is caught too.
+     */
+    public boolean isRevoked(String tokenId, Long userId, long issuedAtMillis) {
+        if (!userRevocations.isEmpty() && userId != null) {
+            RevocationEntry userWide = userRevocations.get(userId);
+            if (userWide != null && issuedAtMillis < userWide.notBefore()) {
+                return true;
+            }
+        }
+        return tokenId != null
+                && tokenFilter.mightContain(tokenId)
+                && tokenExpiries.containsKey(tokenId);
+    }
+
+    private boolean covers(RevocationEntry entry) {
+        if (entry.tokenId() != null) {
+            return tokenExpiries.containsKey(entry.tokenId());
+        }
+        if (entry.isUserWide()) {
+            RevocationEntry current = userRevocations.get(entry.userId());
+            return current != null && current.notBefore() >= entry.notBefore();
+        }
+        return true;
+    }
+
+    public long cursor() {
+        return cursor;
+    }
+
+    public int tokenCount() {
+        return tokenExpiries.size();
+    }
+
+    public int userCount() {
+        return userRevocations.size();
+    }
+
+    private static void add(RevocationEntry entry, Map<String, Long> tokens, Map<Long, RevocationEntry> users) {
+        if (entry.tokenId() != null) {
+            tokens.put(entry.tokenId(), entry.expiresAt());
+        } else if (entry.isUserWide()) {
+            // Latest not-before wins: it covers everything an earlier one did
+            users.merge(entry.userId(), entry,
+                    (current, next) -> next.notBefore() >= current.notBefore() ? next : current);
+        }
+    }
+}
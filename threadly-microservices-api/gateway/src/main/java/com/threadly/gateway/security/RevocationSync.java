@@ -0,0 +1,112 @@
+package com.threadly.gateway.security;
+
+import com.threadly.gateway.config.RevocationProperties;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactorLoadBalancerExchangeFilterFunction;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Pulls user-service's revocation feed into the {@link RevocationRegistry}. Each poll reads
+ * the entries after {@code cursor-overlap} IDs below the current cursor, so a row committed
+ * out of ID order is seen on the next poll; every full-resync interval the whole feed is
+ * read again, which drops expired entries. While user-service is unreachable the last
+ * snapshot stays in use.
+ */
+@Component
+@Slf4j
+public class RevocationSync {
+
+    private final RevocationRegistry registry;
+    private final RevocationProperties properties;
+    private final WebClient webClient;
+
+    private Disposable subscription;
+
+    public RevocationSync(
+            RevocationRegistry registry,
+            RevocationProperties properties,
+            ReactorLoadBalancerExchangeFilterFunction loadBalancer,
+            @Value("${gateway.internal.secret}") String internalSecret) {
+        this(registry, properties, WebClient.builder()
+                .baseUrl(properties.getServiceUrl())
+                .filter(loadBalancer)
+                .defaultHeader("X-Internal-Secret", internalSecret)
+                .build());
+    }
+
+    RevocationSync(RevocationRegistry registry, RevocationProperties properties, WebClient webClient) {
+        this.registry = registry;
+        this.properties = properties;
+        this.webClient = webClient;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    void start() {
+        if (!properties.isEnabled()) {
+            log.info("Token revocation sync disabled");
+            return;
+        }
+        this.subscription = Flux.interval(Duration.ZERO, properties.getPollInterval())
+                .onBackpressureDrop()
+                .concatMap(tick -> sync()
+                        .onErrorResume(e -> {
+                            log.warn("Revocation sync failed, keeping the last snapshot: {}", e.getMessage());
+                            return Mono.empty();
+                        }), 1)
+                .subscribe();
+        log.info("Token revocation sync every {} from {}", properties.getPollInterval(), properties.getServiceUrl());
+    }
+
+    Mono<Void> sync() {
+        long lastFull = registry.getLastFullSyncMillis();
+        boolean full = lastFull == 0
+                || System.currentTimeMillis() - lastFull >= properties.getFullResyncInterval().toMillis();
+        long current = registry.cursor();
+        long since = full ? 0 : Math.max(0, current - properties.getCursorOverlap());
+
+        return fetch(since)
+                .expand(page -> page.hasMore() ? fetch(page.cursor()) : Mono.empty())
+                .collectList()
+                .doOnNext(pages -> {
+                    List<RevocationEntry> entries = new ArrayList<>();
+                    pages.forEach(page -> entries.addAll(page.entries()));
+                    long cursor = pages.isEmpty() ? since : pages.get(pages.size() - 1).cursor();
+                    if (full) {
+                        registry.replace(entries, cursor);
+                    } else {
+                        registry.apply(entries, Math.max(current, cursor));
+                    }
+                })
+                .then();
+    }
+
+    private Mono<RevocationFeed> fetch(long since) {
+        return webClient.get()
+                .uri(uri -> uri.path("/internal/revocations")
+                        .queryParam("since", since)
+                        .queryParam("limit", properties.getPageSize())
+                        .build())
+                .retrieve()
+                .bodyToMono(RevocationFeed.class)
+                .timeout(properties.getRequestTimeout());
+    }
+
+    @PreDestroy
+    void stop() {
+        if (subscription != null) {
+            subscription.dispose();
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.threadly.gateway.security;
+
+/**
+ * Access policy applied by the gateway to a matched route.
+ */
+public enum RoutePolicy {
+    /** No token required. */
+    OPEN,
+    /** A valid access token is required. */
+    AUTHENTICATED,
+    /** A valid access token carrying the rule's role is required. */
+    ROLE_REQUIRED,
+    /** Never served through the gateway; answered with 404 before any token check. */
+    DENIED
+}
@@ -0,0 +1,170 @@
+package com.threadly.gateway.security;
+
+import com.threadly.gateway.config.GatewaySecurityProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Route-policy table compiled into a character trie.
+ * A lookup walks the request path once, without allocating, and returns the
+ * most specific rule: an exact match first, then the longest {@code /**} prefix.
+ * The table is recompiled when {@code gateway.security.*} changes on a refresh.
+ */
+@Component
+@Slf4j
+public class RoutePolicyMatcher {
+
+    private static final String PROPERTY_PREFIX = "gateway.security";
+    private static final String PREFIX_SUFFIX = "/**";
+    private static final RouteRule[] NO_RULES = new RouteRule[0];
+
+    private final Environment environment;
+
+    private volatile Compiled compiled;
+
+    public RoutePolicyMatcher(GatewaySecurityProperties properties, Environment environment) {
+        this.environment = environment;
+        this.compiled = compile(properties);
+    }
+
+    /**
+     * Find the rule for a request. Never returns null: unmatched requests get the default policy.
+     */
+    public RouteRule match(String method, String path) {
+        Compiled table = this.compiled;
+        Node node = table.root;
+        RouteRule best = null;
+        int length = path.length();
+
+        for (int i = 0; ; i++) {
+            if (node.prefixRules.length > 0 && (i == length || path.charAt(i) == '/')) {
+                RouteRule rule = select(node.prefixRules, method);
+                if (rule != null) {
+                    best = rule;
+                }
+            }
+            if (i == length) {
+                RouteRule rule = select(node.exactRules, method);
+                if (rule != null) {
+                    return rule;
+                }
+                break;
+            }
+            node = node.child(path.charAt(i));
+            if (node == null) {
+                break;
+            }
+        }
+
+        return best != null ? best : table.defaultRule;
+    }
+
+    @EventListener
+    public void onEnvironmentChange(EnvironmentChangeEvent event) {
+        boolean affected = event.getKeys().stream().anyMatch(key -> key.startsWith(PROPERTY_PREFIX + "."));
+        if (!affected) {
+            return;
+        }
+
+        GatewaySecurityProperties properties = Binder.get(environment)
+                .bind(PROPERTY_PREFIX, GatewaySecurityProperties.class)
+                .orElseGet(GatewaySecurityProperties::new);
+        this.compiled = compile(properties);
+    }
+
+    private static RouteRule select(RouteRule[] rules, String method) {
+        for (RouteRule rule : rules) {
+            if (rule.matchesMethod(method)) {
+                return rule;
+            }
+        }
+        return null;
+    }
+
+    private Compiled compile(GatewaySecurityProperties properties) {
+        Node root = new Node();
+
+        for (GatewaySecurityProperties.Route route : properties.getRoutes()) {
+            String path = route.getPath();
+            if (path == null || path.isBlank()) {
+                throw new IllegalArgumentException("Route policy without a path: " + route);
+            }
+            if (route.getPolicy() == RoutePolicy.ROLE_REQUIRED && (route.getRole() == null || route.getRole().isBlank())) {
+                throw new IllegalArgumentException("Route policy ROLE_REQUIRED needs a role: " + path);
+            }
+
+            String method = route.getMethod() == null || route.getMethod().isBlank() || "*".equals(route.getMethod())
+                    ? null
+                    : route.getMethod().toUpperCase(Locale.ROOT);
+            RouteRule rule = new RouteRule(method, path, route.getPolicy(), route.getRole());
+
+            boolean prefix = path.endsWith(PREFIX_SUFFIX);
+            String key = prefix ? path.substring(0, path.length() - PREFIX_SUFFIX.length()) : path;
+
+            Node node = root;
+            for (int i = 0; i < key.length(); i++) {
+                node = node.childOrCreate(key.charAt(i));
+            }
+            if (prefix) {
+                node.prefixRules = append(node.prefixRules, rule);
+            } else {
+                node.exactRules = append(node.exactRules, rule);
+            }
+        }
+
+        RouteRule defaultRule = new RouteRule(null, PREFIX_SUFFIX, properties.getDefaultPolicy(), null);
+        log.info("Compiled {} route policies (default = {})", properties.getRoutes().size(), properties.getDefaultPolicy());
+        return new Compiled(root, defaultRule);
+    }
+
+    private static RouteRule[] append(RouteRule[] rules, RouteRule rule) {
+        RouteRule[] copy = Arrays.copyOf(rules, rules.length + 1);
+        copy[rules.length] = rule;
+        return copy;
+    }
+
+    private record Compiled(Node root, RouteRule defaultRule) {
+    }
+
+    /**
+     * Trie node; children are kept sorted by character for binary search.
+     */
+    private static final class Node {
+        private char[] keys = new char[0];
+        private Node[] children = new Node[0];
+        private RouteRule[] exactRules = NO_RULES;
+        private RouteRule[] prefixRules = NO_RULES;
+
+        Node child(char c) {
+            int index = Arrays.binarySearch(keys, c);
+            return index >= 0 ? children[index] : null;
+        }
+
+        Node childOrCreate(char c) {
+            int index = Arrays.binarySearch(keys, c);
+            if (index >= 0) {
+                return children[index];
+            }
+
+            int insertAt = -index - 1;
+            char[] newKeys = new char[keys.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(keys, 0, newKeys, 0, insertAt);
+            System.arraycopy(children, 0, newChildren, 0, insertAt);
+            newKeys[insertAt] = c;
+            newChildren[insertAt] = new Node();
+            System.arraycopy(keys, insertAt, newKeys, insertAt + 1, keys.length - insertAt);
+            System.arraycopy(children, insertAt, newChildren, insertAt + 1, children.length - insertAt);
+            keys = newKeys;
+            children = newChildren;
+            return newChildren[insertAt];
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.threadly.gateway.security;
+
+/**
+ * Compiled route-policy rule. A null method matches any HTTP method.
+ */
+public record RouteRule(String method, String pattern, RoutePolicy policy, String role) {
+
+    public boolean matchesMethod(String requestMethod) {
+        return method == null || method.equals(requestMethod);
+    }
+}
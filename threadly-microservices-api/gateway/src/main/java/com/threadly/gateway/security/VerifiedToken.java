@@ -0,0 +1,24 @@
+package com.threadly.gateway.security;
+
+import java.util.Set;
+
+/**
+ * Result of a successful JWT verification: the subject (user ID), the token ID (null for
+ * tokens issued without one), the roles carried in the token (empty if none) and the
+ * token's issue and expiry times as epoch millis.
+ */
+public record VerifiedToken(Long userId, String tokenId, Set<String> roles,
+                            long issuedAtMillis, long expiresAtMillis) {
+
+    public VerifiedToken {
+        roles = roles == null ? Set.of() : Set.copyOf(roles);
+    }
+
+    public boolean isExpired(long nowMillis) {
+        return expiresAtMillis <= nowMillis;
+    }
+
+    public boolean hasRole(String role) {
+        return roles.contains(role);
+    }
+}
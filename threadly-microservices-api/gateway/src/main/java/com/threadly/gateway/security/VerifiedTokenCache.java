@@ -0,0 +1,116 @@
+package com.threadly.gateway.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded LRU cache of already verified access tokens.
+ * Tokens are keyed by their SHA-256 digest so raw tokens are never held in memory,
+ * and entries are dropped once the token's own expiry has passed.
+ */
+@Component
+@Slf4j
+public class VerifiedTokenCache {
+
+    private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    });
+
+    private final boolean enabled;
+    private final Map<String, VerifiedToken> entries;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public VerifiedTokenCache(
+            @Value("${gateway.security.token-cache.enabled:true}") boolean enabled,
+            @Value("${gateway.security.token-cache.max-size:10000}") int maxSize) {
+        this.enabled = enabled;
+        this.entries = new LinkedHashMap<>(Math.min(maxSize, 1024), 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, VerifiedToken> eldest) {
+                if (size() > maxSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+        log.info("Verified token cache enabled = {}, max size = {}", enabled, maxSize);
+    }
+
+    /**
+     * Return the cached verification for this token, or null if it is not cached
+     * or has expired since it was cached.
+     */
+    public VerifiedToken get(String token) {
+        if (!enabled) {
+            return null;
+        }
+        String key = digest(token);
+        long now = System.currentTimeMillis();
+        synchronized (entries) {
+            VerifiedToken cached = entries.get(key);
+            if (cached != null && cached.isExpired(now)) {
+                entries.remove(key);
+                evictions.increment();
+                cached = null;
+            }
+            if (cached == null) {
+                misses.increment();
+            } else {
+                hits.increment();
+            }
+            return cached;
+        }
+    }
+
+    public void put(String token, VerifiedToken verified) {
+        if (!enabled || verified.isExpired(System.currentTimeMillis())) {
+            return;
+        }
+        String key = digest(token);
+        synchronized (entries) {
+            entries.put(key, verified);
+        }
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private static String digest(String token) {
+        MessageDigest md = SHA256.get();
+        md.reset();
+        byte[] hash = md.digest(token.getBytes(StandardCharsets.US_ASCII));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+    }
+}
@@ -0,0 +1,75 @@
+package com.threadly.gateway.upstream;
+
+import com.threadly.gateway.config.UpstreamHttpClientProperties;
+import io.netty.handler.codec.http.HttpMethod;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.cloud.client.discovery.event.HeartbeatEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Opens pooled connections to service instances as soon as discovery reports them, so the
+ * first burst of traffic to a new instance does not pay for connection setup. Each new
+ * instance gets {@code connections} concurrent cheap requests through the routing
+ * HttpClient; the responses are ignored.
+ */
+@Component
+@Slf4j
+public class ConnectionWarmer {
+
+    private final HttpClient httpClient;
+    private final DiscoveryClient discoveryClient;
+    private final UpstreamHttpClientProperties.WarmUp settings;
+    private final Map<String, Set<String>> knownInstances = new ConcurrentHashMap<>();
+
+    public ConnectionWarmer(HttpClient httpClient, DiscoveryClient discoveryClient,
+                            UpstreamHttpClientProperties properties) {
+        this.httpClient = httpClient;
+        this.discoveryClient = discoveryClient;
+        this.settings = properties.getWarmUp();
+    }
+
+    /**
+     * Eureka publishes a heartbeat after every registry refresh; instances not seen on the
+     * previous one are warmed.
+     */
+    @EventListener({ApplicationReadyEvent.class, HeartbeatEvent.class})
+    void onDiscoveryRefresh() {
+        if (!settings.isEnabled()) {
+            return;
+        }
+        for (String serviceId : settings.getServices()) {
+            Set<String> current = discoveryClient.getInstances(serviceId).stream()
+                    .map(instance -> instance.getUri().toString())
+                    .collect(Collectors.toSet());
+            Set<String> previous = knownInstances.put(serviceId, current);
+            current.stream()
+                    .filter(uri -> previous == null || !previous.contains(uri))
+                    .forEach(uri -> warm(serviceId, uri));
+        }
+    }
+
+    private void warm(String serviceId, String baseUri) {
+        log.info("Warming {} connections to {} instance {}", settings.getConnections(), serviceId, baseUri);
+        Flux.range(0, settings.getConnections())
+                .flatMap(i -> httpClient.request(HttpMethod.OPTIONS)
+                        .uri(baseUri + settings.getPath())
+                        .responseSingle((response, body) -> body.then())
+                        .timeout(settings.getTimeout())
+                        .onErrorResume(e -> {
+                            log.debug("Warm-up request to {} failed: {}", baseUri, e.getMessage());
+                            return Mono.empty();
+                        }))
+                .subscribe();
+    }
+}
@@ -3,7 +3,7 @@ package com.threadly.gateway;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+@SpringBootTest(properties = "gateway.internal.secret=test-internal-secret")
 class GatewayApplicationTests {
 
 	@Test
@@ -0,0 +1,99 @@
+package com.threadly.gateway.coalescing;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InFlightRequestsTest {
+
+	private static final InFlightRequests.Key KEY =
+			new InFlightRequests.Key("users-profile", "GET", "/api/users/profile", 42L);
+
+	private final InFlightRequests inFlight = new InFlightRequests(1000);
+
+	@Test
+	void firstCallerLeadsAndLaterCallersWaitOnIt() {
+		Sinks.One<SharedResponse> leader = Sinks.one();
+		assertThat(inFlight.join(KEY, leader)).isNull();
+
+		Mono<SharedResponse> follower = inFlight.join(KEY, Sinks.one());
+		assertThat(follower).isNotNull();
+
+		SharedResponse response = response(200, "profile");
+		leader.tryEmitValue(response);
+		inFlight.complete(KEY, leader);
+
+		assertThat(follower.block()).isSameAs(response);
+		assertThat(inFlight.getLeaderCount()).isEqualTo(1);
+		assertThat(inFlight.getCoalescedCount()).isEqualTo(1);
+	}
+
+	@Test
+	void completeHandsLeadershipToTheNextCaller() {
+		Sinks.One<SharedResponse> first = Sinks.one();
+		inFlight.join(KEY, first);
+		inFlight.complete(KEY, first);
+
+		Sinks.One<SharedResponse> second = Sinks.one();
+		assertThat(inFlight.join(KEY, second)).isNull();
+		assertThat(inFlight.getLeaderCount()).isEqualTo(2);
+
+		// A late complete from the old leader must not evict the new one
+		inFlight.complete(KEY, first);
+		assertThat(inFlight.join(KEY, Sinks.one())).isNotNull();
+	}
+
+	@Test
+	void upstreamErrorResponsesAreShared() {
+		Sinks.One<SharedResponse> leader = Sinks.one();
+		inFlight.join(KEY, leader);
+		Mono<SharedResponse> follower = inFlight.join(KEY, Sinks.one());
+
+		leader.tryEmitValue(response(503, "overloaded"));
+		inFlight.complete(KEY, leader);
+
+		assertThat(follower.block().status()).isEqualTo(503);
+	}
+
+	@Test
+	void followersOfAnAbandonedLeaderGetNothingAndGoUpstream() {
+		Sinks.One<SharedResponse> leader = Sinks.one();
+		inFlight.join(KEY, leader);
+		Mono<SharedResponse> follower = inFlight.join(KEY, Sinks.one());
+
+		// The leader failed or its body was too large to share
+		inFlight.complete(KEY, leader);
+
+		assertThat(follower.blockOptional()).isEmpty();
+	}
+
+	@Test
+	void differentUsersAreNotCoalesced() {
+		inFlight.join(KEY, Sinks.one());
+
+		InFlightRequests.Key otherUser = new InFlightRequests.Key("users-profile", "GET", "/api/users/profile", 43L);
+		assertThat(inFlight.join(otherUser, Sinks.one())).isNull();
+		assertThat(inFlight.getLeaderCount()).isEqualTo(2);
+	}
+
+	@Test
+	void fullTableSendsNewKeysUpstreamUntracked() {
+		InFlightRequests small = new InFlightRequests(1);
+		small.join(KEY, Sinks.one());
+
+		InFlightRequests.Key other = new InFlightRequests.Key("users-profile", "GET", "/api/users/other", 42L);
+		assertThat(small.join(other, Sinks.one())).isNull();
+		assertThat(small.join(other, Sinks.one())).isNull();
+		assertThat(small.getLeaderCount()).isEqualTo(1);
+		assertThat(small.getCoalescedCount()).isZero();
+	}
+
+	private static SharedResponse response(int status, String body) {
+		return new SharedResponse(status, new HttpHeaders(), body.getBytes(StandardCharsets.UTF_8));
+	}
+}
@@ -0,0 +1,97 @@
+package com.threadly.gateway.concurrency;
+
+import com.threadly.gateway.config.ConcurrencyLimitProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GradientLimitTest {
+
+	private static final long FAST = TimeUnit.MILLISECONDS.toNanos(1);
+	private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(20);
+
+	private GradientLimit limit;
+
+	@BeforeEach
+	void setUp() {
+		ConcurrencyLimitProperties.Limits limits = new ConcurrencyLimitProperties.Limits();
+		limits.setInitialLimit(20);
+		limits.setMinLimit(4);
+		limits.setMaxLimit(200);
+		limit = new GradientLimit(new ConcurrencyLimitProperties(), limits);
+	}
+
+	@Test
+	void growsWhileLatencyHoldsUnderLoad() {
+		for (int i = 0; i < 50; i++) {
+			saturatedCall(FAST, false);
+		}
+
+		assertThat(limit.getLimit()).isGreaterThan(20);
+	}
+
+	@Test
+	void doesNotGrowWithoutLoad() {
+		for (int i = 0; i < 50; i++) {
+			assertThat(limit.tryAcquire()).isTrue();
+			limit.release(FAST, false);
+		}
+
+		assertThat(limit.getLimit()).isEqualTo(20);
+	}
+
+	@Test
+	void shrinksWhenLatencyInflates() {
+		for (int i = 0; i < 600; i++) {
+			saturatedCall(FAST, false);
+		}
+		int before = limit.getLimit();
+
+		for (int i = 0; i < 20; i++) {
+			saturatedCall(SLOW, false);
+		}
+
+		assertThat(limit.getLimit()).isLessThan(before);
+	}
+
+	@Test
+	void dropHalvesLimitEvenWhenFast() {
+		for (int i = 0; i < 50; i++) {
+			saturatedCall(FAST, false);
+		}
+		int before = limit.getLimit();
+
+		assertThat(limit.tryAcquire()).isTrue();
+		limit.release(FAST, true);
+
+		assertThat(limit.getLimit()).isEqualTo(before / 2);
+	}
+
+	@Test
+	void dropsStopAtMinLimit() {
+		for (int i = 0; i < 10; i++) {
+			saturatedCall(FAST, true);
+		}
+
+		assertThat(limit.getLimit()).isEqualTo(4);
+	}
+
+	@Test
+	void cancelledCallsFreeSlotWithoutSampling() {
+		assertThat(limit.tryAcquire()).isTrue();
+		limit.release(-1, true);
+
+		assertThat(limit.getInFlight()).isZero();
+		assertThat(limit.getLimit()).isEqualTo(20);
+	}
+
+	private void saturatedCall(long rttNanos, boolean dropped) {
+		while (limit.tryAcquire()) {
+			// fill the route up to its limit
+		}
+		limit.release(rttNanos, dropped);
+	}
+}
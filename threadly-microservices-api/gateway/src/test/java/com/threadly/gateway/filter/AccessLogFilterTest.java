@@ -0,0 +1,128 @@
+package com.threadly.gateway.filter;
+
+import com.threadly.gateway.config.AccessLogProperties;
+import com.threadly.gateway.logging.AccessLogAppender;
+import com.threadly.gateway.logging.AccessLogRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class AccessLogFilterTest {
+
+	private final AccessLogProperties properties = new AccessLogProperties();
+	private final AccessLogAppender appender = mock(AccessLogAppender.class);
+
+	private AccessLogFilter filter;
+
+	@BeforeEach
+	void setUp() {
+		filter = new AccessLogFilter(properties, appender);
+	}
+
+	@Test
+	void upstreamSqlHeadersAreLoggedButNotSentToTheClient() {
+		MockServerWebExchange exchange = exchange();
+
+		filter.filter(exchange, upstreamWithSqlHeaders()).block();
+
+		HttpHeaders sent = exchange.getResponse().getHeaders();
+		assertThat(sent).doesNotContainKeys("X-DB-Statements", "X-DB-Rows", "X-DB-Time-Ms", "Server-Timing");
+		AccessLogRecord record = logged();
+		assertThat(record.dbStatements()).isEqualTo(3);
+		assertThat(record.dbTimeMs()).isEqualTo(12L);
+	}
+
+	@Test
+	void upstreamSqlHeadersAreStrippedWithTheLogDisabled() {
+		properties.setEnabled(false);
+		MockServerWebExchange exchange = exchange();
+
+		filter.filter(exchange, upstreamWithSqlHeaders()).block();
+
+		assertThat(exchange.getResponse().getHeaders()).doesNotContainKeys("X-DB-Statements", "Server-Timing");
+		verify(appender, never()).append(any());
+	}
+
+	@Test
+	void responseWithoutSqlHeadersLogsNoTotals() {
+		filter.filter(exchange(), exchange -> {
+			exchange.getResponse().setStatusCode(HttpStatus.OK);
+			return exchange.getResponse().setComplete();
+		}).block();
+
+		assertThat(logged().dbStatements()).isNull();
+		assertThat(logged().dbTimeMs()).isNull();
+	}
+
+	@Test
+	void failedExchangeIsLoggedAsServerError() {
+		properties.setDefaultSampleRate(0.0);
+
+		filter.filter(exchange(), exchange -> {
+			exchange.getResponse().setStatusCode(HttpStatus.OK);
+			return Mono.error(new IllegalStateException("upstream reset"));
+		}).onErrorComplete().block();
+
+		assertThat(logged().status()).isEqualTo(500);
+	}
+
+	@Test
+	void failedExchangeIsLoggedWithTheErrorsStatus() {
+		properties.setDefaultSampleRate(0.0);
+
+		filter.filter(exchange(), exchange -> Mono.error(new ResponseStatusException(HttpStatus.GATEWAY_TIMEOUT)))
+				.onErrorComplete().block();
+
+		assertThat(logged().status()).isEqualTo(504);
+	}
+
+	@Test
+	void unsampledSuccessIsNotLogged() {
+		properties.setDefaultSampleRate(0.0);
+
+		filter.filter(exchange(), exchange -> {
+			exchange.getResponse().setStatusCode(HttpStatus.OK);
+			return exchange.getResponse().setComplete();
+		}).block();
+
+		verify(appender, never()).append(any());
+	}
+
+	private static GatewayFilterChain upstreamWithSqlHeaders() {
+		return exchange -> {
+			exchange.getResponse().setStatusCode(HttpStatus.OK);
+			HttpHeaders headers = exchange.getResponse().getHeaders();
+			headers.set("X-DB-Statements", "3");
+			headers.set("X-DB-Rows", "7");
+			headers.set("X-DB-Time-Ms", "12");
+			headers.set("Server-Timing", "db;dur=12");
+			byte[] body = "{}".getBytes(StandardCharsets.UTF_8);
+			return exchange.getResponse().writeWith(Mono.just(exchange.getResponse().bufferFactory().wrap(body)));
+		};
+	}
+
+	private AccessLogRecord logged() {
+		ArgumentCaptor<AccessLogRecord> record = ArgumentCaptor.forClass(AccessLogRecord.class);
+		verify(appender).append(record.capture());
+		return record.getValue();
+	}
+
+	private static MockServerWebExchange exchange() {
+		return MockServerWebExchange.from(MockServerHttpRequest.get("/api/users/profile"));
+	}
+}
@@ -0,0 +1,73 @@
+package com.threadly.gateway.filter;
+
+import com.threadly.gateway.config.CircuitBreakerProperties;
+import com.threadly.gateway.resilience.CircuitState;
+import com.threadly.gateway.resilience.RouteGuardRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CircuitBreakerFilterTest {
+
+	private RouteGuardRegistry registry;
+	private CircuitBreakerFilter filter;
+	private Route route;
+
+	@BeforeEach
+	void setUp() {
+		registry = new RouteGuardRegistry(new CircuitBreakerProperties(), new SimpleMeterRegistry(), event -> {
+		});
+		filter = new CircuitBreakerFilter(registry);
+		route = Route.async()
+				.id("users")
+				.uri(URI.create("http://localhost"))
+				.predicate(exchange -> true)
+				.build();
+	}
+
+	@Test
+	void loadSheddingDoesNotOpenCircuit() {
+		GatewayFilterChain shed = exchange -> GatewayErrorResponse.write(exchange, HttpStatus.SERVICE_UNAVAILABLE,
+				"Service is busy, retry later", "SERVICE_OVERLOADED");
+
+		for (int i = 0; i < 100; i++) {
+			filter.filter(exchange(), shed).block();
+		}
+
+		assertThat(registry.get("users").breaker().getState()).isEqualTo(CircuitState.CLOSED);
+	}
+
+	@Test
+	void upstreamFailuresOpenCircuit() {
+		GatewayFilterChain failing = exchange -> {
+			exchange.getResponse().setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+			return Mono.empty();
+		};
+
+		for (int i = 0; i < 20; i++) {
+			filter.filter(exchange(), failing).block();
+		}
+
+		assertThat(registry.get("users").breaker().getState()).isEqualTo(CircuitState.OPEN);
+		MockServerWebExchange rejected = exchange();
+		filter.filter(rejected, failing).block();
+		assertThat(rejected.getResponse().getHeaders().getFirst("Retry-After")).isNotNull();
+	}
+
+	private MockServerWebExchange exchange() {
+		MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/users/1"));
+		exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, route);
+		return exchange;
+	}
+}
@@ -0,0 +1,146 @@
+package com.threadly.gateway.filter;
+
+import com.threadly.gateway.hedging.HedgeBudget;
+import com.threadly.gateway.hedging.HedgeDelays;
+import com.threadly.gateway.hedging.HedgePolicy;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.ConnectException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HedgingFilterTest {
+
+	private static final String ROUTE = "users-profile";
+	private static final Duration TIMEOUT = Duration.ofSeconds(2);
+
+	private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final HedgeDelays delays = new HedgeDelays(100, 1);
+
+	private HedgingFilter filter;
+	private HedgePolicy policy;
+
+	@BeforeEach
+	void setUp() {
+		filter = new HedgingFilter(new HedgeBudget(1.0, 10), delays, null, meterRegistry);
+	}
+
+	@Test
+	void fastPrimaryIsNotHedged() {
+		MockServerWebExchange exchange = run(Duration.ofMillis(200),
+				attempt -> write(attempt, "primary"),
+				attempt -> write(attempt, "hedge"));
+
+		assertThat(exchange.getResponse().getBodyAsString().block()).isEqualTo("primary");
+		assertThat(count("gateway.hedge.sent")).isZero();
+	}
+
+	@Test
+	void firstResponseWinsAndSlowPrimaryIsCancelled() {
+		AtomicInteger cancelled = new AtomicInteger();
+		MockServerWebExchange exchange = run(Duration.ofMillis(20),
+				attempt -> Mono.<Void>never().doOnCancel(cancelled::incrementAndGet),
+				attempt -> write(attempt, "hedge"));
+
+		assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(exchange.getResponse().getBodyAsString().block()).isEqualTo("hedge");
+		assertThat(cancelled).hasValue(1);
+		assertThat(count("gateway.hedge.sent")).isEqualTo(1);
+		assertThat(count("gateway.hedge.won")).isEqualTo(1);
+	}
+
+	@Test
+	void cancelledPrimaryRecordsNoDelaySample() {
+		run(Duration.ofMillis(20),
+				attempt -> Mono.never(),
+				attempt -> write(attempt, "hedge"));
+
+		assertThat(delays.delayNanos(ROUTE, policy)).isEqualTo(policy.maxDelay().toNanos());
+	}
+
+	@Test
+	void completedPrimaryRecordsDelaySample() {
+		run(Duration.ofSeconds(1),
+				attempt -> write(attempt, "primary"),
+				attempt -> write(attempt, "hedge"));
+
+		assertThat(delays.delayNanos(ROUTE, policy)).isLessThan(policy.maxDelay().toNanos());
+	}
+
+	@Test
+	void unreachablePrimaryIsHedgedWithoutWaitingForTheDelay() {
+		MockServerWebExchange exchange = run(Duration.ofSeconds(30),
+				attempt -> Mono.error(new ConnectException("Connection refused")),
+				attempt -> write(attempt, "hedge"));
+
+		assertThat(exchange.getResponse().getBodyAsString().block()).isEqualTo("hedge");
+		assertThat(count("gateway.hedge.sent")).isEqualTo(1);
+	}
+
+	@Test
+	void otherPrimaryFailureIsReturnedWithoutHedging() {
+		IllegalStateException failure = new IllegalStateException("boom");
+
+		assertThatThrownBy(() -> run(Duration.ofSeconds(30),
+				attempt -> Mono.error(failure),
+				attempt -> write(attempt, "hedge")))
+				.isSameAs(failure);
+		assertThat(count("gateway.hedge.sent")).isZero();
+	}
+
+	/**
+	 * Sends one hedgeable GET whose first upstream call runs {@code primary} and second runs
+	 * {@code hedge}, and returns the client exchange once the filter is done.
+	 */
+	private MockServerWebExchange run(Duration delay,
+									  Function<ServerWebExchange, Mono<Void>> primary,
+									  Function<ServerWebExchange, Mono<Void>> hedge) {
+		policy = new HedgePolicy(0.9, Duration.ofMillis(1), delay);
+		Route route = Route.async()
+				.id(ROUTE)
+				.uri(URI.create("http://localhost"))
+				.predicate(exchange -> true)
+				.metadata(Map.of(HedgePolicy.METADATA_KEY, policy))
+				.build();
+		List<Function<ServerWebExchange, Mono<Void>>> upstreams = List.of(primary, hedge);
+		AtomicInteger calls = new AtomicInteger();
+		GatewayFilterChain chain = attempt -> upstreams.get(calls.getAndIncrement()).apply(attempt);
+
+		MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/users/profile"));
+		exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, route);
+		filter.filter(exchange, chain).block(TIMEOUT);
+		return exchange;
+	}
+
+	private static Mono<Void> write(ServerWebExchange exchange, String body) {
+		exchange.getResponse().setStatusCode(HttpStatus.OK);
+		byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+		return exchange.getResponse().writeWith(Mono.just(exchange.getResponse().bufferFactory().wrap(bytes)));
+	}
+
+	private double count(String name) {
+		return meterRegistry.find(name).tag("route", ROUTE).counters().stream()
+				.mapToDouble(Counter::count)
+				.sum();
+	}
+}
@@ -0,0 +1,120 @@
+package com.threadly.gateway.filter;
+
+import com.threadly.gateway.coalescing.CoalescingPolicy;
+import com.threadly.gateway.coalescing.InFlightRequests;
+import com.threadly.gateway.security.AuthOutcome;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RequestCoalescingFilterTest {
+
+	private final AtomicInteger upstreamCalls = new AtomicInteger();
+	// Holds the leader's upstream response until the waiter has joined
+	private final Sinks.Empty<Void> release = Sinks.empty();
+
+	private RequestCoalescingFilter filter;
+	private Route route;
+
+	@BeforeEach
+	void setUp() {
+		filter = new RequestCoalescingFilter(new InFlightRequests(100));
+		route = Route.async()
+				.id("users-profile")
+				.uri(URI.create("http://localhost"))
+				.predicate(exchange -> true)
+				.metadata(Map.of(CoalescingPolicy.METADATA_KEY, new CoalescingPolicy(1024)))
+				.build();
+	}
+
+	@Test
+	void successfulResponseIsSharedWithWaiters() {
+		MockServerWebExchange waiter = coalesce(HttpStatus.OK);
+
+		assertThat(upstreamCalls).hasValue(1);
+		assertThat(waiter.getResponse().getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(waiter.getResponse().getBodyAsString().block()).isEqualTo("leader");
+	}
+
+	@Test
+	void sharedResponseCarriesNoUpstreamSqlHeaders() {
+		MockServerWebExchange waiter = coalesce(HttpStatus.OK);
+
+		assertThat(waiter.getResponse().getHeaders()).doesNotContainKeys("X-DB-Statements", "Server-Timing");
+	}
+
+	@Test
+	void errorResponseIsNotReplayed() {
+		MockServerWebExchange waiter = coalesce(HttpStatus.SERVICE_UNAVAILABLE);
+
+		assertThat(upstreamCalls).hasValue(2);
+		assertThat(waiter.getResponse().getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(waiter.getResponse().getBodyAsString().block()).isEqualTo("own");
+	}
+
+	@Test
+	void responseWithoutStatusIsNotShared() {
+		MockServerWebExchange waiter = coalesce(null);
+
+		assertThat(upstreamCalls).hasValue(2);
+		assertThat(waiter.getResponse().getBodyAsString().block()).isEqualTo("own");
+	}
+
+	/**
+	 * Runs a leader whose upstream answers {@code leaderStatus} and a waiter that joins it,
+	 * and returns the waiter's exchange once both are done.
+	 */
+	private MockServerWebExchange coalesce(HttpStatus leaderStatus) {
+		GatewayFilterChain leaderUpstream = exchange -> {
+			upstreamCalls.incrementAndGet();
+			return release.asMono().then(Mono.defer(() -> write(exchange, leaderStatus, "leader")));
+		};
+		GatewayFilterChain waiterUpstream = exchange -> {
+			upstreamCalls.incrementAndGet();
+			return write(exchange, HttpStatus.OK, "own");
+		};
+
+		CompletableFuture<Void> leader = filter.filter(exchange(), leaderUpstream).toFuture();
+		MockServerWebExchange waiterExchange = exchange();
+		CompletableFuture<Void> waiter = filter.filter(waiterExchange, waiterUpstream).toFuture();
+		assertThat(waiter).isNotDone();
+
+		release.tryEmitEmpty();
+		leader.join();
+		waiter.join();
+		return waiterExchange;
+	}
+
+	private static Mono<Void> write(ServerWebExchange exchange, HttpStatus status, String body) {
+		if (status != null) {
+			exchange.getResponse().setStatusCode(status);
+		}
+		exchange.getResponse().getHeaders().set("X-DB-Statements", "2");
+		exchange.getResponse().getHeaders().set("Server-Timing", "db;dur=4");
+		byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+		return exchange.getResponse().writeWith(Mono.just(exchange.getResponse().bufferFactory().wrap(bytes)));
+	}
+
+	private MockServerWebExchange exchange() {
+		MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/users/profile"));
+		exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, route);
+		exchange.getAttributes().put(AuthOutcome.USER_ID_ATTR, 42L);
+		return exchange;
+	}
+}
@@ -0,0 +1,109 @@
+package com.threadly.gateway.filter;
+
+import com.threadly.gateway.cache.ResponseCache;
+import com.threadly.gateway.cache.ResponseCachePolicy;
+import com.threadly.gateway.security.AuthOutcome;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResponseCacheFilterTest {
+
+	private static final byte[] BODY = "{\"id\":1}".getBytes(StandardCharsets.UTF_8);
+	private static final String ETAG = ResponseCache.etag(BODY);
+
+	private final AtomicInteger upstreamCalls = new AtomicInteger();
+	private final GatewayFilterChain upstream = exchange -> {
+		upstreamCalls.incrementAndGet();
+		exchange.getResponse().setStatusCode(HttpStatus.OK);
+		return exchange.getResponse().writeWith(Mono.just(exchange.getResponse().bufferFactory().wrap(BODY)));
+	};
+
+	private ResponseCacheFilter filter;
+	private Route route;
+
+	@BeforeEach
+	void setUp() {
+		filter = new ResponseCacheFilter(new ResponseCache(100));
+		route = Route.async()
+				.id("users-profile")
+				.uri(URI.create("http://localhost"))
+				.predicate(exchange -> true)
+				.metadata(Map.of(ResponseCachePolicy.METADATA_KEY, new ResponseCachePolicy(Duration.ofMinutes(1))))
+				.build();
+	}
+
+	@Test
+	void missStoresBodyAndHitSkipsUpstream() {
+		MockServerWebExchange miss = exchange();
+		filter.filter(miss, upstream).block();
+		MockServerWebExchange hit = exchange();
+		filter.filter(hit, upstream).block();
+
+		assertThat(upstreamCalls).hasValue(1);
+		assertThat(miss.getResponse().getHeaders().getFirst("X-Cache")).isEqualTo("MISS");
+		assertThat(hit.getResponse().getHeaders().getFirst("X-Cache")).isEqualTo("HIT");
+		assertThat(hit.getResponse().getBodyAsString().block()).isEqualTo("{\"id\":1}");
+		assertThat(hit.getResponse().getHeaders().getETag()).isEqualTo(ETAG);
+	}
+
+	@Test
+	void etagInListAnswersNotModified() {
+		filter.filter(exchange(), upstream).block();
+
+		MockServerWebExchange conditional = exchange("\"stale\", " + ETAG);
+		filter.filter(conditional, upstream).block();
+
+		assertThat(conditional.getResponse().getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+	}
+
+	@Test
+	void weakEtagMatchesOnMiss() {
+		MockServerWebExchange conditional = exchange("W/" + ETAG);
+		filter.filter(conditional, upstream).block();
+
+		assertThat(upstreamCalls).hasValue(1);
+		assertThat(conditional.getResponse().getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+	}
+
+	@Test
+	void noneMatchComparison() {
+		assertThat(ResponseCacheFilter.noneMatchFails(null, ETAG)).isFalse();
+		assertThat(ResponseCacheFilter.noneMatchFails(List.of("*"), ETAG)).isTrue();
+		assertThat(ResponseCacheFilter.noneMatchFails(List.of("\"a\"", "W/" + ETAG), ETAG)).isTrue();
+		assertThat(ResponseCacheFilter.noneMatchFails(List.of("\"a\" ,\"b\""), ETAG)).isFalse();
+		assertThat(ResponseCacheFilter.noneMatchFails(List.of(ETAG), "W/" + ETAG)).isTrue();
+		assertThat(ResponseCacheFilter.noneMatchFails(List.of(""), ETAG)).isFalse();
+	}
+
+	private MockServerWebExchange exchange() {
+		return exchange(null);
+	}
+
+	private MockServerWebExchange exchange(String ifNoneMatch) {
+		MockServerHttpRequest.BaseBuilder<?> request = MockServerHttpRequest.get("/api/users/profile");
+		if (ifNoneMatch != null) {
+			request.header(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+		}
+		MockServerWebExchange exchange = MockServerWebExchange.from(request);
+		exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, route);
+		exchange.getAttributes().put(AuthOutcome.USER_ID_ATTR, 1L);
+		return exchange;
+	}
+}
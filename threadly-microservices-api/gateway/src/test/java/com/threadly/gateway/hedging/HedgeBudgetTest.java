@@ -0,0 +1,52 @@
+package com.threadly.gateway.hedging;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HedgeBudgetTest {
+
+	@Test
+	void startsEmpty() {
+		HedgeBudget budget = new HedgeBudget(0.5, 10);
+
+		assertThat(budget.tryWithdraw()).isFalse();
+	}
+
+	@Test
+	void hedgeNeedsAWholeTokenOfDeposits() {
+		HedgeBudget budget = new HedgeBudget(0.5, 10);
+
+		budget.deposit();
+		assertThat(budget.tryWithdraw()).isFalse();
+
+		budget.deposit();
+		assertThat(budget.tryWithdraw()).isTrue();
+		assertThat(budget.tryWithdraw()).isFalse();
+	}
+
+	@Test
+	void balanceIsCappedAtMaxBalance() {
+		HedgeBudget budget = new HedgeBudget(1.0, 2);
+
+		for (int i = 0; i < 5; i++) {
+			budget.deposit();
+		}
+
+		assertThat(budget.getBalance()).isEqualTo(2.0);
+		assertThat(budget.tryWithdraw()).isTrue();
+		assertThat(budget.tryWithdraw()).isTrue();
+		assertThat(budget.tryWithdraw()).isFalse();
+	}
+
+	@Test
+	void tinyRatioStillAccrues() {
+		HedgeBudget budget = new HedgeBudget(0.0001, 10);
+
+		for (int i = 0; i < 1000; i++) {
+			budget.deposit();
+		}
+
+		assertThat(budget.tryWithdraw()).isTrue();
+	}
+}
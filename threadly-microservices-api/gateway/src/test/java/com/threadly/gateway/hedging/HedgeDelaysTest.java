@@ -0,0 +1,74 @@
+package com.threadly.gateway.hedging;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HedgeDelaysTest {
+
+	private static final String ROUTE = "users-profile";
+
+	private final HedgePolicy policy = new HedgePolicy(0.9, Duration.ofMillis(10), Duration.ofMillis(500));
+
+	@Test
+	void usesMaxDelayUntilEnoughSamples() {
+		HedgeDelays delays = new HedgeDelays(100, 10);
+
+		for (int i = 0; i < 9; i++) {
+			delays.record(ROUTE, policy, millis(50));
+		}
+
+		assertThat(delays.delayNanos(ROUTE, policy)).isEqualTo(millis(500));
+	}
+
+	@Test
+	void delayIsThePolicyPercentile() {
+		HedgeDelays delays = new HedgeDelays(100, 10);
+
+		for (int i = 1; i <= 10; i++) {
+			delays.record(ROUTE, policy, millis(i * 20));
+		}
+
+		assertThat(delays.delayNanos(ROUTE, policy)).isEqualTo(millis(180));
+	}
+
+	@Test
+	void delayIsClampedToPolicyBounds() {
+		HedgeDelays delays = new HedgeDelays(100, 1);
+
+		delays.record(ROUTE, policy, millis(1));
+		assertThat(delays.delayNanos(ROUTE, policy)).isEqualTo(millis(10));
+
+		delays.record(ROUTE, policy, millis(5_000));
+		assertThat(delays.delayNanos(ROUTE, policy)).isEqualTo(millis(500));
+	}
+
+	@Test
+	void oldSamplesLeaveTheWindow() {
+		HedgeDelays delays = new HedgeDelays(4, 4);
+
+		for (int i = 0; i < 4; i++) {
+			delays.record(ROUTE, policy, millis(400));
+		}
+		for (int i = 0; i < 4; i++) {
+			delays.record(ROUTE, policy, millis(30));
+		}
+
+		assertThat(delays.delayNanos(ROUTE, policy)).isEqualTo(millis(30));
+	}
+
+	@Test
+	void routesAreTrackedSeparately() {
+		HedgeDelays delays = new HedgeDelays(100, 1);
+
+		delays.record(ROUTE, policy, millis(50));
+
+		assertThat(delays.delayNanos("other", policy)).isEqualTo(millis(500));
+	}
+
+	private static long millis(long millis) {
+		return Duration.ofMillis(millis).toNanos();
+	}
+}
@@ -0,0 +1,109 @@
+package com.threadly.gateway.loadbalancer;
+
+import com.threadly.gateway.hedging.HedgePolicy;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestData;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.ServiceInstanceListSuppliers;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.util.LinkedMultiValueMap;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static com.threadly.gateway.loadbalancer.PeakEwmaStatsTest.instance;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PeakEwmaLoadBalancerTest {
+
+	private static final String SERVICE = "user-service";
+
+	private final ServiceInstance a = instance("a");
+	private final ServiceInstance b = instance("b");
+	private final PeakEwmaStats stats = new PeakEwmaStats(Duration.ofSeconds(10), Duration.ofSeconds(2),
+			new SimpleMeterRegistry());
+
+	private PeakEwmaLoadBalancer balancer;
+	private Route route;
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	void setUp() {
+		ObjectProvider<ServiceInstanceListSupplier> provider = mock(ObjectProvider.class);
+		when(provider.getIfAvailable(any(Supplier.class)))
+				.thenReturn(ServiceInstanceListSuppliers.from(SERVICE, a, b));
+		balancer = new PeakEwmaLoadBalancer(provider, SERVICE, stats);
+		route = Route.async()
+				.id("users")
+				.uri(URI.create("lb://" + SERVICE))
+				.predicate(exchange -> true)
+				.metadata(Map.of(LoadBalancerStrategy.METADATA_KEY, LoadBalancerStrategy.PEAK_EWMA))
+				.build();
+	}
+
+	@Test
+	void cheaperOfTwoIsChosen() {
+		record(a, 10_000_000L);
+		record(b, 80_000_000L);
+
+		for (int i = 0; i < 20; i++) {
+			assertThat(choose(null).getServer()).isSameAs(a);
+		}
+	}
+
+	@Test
+	void hedgeAvoidsTheFirstAttemptsInstance() {
+		record(a, 10_000_000L);
+		record(b, 80_000_000L);
+
+		for (int i = 0; i < 20; i++) {
+			assertThat(choose(a).getServer()).isSameAs(b);
+		}
+	}
+
+	@Test
+	void selectionPrunesStatsOfInstancesGoneFromDiscovery() {
+		ServiceInstance gone = instance("gone");
+		record(a, 10_000_000L);
+		record(gone, 10_000_000L);
+		record(b, 10_000_000L);
+
+		choose(null);
+
+		assertThat(stats.instanceKeys(SERVICE)).containsExactlyInAnyOrder("a:8080", "b:8080");
+	}
+
+	private void record(ServiceInstance instance, long latencyNanos) {
+		stats.start(SERVICE, instance);
+		stats.complete(SERVICE, instance, latencyNanos, PeakEwmaStats.Outcome.SUCCESS);
+	}
+
+	private Response<ServiceInstance> choose(ServiceInstance excluded) {
+		Map<String, Object> attributes = new HashMap<>();
+		attributes.put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, route);
+		if (excluded != null) {
+			attributes.put(HedgePolicy.EXCLUDED_INSTANCE_ATTR, excluded);
+		}
+		RequestData data = new RequestData(HttpMethod.GET, URI.create("http://" + SERVICE + "/api/users"),
+				new HttpHeaders(), new LinkedMultiValueMap<>(), attributes);
+		Request<RequestDataContext> request = new DefaultRequest<>(new RequestDataContext(data));
+		return balancer.choose(request).block();
+	}
+}
@@ -0,0 +1,98 @@
+package com.threadly.gateway.loadbalancer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PeakEwmaStatsTest {
+
+	private static final String SERVICE = "user-service";
+	private static final long MS = 1_000_000L;
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final PeakEwmaStats stats = new PeakEwmaStats(Duration.ofSeconds(10), Duration.ofSeconds(2), meterRegistry);
+
+	// Eureka reports the service ID upper-cased
+	private final ServiceInstance a = instance("a");
+	private final ServiceInstance b = instance("b");
+
+	@Test
+	void slowerInstanceCostsMore() {
+		record(a, 10 * MS);
+		record(b, 50 * MS);
+
+		assertThat(stats.cost(SERVICE, b)).isGreaterThan(stats.cost(SERVICE, a));
+	}
+
+	@Test
+	void outstandingRequestsMultiplyCost() {
+		record(a, 10 * MS);
+		record(b, 10 * MS);
+		stats.start(SERVICE, b);
+		stats.start(SERVICE, b);
+
+		assertThat(stats.cost(SERVICE, b)).isGreaterThan(2 * stats.cost(SERVICE, a));
+	}
+
+	@Test
+	void slowSampleIsTakenAsIsAndFastOnesBlendIn() {
+		record(a, 10 * MS);
+		record(a, 100 * MS);
+		stats.start(SERVICE, a);
+		double afterPeak = stats.cost(SERVICE, a);
+		stats.complete(SERVICE, a, 0, PeakEwmaStats.Outcome.CANCELLED);
+
+		record(a, 10 * MS);
+		stats.start(SERVICE, a);
+		double afterFast = stats.cost(SERVICE, a);
+
+		// One outstanding request doubles the estimate
+		assertThat(afterPeak).isEqualTo(2 * 100 * MS);
+		assertThat(afterFast).isLessThanOrEqualTo(afterPeak).isGreaterThan(2 * 10 * MS);
+	}
+
+	@Test
+	void failureCountsAsAtLeastThePenalty() {
+		stats.start(SERVICE, a);
+		stats.complete(SERVICE, a, MS, PeakEwmaStats.Outcome.FAILED);
+		stats.start(SERVICE, a);
+
+		assertThat(stats.cost(SERVICE, a)).isGreaterThanOrEqualTo(2 * 2_000 * MS);
+	}
+
+	@Test
+	void unsampledBusyInstanceIsAvoided() {
+		record(a, 500 * MS);
+		stats.start(SERVICE, b);
+
+		assertThat(stats.cost(SERVICE, b)).isGreaterThan(stats.cost(SERVICE, a));
+		assertThat(stats.cost(SERVICE, instance("idle"))).isZero();
+	}
+
+	@Test
+	void retainPrunesInstancesGoneFromDiscovery() {
+		record(a, 10 * MS);
+		record(b, 10 * MS);
+
+		stats.retain(SERVICE, List.of(a));
+
+		assertThat(stats.instanceKeys(SERVICE)).containsExactly("a:8080");
+		assertThat(meterRegistry.find("gateway.lb.instance.latency").tag("instance", "b:8080").gauge()).isNull();
+		assertThat(meterRegistry.find("gateway.lb.instance.latency").tag("instance", "a:8080").gauge()).isNotNull();
+	}
+
+	private void record(ServiceInstance instance, long latencyNanos) {
+		stats.start(SERVICE, instance);
+		stats.complete(SERVICE, instance, latencyNanos, PeakEwmaStats.Outcome.SUCCESS);
+	}
+
+	static ServiceInstance instance(String host) {
+		return new DefaultServiceInstance(host + "-1", "USER-SERVICE", host, 8080, false);
+	}
+}
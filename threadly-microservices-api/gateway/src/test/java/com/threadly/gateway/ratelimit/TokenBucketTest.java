@@ -0,0 +1,80 @@
+package com.threadly.gateway.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketTest {
+
+	private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+	// Burst of 3, one token every 100 ms
+	private static final RateLimit LIMIT = new RateLimit(3, 10);
+
+	@Test
+	void allowsBurstUpToCapacity() {
+		TokenBucket bucket = new TokenBucket(LIMIT, 0);
+
+		assertThat(bucket.tryAcquire(0)).isZero();
+		assertThat(bucket.tryAcquire(0)).isZero();
+		assertThat(bucket.tryAcquire(0)).isZero();
+		assertThat(bucket.tryAcquire(0)).isEqualTo(100 * MS);
+	}
+
+	@Test
+	void refillsOneTokenPerEmissionInterval() {
+		TokenBucket bucket = new TokenBucket(LIMIT, 0);
+		for (int i = 0; i < 3; i++) {
+			bucket.tryAcquire(0);
+		}
+
+		assertThat(bucket.tryAcquire(40 * MS)).isEqualTo(60 * MS);
+		assertThat(bucket.tryAcquire(100 * MS)).isZero();
+		assertThat(bucket.tryAcquire(100 * MS)).isEqualTo(100 * MS);
+	}
+
+	@Test
+	void idleTimeDoesNotAccumulateBeyondCapacity() {
+		TokenBucket bucket = new TokenBucket(LIMIT, 0);
+
+		long later = TimeUnit.SECONDS.toNanos(10);
+		assertThat(bucket.tryAcquire(later)).isZero();
+		assertThat(bucket.tryAcquire(later)).isZero();
+		assertThat(bucket.tryAcquire(later)).isZero();
+		assertThat(bucket.tryAcquire(later)).isPositive();
+	}
+
+	@Test
+	void deniedRequestsDoNotConsumeTokens() {
+		TokenBucket bucket = new TokenBucket(new RateLimit(1, 10), 0);
+		bucket.tryAcquire(0);
+
+		for (int i = 0; i < 5; i++) {
+			assertThat(bucket.tryAcquire(50 * MS)).isEqualTo(50 * MS);
+		}
+		assertThat(bucket.tryAcquire(100 * MS)).isZero();
+	}
+
+	@Test
+	void fractionalRefillRates() {
+		// One token every 2 s
+		TokenBucket bucket = new TokenBucket(new RateLimit(1, 0.5), 0);
+
+		assertThat(bucket.tryAcquire(0)).isZero();
+		assertThat(bucket.tryAcquire(MS)).isEqualTo(TimeUnit.SECONDS.toNanos(2) - MS);
+	}
+
+	@Test
+	void idleOnceFullAgainForLongEnough() {
+		TokenBucket bucket = new TokenBucket(LIMIT, 0);
+		for (int i = 0; i < 3; i++) {
+			bucket.tryAcquire(0);
+		}
+
+		// Theoretical arrival is now 300 ms
+		assertThat(bucket.isIdle(400 * MS, 500 * MS)).isFalse();
+		assertThat(bucket.isIdle(900 * MS, 500 * MS)).isTrue();
+	}
+}
@@ -0,0 +1,160 @@
+package com.threadly.gateway.resilience;
+
+import com.threadly.gateway.config.CircuitBreakerProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CircuitBreakerTest {
+
+	private static final long FAST = TimeUnit.MILLISECONDS.toNanos(5);
+	private static final long SLOW = TimeUnit.SECONDS.toNanos(3);
+
+	private final List<String> transitions = new ArrayList<>();
+	private CircuitBreakerProperties.Settings settings;
+
+	@BeforeEach
+	void setUp() {
+		settings = new CircuitBreakerProperties.Settings();
+		settings.setSlidingWindowSize(10);
+		settings.setMinimumCalls(5);
+		settings.setPermittedCallsInHalfOpen(2);
+		settings.setWaitInOpen(Duration.ofHours(1));
+	}
+
+	@Test
+	void staysClosedUntilMinimumCalls() {
+		CircuitBreaker breaker = breaker();
+
+		for (int i = 0; i < 4; i++) {
+			breaker.onResult(FAST, true);
+		}
+
+		assertThat(breaker.getState()).isEqualTo(CircuitState.CLOSED);
+		breaker.onResult(FAST, true);
+		assertThat(breaker.getState()).isEqualTo(CircuitState.OPEN);
+	}
+
+	@Test
+	void opensOnFailureRateAndRejectsWhileOpen() {
+		CircuitBreaker breaker = breaker();
+
+		breaker.onResult(FAST, false);
+		breaker.onResult(FAST, false);
+		breaker.onResult(FAST, true);
+		breaker.onResult(FAST, true);
+		breaker.onResult(FAST, true);
+
+		assertThat(breaker.getState()).isEqualTo(CircuitState.OPEN);
+		assertThat(breaker.tryAcquirePermission()).isFalse();
+		assertThat(breaker.remainingOpenNanos()).isPositive();
+		assertThat(transitions).containsExactly("CLOSED->OPEN");
+	}
+
+	@Test
+	void opensOnSlowCallRate() {
+		CircuitBreaker breaker = breaker();
+
+		for (int i = 0; i < 5; i++) {
+			breaker.onResult(SLOW, false);
+		}
+
+		assertThat(breaker.getState()).isEqualTo(CircuitState.OPEN);
+	}
+
+	@Test
+	void oldOutcomesSlideOutOfTheWindow() {
+		CircuitBreaker breaker = breaker();
+		for (int i = 0; i < 10; i++) {
+			breaker.onResult(FAST, false);
+		}
+
+		// 4 of 10 failed: under 50%
+		for (int i = 0; i < 4; i++) {
+			breaker.onResult(FAST, true);
+		}
+		assertThat(breaker.getState()).isEqualTo(CircuitState.CLOSED);
+
+		// 5 of 10
+		breaker.onResult(FAST, true);
+		assertThat(breaker.getState()).isEqualTo(CircuitState.OPEN);
+	}
+
+	@Test
+	void halfOpenProbesCloseTheCircuit() {
+		settings.setWaitInOpen(Duration.ZERO);
+		CircuitBreaker breaker = breaker();
+		trip(breaker);
+
+		assertThat(breaker.tryAcquirePermission()).isTrue();
+		assertThat(breaker.getState()).isEqualTo(CircuitState.HALF_OPEN);
+		assertThat(breaker.tryAcquirePermission()).isTrue();
+		assertThat(breaker.tryAcquirePermission()).isFalse();
+
+		breaker.onResult(FAST, false);
+		breaker.onResult(FAST, false);
+
+		assertThat(breaker.getState()).isEqualTo(CircuitState.CLOSED);
+		assertThat(transitions).containsExactly("CLOSED->OPEN", "OPEN->HALF_OPEN", "HALF_OPEN->CLOSED");
+		assertThat(breaker.tryAcquirePermission()).isTrue();
+	}
+
+	@Test
+	void failedProbesReopenTheCircuit() {
+		settings.setWaitInOpen(Duration.ZERO);
+		CircuitBreaker breaker = breaker();
+		trip(breaker);
+
+		breaker.tryAcquirePermission();
+		breaker.tryAcquirePermission();
+		breaker.onResult(FAST, true);
+		breaker.onResult(FAST, false);
+
+		assertThat(breaker.getState()).isEqualTo(CircuitState.OPEN);
+		assertThat(transitions).containsExactly("CLOSED->OPEN", "OPEN->HALF_OPEN", "HALF_OPEN->OPEN");
+	}
+
+	@Test
+	void releaseReturnsHalfOpenPermitWithoutRecording() {
+		settings.setWaitInOpen(Duration.ZERO);
+		CircuitBreaker breaker = breaker();
+		trip(breaker);
+		assertThat(breaker.tryAcquirePermission()).isTrue();
+		assertThat(breaker.tryAcquirePermission()).isTrue();
+		assertThat(breaker.tryAcquirePermission()).isFalse();
+
+		breaker.release();
+
+		assertThat(breaker.getState()).isEqualTo(CircuitState.HALF_OPEN);
+		assertThat(breaker.tryAcquirePermission()).isTrue();
+		assertThat(breaker.tryAcquirePermission()).isFalse();
+	}
+
+	@Test
+	void outcomesOfCallsAdmittedBeforeOpeningAreIgnored() {
+		CircuitBreaker breaker = breaker();
+		trip(breaker);
+
+		breaker.onResult(FAST, false);
+
+		assertThat(breaker.getState()).isEqualTo(CircuitState.OPEN);
+		assertThat(transitions).containsExactly("CLOSED->OPEN");
+	}
+
+	private CircuitBreaker breaker() {
+		return new CircuitBreaker("users", settings, (from, to) -> transitions.add(from + "->" + to));
+	}
+
+	private static void trip(CircuitBreaker breaker) {
+		for (int i = 0; i < 5; i++) {
+			breaker.onResult(FAST, true);
+		}
+		assertThat(breaker.getState()).isEqualTo(CircuitState.OPEN);
+	}
+}
@@ -0,0 +1,54 @@
+package com.threadly.gateway.security;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BloomFilterTest {
+
+	@Test
+	void containsEveryKeyPut() {
+		BloomFilter filter = BloomFilter.create(1_000, 0.01);
+		for (int i = 0; i < 1_000; i++) {
+			filter.put("token-" + i);
+		}
+
+		for (int i = 0; i < 1_000; i++) {
+			assertThat(filter.mightContain("token-" + i)).isTrue();
+		}
+	}
+
+	@Test
+	void falsePositiveRateStaysNearTarget() {
+		BloomFilter filter = BloomFilter.create(10_000, 0.01);
+		for (int i = 0; i < 10_000; i++) {
+			filter.put("token-" + i);
+		}
+
+		int falsePositives = 0;
+		for (int i = 0; i < 10_000; i++) {
+			if (filter.mightContain("other-" + i)) {
+				falsePositives++;
+			}
+		}
+		assertThat(falsePositives).isLessThan(200);
+	}
+
+	@Test
+	void sizedFromExpectedInsertionsAndRate() {
+		// -n ln(p) / ln(2)^2 = 9585.06 bits for 1000 keys at 1%
+		assertThat(BloomFilter.create(1_000, 0.01).bitCount()).isGreaterThanOrEqualTo(9_586);
+		assertThat(BloomFilter.create(0, 0.01).bitCount()).isGreaterThanOrEqualTo(Long.SIZE);
+	}
+
+	@Test
+	void copyDoesNotShareBits() {
+		BloomFilter original = BloomFilter.create(100, 0.01);
+		BloomFilter copy = original.copy();
+
+		copy.put("token-1");
+
+		assertThat(copy.mightContain("token-1")).isTrue();
+		assertThat(original.mightContain("token-1")).isFalse();
+	}
+}
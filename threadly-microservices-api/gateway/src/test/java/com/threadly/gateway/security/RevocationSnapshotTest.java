@@ -0,0 +1,131 @@
+package com.threadly.gateway.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RevocationSnapshotTest {
+
+	private static final long NOW = 1_700_000_000_000L;
+	private static final long HOUR = 3_600_000L;
+
+	@Test
+	void exactMapRulesOutFilterFalsePositives() {
+		List<RevocationEntry> entries = IntStream.range(0, 10)
+				.mapToObj(i -> token("revoked-" + i, NOW + HOUR))
+				.toList();
+		// A deliberately poor filter: capacity 20 (twice the tokens) at 50% false positives
+		RevocationSnapshot snapshot = RevocationSnapshot.build(entries, 10, 1, 0.5, NOW);
+
+		BloomFilter sameFilter = BloomFilter.create(20, 0.5);
+		entries.forEach(entry -> sameFilter.put(entry.tokenId()));
+		String falsePositive = IntStream.range(0, 1_000)
+				.mapToObj(i -> "probe-" + i)
+				.filter(sameFilter::mightContain)
+				.findFirst()
+				.orElseThrow();
+
+		assertThat(snapshot.isRevoked(falsePositive, null, NOW)).isFalse();
+		entries.forEach(entry -> assertThat(snapshot.isRevoked(entry.tokenId(), null, NOW)).isTrue());
+	}
+
+	@Test
+	void buildSkipsExpiredEntries() {
+		RevocationSnapshot snapshot = RevocationSnapshot.build(
+				List.of(token("live", NOW + HOUR), token("expired", NOW - 1), user(7L, NOW - HOUR, NOW - 1)),
+				3, 100, 0.01, NOW);
+
+		assertThat(snapshot.tokenCount()).isEqualTo(1);
+		assertThat(snapshot.userCount()).isZero();
+		assertThat(snapshot.isRevoked("expired", null, NOW)).isFalse();
+		assertThat(snapshot.cursor()).isEqualTo(3);
+	}
+
+	@Test
+	void deltaWithinCapacityIsAddedToCopy() {
+		RevocationSnapshot base = RevocationSnapshot.build(List.of(token("a", NOW + 1_000)), 1, 4, 0.01, NOW);
+
+		RevocationSnapshot next = base.with(List.of(token("b", NOW + HOUR)), 2, NOW + 10_000);
+
+		// No rebuild, so "a" is kept past its expiry until the next one
+		assertThat(next.tokenCount()).isEqualTo(2);
+		assertThat(next.isRevoked("b", null, NOW)).isTrue();
+		assertThat(next.cursor()).isEqualTo(2);
+		assertThat(base.tokenCount()).isEqualTo(1);
+		assertThat(base.isRevoked("b", null, NOW)).isFalse();
+	}
+
+	@Test
+	void deltaOverCapacityRebuildsAndDropsExpired() {
+		// Capacity is max(4, 2 * 2) = 4
+		RevocationSnapshot base = RevocationSnapshot.build(
+				List.of(token("a", NOW + 1_000), token("b", NOW + HOUR), user(7L, NOW, NOW + HOUR)),
+				3, 4, 0.01, NOW);
+		List<RevocationEntry> delta = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			delta.add(token("delta-" + i, NOW + HOUR));
+		}
+
+		RevocationSnapshot next = base.with(delta, 6, NOW + 10_000);
+
+		assertThat(next.tokenCount()).isEqualTo(4);
+		assertThat(next.isRevoked("a", null, NOW)).isFalse();
+		assertThat(next.isRevoked("b", null, NOW)).isTrue();
+		delta.forEach(entry -> assertThat(next.isRevoked(entry.tokenId(), null, NOW)).isTrue());
+		assertThat(next.userCount()).isEqualTo(1);
+		assertThat(next.cursor()).isEqualTo(6);
+	}
+
+	@Test
+	void tokenFromEarlierInTheRevokingSecondIsRevoked() {
+		// Revoked at NOW + 500 ms; user-service rounds not-before up to the next second
+		long notBefore = NOW + 1_000;
+		RevocationSnapshot snapshot = RevocationSnapshot.build(
+				List.of(user(7L, notBefore, NOW + HOUR)), 1, 100, 0.01, NOW);
+
+		// Minted at NOW + 200 ms, before the revoke: its iat is truncated to NOW
+		assertThat(snapshot.isRevoked(null, 7L, NOW)).isTrue();
+		assertThat(snapshot.isRevoked(null, 7L, NOW - 1_000)).isTrue();
+		assertThat(snapshot.isRevoked(null, 7L, NOW + 1_000)).isFalse();
+		assertThat(snapshot.isRevoked("any", 8L, NOW - 1_000)).isFalse();
+	}
+
+	@Test
+	void laterNotBeforeWins() {
+		RevocationSnapshot snapshot = RevocationSnapshot.build(
+				List.of(user(7L, NOW + 10_000, NOW + HOUR), user(7L, NOW, NOW + HOUR)), 2, 100, 0.01, NOW);
+
+		assertThat(snapshot.isRevoked(null, 7L, NOW + 5_000)).isTrue();
+	}
+
+	@Test
+	void emptyDeltaOnlyMovesCursor() {
+		RevocationSnapshot base = RevocationSnapshot.build(List.of(token("a", NOW + HOUR)), 1, 100, 0.01, NOW);
+
+		assertThat(base.with(List.of(), 1, NOW)).isSameAs(base);
+		RevocationSnapshot moved = base.with(List.of(), 5, NOW);
+		assertThat(moved.cursor()).isEqualTo(5);
+		assertThat(moved.isRevoked("a", null, NOW)).isTrue();
+	}
+
+	@Test
+	void reappliedEntriesLeaveSnapshotUnchanged() {
+		RevocationSnapshot base = RevocationSnapshot.build(
+				List.of(token("a", NOW + HOUR), user(7L, NOW, NOW + HOUR)), 2, 100, 0.01, NOW);
+
+		assertThat(base.with(List.of(token("a", NOW + HOUR), user(7L, NOW - 1_000, NOW + HOUR)), 2, NOW))
+				.isSameAs(base);
+	}
+
+	private static RevocationEntry token(String tokenId, long expiresAt) {
+		return new RevocationEntry(tokenId, 1L, null, expiresAt);
+	}
+
+	private static RevocationEntry user(Long userId, long notBefore, long expiresAt) {
+		return new RevocationEntry(null, userId, notBefore, expiresAt);
+	}
+}
@@ -0,0 +1,184 @@
+package com.threadly.gateway.security;
+
+import com.threadly.gateway.config.RevocationProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RevocationSyncTest {
+
+	private static final long EXPIRES_AT = System.currentTimeMillis() + 3_600_000L;
+
+	// Feed pages keyed by the "since" they answer; anything else gets an empty page
+	private final Map<Long, String> pages = new HashMap<>();
+	private final List<Long> requested = new ArrayList<>();
+
+	private RevocationProperties properties;
+	private RevocationRegistry registry;
+	private RevocationSync sync;
+
+	@BeforeEach
+	void setUp() {
+		properties = new RevocationProperties();
+		// Pull strictly after the cursor unless a test is about the re-read window
+		properties.setCursorOverlap(0);
+		registry = new RevocationRegistry(properties);
+		WebClient webClient = WebClient.builder()
+				.baseUrl("http://user-service")
+				.exchangeFunction(request -> {
+					String since = UriComponentsBuilder.fromUri(request.url()).build()
+							.getQueryParams().getFirst("since");
+					long sinceValue = Long.parseLong(since);
+					requested.add(sinceValue);
+					String body = pages.getOrDefault(sinceValue, page(sinceValue, false));
+					HttpStatus status = body == null ? HttpStatus.SERVICE_UNAVAILABLE : HttpStatus.OK;
+					return Mono.just(ClientResponse.create(status)
+							.header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+							.body(body == null ? "" : body)
+							.build());
+				})
+				.build();
+		sync = new RevocationSync(registry, properties, webClient);
+	}
+
+	@Test
+	void firstSyncReadsWholeFeedAcrossPages() {
+		pages.put(0L, page(1, true, "t1"));
+		pages.put(1L, page(2, false, "t2"));
+
+		sync.sync().block();
+
+		assertThat(requested).containsExactly(0L, 1L);
+		assertThat(registry.cursor()).isEqualTo(2);
+		assertThat(registry.getTokenCount()).isEqualTo(2);
+		assertThat(registry.getLastFullSyncMillis()).isPositive();
+	}
+
+	@Test
+	void laterSyncsPullFromCursor() {
+		pages.put(0L, page(2, false, "t1", "t2"));
+		sync.sync().block();
+		pages.put(2L, page(3, false, "t3"));
+
+		sync.sync().block();
+
+		assertThat(requested).containsExactly(0L, 2L);
+		assertThat(registry.cursor()).isEqualTo(3);
+		assertThat(registry.getTokenCount()).isEqualTo(3);
+	}
+
+	@Test
+	void deltaRereadsWindowBelowCursorForLateCommits() {
+		properties.setCursorOverlap(3);
+		// Row 4 was still uncommitted when row 5 was read
+		pages.put(0L, page(5, false, "t5"));
+		sync.sync().block();
+		pages.put(2L, page(5, false, "t4", "t5"));
+
+		sync.sync().block();
+
+		assertThat(requested).containsExactly(0L, 2L);
+		assertThat(registry.cursor()).isEqualTo(5);
+		assertThat(registry.getTokenCount()).isEqualTo(2);
+		assertThat(registry.isRevoked(new VerifiedToken(1L, "t4", null, 0, EXPIRES_AT))).isTrue();
+	}
+
+	@Test
+	void emptyOverlapPageNeverMovesCursorBack() {
+		properties.setCursorOverlap(3);
+		pages.put(0L, page(5, false, "t5"));
+		sync.sync().block();
+
+		// The window's entries expired upstream; the feed echoes "since" as the cursor
+		sync.sync().block();
+
+		assertThat(requested).containsExactly(0L, 2L);
+		assertThat(registry.cursor()).isEqualTo(5);
+	}
+
+	@Test
+	void notReadyUntilFirstFullSyncLoads() {
+		pages.put(0L, null);
+		assertThatThrownBy(() -> sync.sync().block()).isInstanceOf(RuntimeException.class);
+		assertThat(registry.isReady()).isFalse();
+
+		pages.put(0L, page(1, false, "t1"));
+		sync.sync().block();
+
+		assertThat(registry.isReady()).isTrue();
+	}
+
+	@Test
+	void readyAtOnceWhenSyncIsDisabled() {
+		properties.setEnabled(false);
+
+		assertThat(new RevocationRegistry(properties).isReady()).isTrue();
+	}
+
+	@Test
+	void emptyDeltaKeepsCursor() {
+		pages.put(0L, page(2, false, "t1", "t2"));
+		sync.sync().block();
+
+		sync.sync().block();
+
+		assertThat(requested).containsExactly(0L, 2L);
+		assertThat(registry.cursor()).isEqualTo(2);
+	}
+
+	@Test
+	void fullResyncRestartsFromZeroAndReplacesSnapshot() {
+		properties.setFullResyncInterval(Duration.ZERO);
+		pages.put(0L, page(2, false, "t1", "t2"));
+		sync.sync().block();
+		// t1 was purged upstream; rows 3-5 were written since
+		pages.put(0L, page(5, false, "t2", "t5"));
+
+		sync.sync().block();
+
+		assertThat(requested).containsExactly(0L, 0L);
+		assertThat(registry.cursor()).isEqualTo(5);
+		assertThat(registry.getTokenCount()).isEqualTo(2);
+		assertThat(registry.isRevoked(new VerifiedToken(1L, "t1", null, 0, EXPIRES_AT))).isFalse();
+		assertThat(registry.isRevoked(new VerifiedToken(1L, "t5", null, 0, EXPIRES_AT))).isTrue();
+	}
+
+	@Test
+	void failedPullKeepsSnapshotAndCursor() {
+		pages.put(0L, page(2, false, "t1", "t2"));
+		sync.sync().block();
+		pages.put(2L, null);
+
+		assertThatThrownBy(() -> sync.sync().block()).isInstanceOf(RuntimeException.class);
+
+		assertThat(registry.cursor()).isEqualTo(2);
+		assertThat(registry.getTokenCount()).isEqualTo(2);
+	}
+
+	private static String page(long cursor, boolean hasMore, String... tokenIds) {
+		List<String> entries = new ArrayList<>();
+		for (String tokenId : tokenIds) {
+			entries.add("""
+					{"tokenId": "%s", "userId": 1, "notBefore": null, "expiresAt": %d}"""
+					.formatted(tokenId, EXPIRES_AT));
+		}
+		return """
+				{"entries": [%s], "cursor": %d, "hasMore": %b}"""
+				.formatted(String.join(",", entries), cursor, hasMore);
+	}
+}
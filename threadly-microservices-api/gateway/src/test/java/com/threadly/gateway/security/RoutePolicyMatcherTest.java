@@ -0,0 +1,120 @@
+package com.threadly.gateway.security;
+
+import com.threadly.gateway.config.GatewaySecurityProperties;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RoutePolicyMatcherTest {
+
+	@Test
+	void exactPathBeatsPrefix() {
+		RoutePolicyMatcher matcher = matcher(
+				route(null, "/api/auth/**", RoutePolicy.OPEN, null),
+				route(null, "/api/auth/logout", RoutePolicy.AUTHENTICATED, null));
+
+		assertThat(matcher.match("POST", "/api/auth/logout").policy()).isEqualTo(RoutePolicy.AUTHENTICATED);
+		assertThat(matcher.match("POST", "/api/auth/login").policy()).isEqualTo(RoutePolicy.OPEN);
+	}
+
+	@Test
+	void longestPrefixWins() {
+		RoutePolicyMatcher matcher = matcher(
+				route(null, "/api/admin/**", RoutePolicy.ROLE_REQUIRED, "ADMIN"),
+				route(null, "/api/admin/public/**", RoutePolicy.OPEN, null));
+
+		assertThat(matcher.match("GET", "/api/admin/public/status").policy()).isEqualTo(RoutePolicy.OPEN);
+		RouteRule admin = matcher.match("GET", "/api/admin/users");
+		assertThat(admin.policy()).isEqualTo(RoutePolicy.ROLE_REQUIRED);
+		assertThat(admin.role()).isEqualTo("ADMIN");
+	}
+
+	@Test
+	void prefixMatchesItselfAndWholeSegmentsBelow() {
+		RoutePolicyMatcher matcher = matcher(route(null, "/api/auth/**", RoutePolicy.OPEN, null));
+
+		assertThat(matcher.match("GET", "/api/auth").policy()).isEqualTo(RoutePolicy.OPEN);
+		assertThat(matcher.match("GET", "/api/auth/").policy()).isEqualTo(RoutePolicy.OPEN);
+		assertThat(matcher.match("GET", "/api/auth/refresh/extra").policy()).isEqualTo(RoutePolicy.OPEN);
+		assertThat(matcher.match("GET", "/api/authx").policy()).isEqualTo(RoutePolicy.AUTHENTICATED);
+		assertThat(matcher.match("GET", "/api").policy()).isEqualTo(RoutePolicy.AUTHENTICATED);
+	}
+
+	@Test
+	void rootPrefixMatchesEverything() {
+		RoutePolicyMatcher matcher = matcher(
+				route(null, "/**", RoutePolicy.OPEN, null),
+				route(null, "/api/users/**", RoutePolicy.AUTHENTICATED, null));
+
+		assertThat(matcher.match("GET", "/anything/at/all").policy()).isEqualTo(RoutePolicy.OPEN);
+		assertThat(matcher.match("GET", "/api/users/profile").policy()).isEqualTo(RoutePolicy.AUTHENTICATED);
+	}
+
+	@Test
+	void methodSpecificRulesOnlyMatchTheirMethod() {
+		RoutePolicyMatcher matcher = matcher(
+				route("get", "/api/posts/**", RoutePolicy.OPEN, null),
+				route("*", "/api/tags/**", RoutePolicy.OPEN, null));
+
+		assertThat(matcher.match("GET", "/api/posts/1").policy()).isEqualTo(RoutePolicy.OPEN);
+		assertThat(matcher.match("POST", "/api/posts/1").policy()).isEqualTo(RoutePolicy.AUTHENTICATED);
+		assertThat(matcher.match("DELETE", "/api/tags/1").policy()).isEqualTo(RoutePolicy.OPEN);
+	}
+
+	@Test
+	void unmatchedPathsGetDefaultPolicy() {
+		GatewaySecurityProperties properties = properties(route(null, "/api/auth/**", RoutePolicy.OPEN, null));
+		properties.setDefaultPolicy(RoutePolicy.OPEN);
+		RoutePolicyMatcher matcher = new RoutePolicyMatcher(properties, new MockEnvironment());
+
+		RouteRule rule = matcher.match("GET", "/api/users/profile");
+		assertThat(rule).isNotNull();
+		assertThat(rule.policy()).isEqualTo(RoutePolicy.OPEN);
+	}
+
+	@Test
+	void roleRequiredNeedsRole() {
+		assertThatThrownBy(() -> matcher(route(null, "/api/admin/**", RoutePolicy.ROLE_REQUIRED, null)))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void recompilesOnSecurityPropertyChange() {
+		MockEnvironment environment = new MockEnvironment()
+				.withProperty("gateway.security.routes[0].path", "/api/open/**")
+				.withProperty("gateway.security.routes[0].policy", "OPEN");
+		RoutePolicyMatcher matcher = new RoutePolicyMatcher(new GatewaySecurityProperties(), environment);
+		assertThat(matcher.match("GET", "/api/open/x").policy()).isEqualTo(RoutePolicy.AUTHENTICATED);
+
+		matcher.onEnvironmentChange(new EnvironmentChangeEvent(Set.of("server.port")));
+		assertThat(matcher.match("GET", "/api/open/x").policy()).isEqualTo(RoutePolicy.AUTHENTICATED);
+
+		matcher.onEnvironmentChange(new EnvironmentChangeEvent(Set.of("gateway.security.routes[0].path")));
+		assertThat(matcher.match("GET", "/api/open/x").policy()).isEqualTo(RoutePolicy.OPEN);
+	}
+
+	private static RoutePolicyMatcher matcher(GatewaySecurityProperties.Route... routes) {
+		return new RoutePolicyMatcher(properties(routes), new MockEnvironment());
+	}
+
+	private static GatewaySecurityProperties properties(GatewaySecurityProperties.Route... routes) {
+		GatewaySecurityProperties properties = new GatewaySecurityProperties();
+		properties.setRoutes(List.of(routes));
+		return properties;
+	}
+
+	private static GatewaySecurityProperties.Route route(String method, String path, RoutePolicy policy, String role) {
+		GatewaySecurityProperties.Route route = new GatewaySecurityProperties.Route();
+		route.setMethod(method);
+		route.setPath(path);
+		route.setPolicy(policy);
+		route.setRole(role);
+		return route;
+	}
+}
@@ -0,0 +1,40 @@
+package com.threadly.user.config;
+
+import com.threadly.user.metrics.SqlAccountingListener;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps the DataSource in a datasource-proxy that reports every statement and result-set
+ * row to {@link SqlAccountingListener}. Replaces {@code show-sql} for seeing what a request runs.
+ */
+@Configuration
+@EnableConfigurationProperties(SqlAccountingProperties.class)
+@ConditionalOnProperty(name = "sql-accounting.enabled", havingValue = "true", matchIfMissing = true)
+public class DataSourceProxyConfig {
+
+    @Bean
+    public static BeanPostProcessor sqlAccountingDataSourcePostProcessor() {
+        SqlAccountingListener listener = new SqlAccountingListener();
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && "dataSource".equals(beanName)) {
+                    return ProxyDataSourceBuilder.create(dataSource)
+                            .name(beanName)
+                            .listener(listener)
+                            .methodListener(listener)
+                            .proxyResultSet()
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,75 @@
+package com.threadly.user.config;
+
+import com.threadly.user.datasource.ReadWriteRoutingDataSource;
+import com.threadly.user.datasource.ReplicaDataSource;
+import com.threadly.user.datasource.ReplicaSet;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replaces the auto-configured DataSource with a read/write router when
+ * {@code datasource-routing.enabled} is set: writes and read-write transactions use the
+ * primary ({@code spring.datasource.*}), read-only transactions use the replicas.
+ */
+@Configuration
+@EnableConfigurationProperties({DataSourceProperties.class, DataSourceRoutingProperties.class})
+@ConditionalOnProperty(name = "datasource-routing.enabled", havingValue = "true")
+public class DataSourceRoutingConfig {
+
+    private static final String HIKARI_PREFIX = "spring.datasource.hikari";
+
+    @Bean(destroyMethod = "close")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties, Environment environment) {
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        Binder.get(environment).bind(HIKARI_PREFIX, Bindable.ofInstance(primary));
+        primary.setPoolName("primary");
+        return primary;
+    }
+
+    @Bean(destroyMethod = "close")
+    public ReplicaSet replicaSet(DataSourceProperties primaryProperties, DataSourceRoutingProperties routingProperties,
+                                 Environment environment, MeterRegistry meterRegistry) {
+        List<ReplicaDataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < routingProperties.getReplicas().size(); i++) {
+            DataSourceRoutingProperties.Replica settings = routingProperties.getReplicas().get(i);
+            String name = "replica-" + i;
+
+            HikariDataSource pool = new HikariDataSource();
+            Binder.get(environment).bind(HIKARI_PREFIX, Bindable.ofInstance(pool));
+            pool.setDriverClassName(primaryProperties.determineDriverClassName());
+            pool.setJdbcUrl(settings.getUrl());
+            pool.setUsername(settings.getUsername());
+            pool.setPassword(settings.getPassword());
+            pool.setPoolName(name);
+            pool.setReadOnly(true);
+            // Not beans, so Boot does not bind their pool metrics
+            pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+
+            replicas.add(new ReplicaDataSource(name, pool));
+        }
+        return new ReplicaSet(replicas, routingProperties.getHealthCheckInterval(),
+                routingProperties.getHealthCheckTimeout(), meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaSet replicaSet, MeterRegistry meterRegistry) {
+        return new LazyConnectionDataSourceProxy(
+                new ReadWriteRoutingDataSource(primaryDataSource, replicaSet, meterRegistry));
+    }
+}
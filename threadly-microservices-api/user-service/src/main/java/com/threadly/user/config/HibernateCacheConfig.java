@@ -0,0 +1,52 @@
+package com.threadly.user.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.util.OptionalLong;
+
+/**
+ * Local Caffeine (JCache) regions backing Hibernate's second-level and query cache.
+ * Regions are created here from application.yml rather than from a separate Caffeine config file.
+ */
+@Configuration
+@EnableConfigurationProperties(HibernateCacheProperties.class)
+@Slf4j
+public class HibernateCacheConfig {
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(HibernateCacheProperties properties) {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager();
+
+        properties.getRegions().forEach((region, settings) -> {
+            if (cacheManager.getCache(region) != null) {
+                return;
+            }
+            CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+            configuration.setMaximumSize(OptionalLong.of(settings.getMaxEntries()));
+            if (settings.getTtl() != null) {
+                configuration.setExpireAfterWrite(OptionalLong.of(settings.getTtl().toNanos()));
+            }
+            configuration.setStatisticsEnabled(true);
+            cacheManager.createCache(region, configuration);
+
+            log.info("Second-level cache region '{}': max {} entries, ttl {}",
+                    region, settings.getMaxEntries(), settings.getTtl() != null ? settings.getTtl() : "none");
+        });
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheManagerCustomizer(CacheManager hibernateCacheManager) {
+        return hibernateProperties -> hibernateProperties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+}
@@ -0,0 +1,28 @@
+package com.threadly.user.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Second-level cache regions, bound from {@code cache.regions.*} and keyed by region name
+ * (see {@link com.threadly.user.constant.CacheRegions}).
+ */
+@Data
+@ConfigurationProperties(prefix = "cache")
+public class HibernateCacheProperties {
+
+    private Map<String, Region> regions = new HashMap<>();
+
+    @Data
+    public static class Region {
+
+        private long maxEntries = 10_000;
+
+        /** Expire entries this long after they are written. Unset means no expiry. */
+        private Duration ttl;
+    }
+}
@@ -0,0 +1,62 @@
+package com.threadly.user.config;
+
+import com.threadly.user.constant.IdGenerators;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Seeds the id generator table from the ids already in use.
+ * User and Role used to be IDENTITY columns; their generator rows have to start above the
+ * current max id. Runs after Hibernate has updated the schema and before the web server
+ * takes traffic. Safe to run on every start and on several instances at once: if another
+ * instance inserts the row first, the insert here fails on the sequence_name key and the
+ * update below raises next_val if needed.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+@Slf4j
+public class IdGeneratorInitializer {
+
+    private static final String TABLE = IdGenerators.TABLE;
+
+    /** Generator row name (pkColumnValue) to the table whose ids it hands out. */
+    private static final Map<String, String> GENERATED_TABLES = Map.of(
+            IdGenerators.USERS, "users",
+            IdGenerators.ROLES, "roles"
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    void seed() {
+        GENERATED_TABLES.forEach((sequenceName, table) -> {
+            // pooled-lo: next_val is the first id of the next block, so max(id) + 1 is exact
+            try {
+                jdbcTemplate.update(
+                        "INSERT INTO " + TABLE + " (sequence_name, next_val) "
+                                + "SELECT ?, COALESCE(MAX(id), 0) + 1 FROM " + table + " "
+                                + "WHERE NOT EXISTS (SELECT 1 FROM " + TABLE + " WHERE sequence_name = ?)",
+                        sequenceName, sequenceName);
+            } catch (DuplicateKeyException e) {
+                log.debug("Id generator '{}' was created by another instance", sequenceName);
+            }
+            jdbcTemplate.update(
+                    "UPDATE " + TABLE + " g "
+                            + "SET g.next_val = GREATEST(g.next_val, (SELECT COALESCE(MAX(id), 0) + 1 FROM " + table + ")) "
+                            + "WHERE g.sequence_name = ?",
+                    sequenceName);
+
+            Long nextVal = jdbcTemplate.queryForObject(
+                    "SELECT next_val FROM " + TABLE + " WHERE sequence_name = ?", Long.class, sequenceName);
+            log.info("Id generator '{}' starts at {}", sequenceName, nextVal);
+        });
+    }
+}
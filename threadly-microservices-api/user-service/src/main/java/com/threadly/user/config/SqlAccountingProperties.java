@@ -0,0 +1,33 @@
+package com.threadly.user.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Per-request SQL accounting, bound from {@code sql-accounting.*}.
+ */
+@Data
+@ConfigurationProperties(prefix = "sql-accounting")
+public class SqlAccountingProperties {
+
+    private boolean enabled = true;
+
+    /** Statements a request may run before it is reported; a negative budget disables the check. */
+    private int statementBudget = 10;
+
+    /** Per-endpoint budgets keyed by URI pattern (e.g. {@code /api/admin/users/import}), overriding the default. */
+    private Map<String, Integer> endpointBudgets = new HashMap<>();
+
+    /** An identical statement run this many times in one request is reported as a likely N+1. */
+    private int repeatedStatementThreshold = 5;
+
+    /** Throw instead of logging when the budget is exceeded; meant for tests. */
+    private boolean failOnBudgetExceeded = false;
+
+    public int budgetFor(String uriPattern) {
+        return endpointBudgets.getOrDefault(uriPattern, statementBudget);
+    }
+}
@@ -0,0 +1,19 @@
+package com.threadly.user.constant;
+
+/**
+ * Hibernate second-level cache region names.
+ * Each region is sized and expired from {@code cache.regions.*} in application.yml.
+ */
+public final class CacheRegions {
+
+    private CacheRegions() {
+    }
+
+    public static final String ROLES = "roles";
+    public static final String ROLES_BY_NAME = "roles-by-name";
+    public static final String USERS = "users";
+    public static final String USER_ROLES = "user-roles";
+
+    public static final String QUERY_RESULTS = "default-query-results-region";
+    public static final String UPDATE_TIMESTAMPS = "default-update-timestamps-region";
+}
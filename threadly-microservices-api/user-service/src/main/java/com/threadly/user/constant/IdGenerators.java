@@ -0,0 +1,16 @@
+package com.threadly.user.constant;
+
+/**
+ * Table-backed id generators. One row per generator in {@link #TABLE}, keyed by the
+ * generator name, holding the first id of the next block handed out.
+ */
+public final class IdGenerators {
+
+    private IdGenerators() {
+    }
+
+    public static final String TABLE = "id_generators";
+
+    public static final String USERS = "users";
+    public static final String ROLES = "roles";
+}
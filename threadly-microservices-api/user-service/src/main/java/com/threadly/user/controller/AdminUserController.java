@@ -0,0 +1,106 @@
+package com.threadly.user.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.threadly.common.dto.ApiResponseDTO;
+import com.threadly.user.dto.response.ImportRowResult;
+import com.threadly.user.exception.ForbiddenException;
+import com.threadly.user.service.RevocationService;
+import com.threadly.user.service.UserImportService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+@RestController
+@RequestMapping("/api/admin/users")
+@RequiredArgsConstructor
+@Slf4j
+public class AdminUserController {
+
+    private static final String TEXT_CSV = "text/csv";
+
+    private final UserImportService userImportService;
+    private final RevocationService revocationService;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Bulk import from an NDJSON or CSV body. One NDJSON result line per input row is
+     * streamed back, flushed after every chunk, so neither side holds the whole file.
+     */
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_NDJSON_VALUE, TEXT_CSV})
+    public void importUsers(
+            @RequestHeader("X-User-ID") Long userId,
+            @RequestHeader("X-Gateway-Validated") String validated,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+
+        if (!"true".equals(validated) || userId == null) {
+            throw new ForbiddenException("Invalid request - missing Gateway validation", "FORBIDDEN");
+        }
+        userImportService.requireAdmin(userId);
+
+        boolean csv = MediaType.parseMediaType(request.getContentType()).isCompatibleWith(MediaType.parseMediaType(TEXT_CSV));
+        log.info("User import ({}) started by admin ID: {}", csv ? "csv" : "ndjson", userId);
+
+        BufferedReader input = new BufferedReader(new InputStreamReader(request.getInputStream(), StandardCharsets.UTF_8));
+        ObjectWriter writer = objectMapper.writerFor(ImportRowResult.class);
+
+        // Content type is set on the first chunk so a bad header can still be answered as a JSON error
+        response.setStatus(HttpServletResponse.SC_OK);
+        userImportService.importUsers(input, csv, results -> {
+            if (!response.isCommitted()) {
+                response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+            }
+            OutputStream out = response.getOutputStream();
+            for (ImportRowResult result : results) {
+                out.write(writer.writeValueAsBytes(result));
+                out.write('\n');
+            }
+            out.flush();
+        });
+        if (!response.isCommitted()) {
+            response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        }
+    }
+
+    /**
+     * Revokes every token issued to the user so far; they must log in again.
+     */
+    @PostMapping("/{id}/revoke-tokens")
+    public ResponseEntity<ApiResponseDTO<Void>> revokeTokens(
+            @PathVariable Long id,
+            @RequestHeader("X-User-ID") Long userId,
+            @RequestHeader("X-Gateway-Validated") String validated,
+            HttpServletRequest request) {
+
+        if (!"true".equals(validated) || userId == null) {
+            throw new ForbiddenException("Invalid request - missing Gateway validation", "FORBIDDEN");
+        }
+        userImportService.requireAdmin(userId);
+
+        revocationService.revokeUser(id);
+        log.info("Tokens of user ID: {} revoked by admin ID: {}", id, userId);
+
+        return ResponseEntity.ok(
+                ApiResponseDTO.ok(
+                        null,
+                        request.getRequestURI(),
+                        "User tokens revoked",
+                        200
+                ));
+    }
+}
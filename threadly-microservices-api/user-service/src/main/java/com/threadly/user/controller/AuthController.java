@@ -2,6 +2,7 @@ package com.threadly.user.controller;
 
 import com.threadly.common.dto.ApiResponseDTO;
 import com.threadly.user.dto.request.LoginRequest;
+import com.threadly.user.dto.request.LogoutRequest;
 import com.threadly.user.dto.request.RegisterRequest;
 import com.threadly.user.dto.response.AuthResponse;
 import com.threadly.user.service.AuthService;
@@ -72,5 +73,26 @@ public class AuthController {
                 ));
     }
 
+    /**
+     * Revokes the access token in the Authorization header, and the refresh token in the
+     * body when one is sent; clients should send it, or it stays usable until it expires.
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<ApiResponseDTO<Void>> logout(
+            @RequestHeader("Authorization") String authHeader,
+            @Valid @RequestBody(required = false) LogoutRequest request,
+            HttpServletRequest servletRequest) {
+
+        authService.logout(authHeader.substring(7), request == null ? null : request.getRefreshToken());
+
+        return ResponseEntity.ok(
+                ApiResponseDTO.ok(
+                        null,
+                        servletRequest.getRequestURI(),
+                        "Logged out successfully",
+                        200
+                ));
+    }
+
 
 }
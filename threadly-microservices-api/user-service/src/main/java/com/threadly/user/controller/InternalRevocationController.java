@@ -0,0 +1,45 @@
+package com.threadly.user.controller;
+
+import com.threadly.user.dto.response.RevocationFeedResponse;
+import com.threadly.user.exception.ForbiddenException;
+import com.threadly.user.service.RevocationService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * Revocation feed pulled by the gateway. The gateway's discovery locator would expose it as
+ * {@code /user-service/internal/revocations}; a DENIED route policy answers that with 404.
+ * Callers present the shared internal secret, {@code INTERNAL_SECRET}.
+ */
+@RestController
+@RequestMapping("/internal/revocations")
+@RequiredArgsConstructor
+public class InternalRevocationController {
+
+    private final RevocationService revocationService;
+
+    @Value("${internal.secret}")
+    private String internalSecret;
+
+    @GetMapping
+    public ResponseEntity<RevocationFeedResponse> feed(
+            @RequestHeader(value = "X-Internal-Secret", required = false) String secret,
+            @RequestParam(defaultValue = "0") long since,
+            @RequestParam(defaultValue = "1000") int limit) {
+
+        if (secret == null || !MessageDigest.isEqual(
+                secret.getBytes(StandardCharsets.UTF_8), internalSecret.getBytes(StandardCharsets.UTF_8))) {
+            throw new ForbiddenException("Invalid internal secret", "FORBIDDEN");
+        }
+        return ResponseEntity.ok(revocationService.feed(since, limit));
+    }
+}
@@ -1,13 +1,18 @@
 package com.threadly.user.controller;
 
 import com.threadly.common.dto.ApiResponseDTO;
+import com.threadly.user.dto.request.BatchProfileRequest;
+import com.threadly.user.dto.response.BatchProfileResponse;
 import com.threadly.user.dto.response.UserProfileResponse;
 import com.threadly.user.service.UserService;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
@@ -24,6 +29,7 @@ public class UserController {
     public ResponseEntity<ApiResponseDTO<UserProfileResponse>> getProfile(
             @RequestHeader("X-User-ID") Long userId, // ← Receive User ID
             @RequestHeader("X-Gateway-Validated") String validated,
+            @RequestHeader(value = "X-Token-Issued-At", required = false) Long tokenIssuedAt,
             HttpServletRequest request) {
 
         log.info("Get profile request from Gateway for user ID: {}", userId);
@@ -34,10 +40,31 @@ public class UserController {
         }
 
         // Use User ID for lookup
-        UserProfileResponse profile = userService.getCurrentUserProfileById(userId);
+        UserProfileResponse profile = userService.getCurrentUserProfileById(userId, tokenIssuedAt);
 
         return ResponseEntity.ok(
                 ApiResponseDTO.ok(profile, request.getRequestURI(),
                         "Profile retrieved successfully", 200));
     }
+
+    @PostMapping("/batch")
+    public ResponseEntity<ApiResponseDTO<BatchProfileResponse>> getProfiles(
+            @RequestHeader("X-User-ID") Long userId,
+            @RequestHeader("X-Gateway-Validated") String validated,
+            @Valid @RequestBody BatchProfileRequest batchRequest,
+            HttpServletRequest request) {
+
+        log.info("Batch profile request from Gateway for user ID: {}", userId);
+
+        // Validation
+        if (!"true".equals(validated) || userId == null) {
+            throw new RuntimeException("Invalid request - missing Gateway validation");
+        }
+
+        BatchProfileResponse profiles = userService.getProfilesByIds(batchRequest.getIds());
+
+        return ResponseEntity.ok(
+                ApiResponseDTO.ok(profiles, request.getRequestURI(),
+                        "Profiles retrieved successfully", 200));
+    }
 }
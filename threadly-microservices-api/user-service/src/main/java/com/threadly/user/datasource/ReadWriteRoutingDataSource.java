@@ -0,0 +1,96 @@
+package com.threadly.user.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientConnectionException;
+
+/**
+ * Sends connections for read-only transactions to a healthy replica (round robin) and
+ * everything else to the primary. Falls back to the primary when no replica is healthy,
+ * when a replica refuses a connection, or when {@link RoutingContext} forces it. Only a
+ * connection-level failure takes the replica out of rotation; a replica pool that is merely
+ * exhausted stays in.
+ * Must sit behind a {@code LazyConnectionDataSourceProxy}, so the connection is taken
+ * only once the transaction's read-only flag is set.
+ */
+@Slf4j
+public class ReadWriteRoutingDataSource extends AbstractDataSource {
+
+    private final DataSource primary;
+    private final ReplicaSet replicas;
+
+    private final Counter primaryCounter;
+    private final Counter replicaCounter;
+    private final Counter fallbackCounter;
+
+    public ReadWriteRoutingDataSource(DataSource primary, ReplicaSet replicas, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replicas = replicas;
+        this.primaryCounter = routeCounter(meterRegistry, "primary");
+        this.replicaCounter = routeCounter(meterRegistry, "replica");
+        this.fallbackCounter = routeCounter(meterRegistry, "fallback");
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || RoutingContext.isPrimaryForced()) {
+            primaryCounter.increment();
+            return primary.getConnection();
+        }
+
+        ReplicaDataSource replica = replicas.nextHealthy();
+        if (replica != null) {
+            try {
+                Connection connection = replica.getDataSource().getConnection();
+                replicaCounter.increment();
+                return connection;
+            } catch (SQLException e) {
+                log.warn("Replica {} refused a connection, using primary: {}", replica.getName(), e.getMessage());
+                if (isConnectionFailure(e)) {
+                    replica.markHealthy(false);
+                }
+            }
+        }
+        fallbackCounter.increment();
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Credentials are configured per pool");
+    }
+
+    /**
+     * Whether the replica itself could not be reached (SQLState class 08, or the JDBC
+     * connection exception types), as opposed to a full pool or a statement-level error.
+     */
+    static boolean isConnectionFailure(SQLException e) {
+        String state = e.getSQLState();
+        if (state != null && state.startsWith("08")) {
+            return true;
+        }
+        if (e instanceof SQLTransientConnectionException) {
+            // Hikari's "connection is not available" after connection-timeout: an exhausted pool
+            // has no cause, an unreachable database carries the driver's failure as the cause
+            return e.getCause() instanceof SQLException cause && isConnectionFailure(cause);
+        }
+        return e instanceof SQLNonTransientConnectionException || e instanceof SQLRecoverableException;
+    }
+
+    private static Counter routeCounter(MeterRegistry meterRegistry, String target) {
+        return Counter.builder("datasource.routing")
+                .description("Connections handed out by the read/write router")
+                .tag("target", target)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,84 @@
+package com.threadly.user.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.function.Supplier;
+
+/**
+ * Remembers recently written users for a short window, and sends reads about them to the
+ * primary until replicas have caught up. Callers record the write (register, import) and
+ * wrap the later read in {@link #readForUser} or {@link #readForEmail}.
+ * The record is local to this instance: a read that lands on another instance within the
+ * window can still hit a lagging replica. Reads made on behalf of a token should use
+ * {@link #readForToken}, which also derives the window from the token's issue time and so
+ * holds on every instance. Emails are compared case-insensitively, as MySQL does.
+ */
+@Component
+public class ReadYourWrites {
+
+    private final Cache<String, Boolean> recentWrites;
+    private final long windowMillis;
+
+    public ReadYourWrites(
+            @Value("${datasource-routing.read-your-writes.window:5s}") Duration window,
+            @Value("${datasource-routing.read-your-writes.max-entries:100000}") long maxEntries) {
+        this.windowMillis = window.toMillis();
+        this.recentWrites = Caffeine.newBuilder()
+                .expireAfterWrite(window)
+                .maximumSize(maxEntries)
+                .build();
+    }
+
+    public void recordWrite(Long userId, String email) {
+        recentWrites.put(userKey(userId), Boolean.TRUE);
+        recentWrites.put(emailKey(email), Boolean.TRUE);
+    }
+
+    public <T> T readForUser(Long userId, Supplier<T> read) {
+        return isRecent(userKey(userId)) ? RoutingContext.onPrimary(read) : read.get();
+    }
+
+    /**
+     * Read on behalf of the bearer of a token issued at {@code issuedAtMillis}. A token that
+     * young was most likely minted right after the write it follows (register, login after an
+     * import), possibly on another instance, so the read goes to the primary.
+     */
+    public <T> T readForToken(Long userId, Long issuedAtMillis, Supplier<T> read) {
+        boolean fresh = issuedAtMillis != null && System.currentTimeMillis() - issuedAtMillis < windowMillis;
+        return fresh || isRecent(userKey(userId)) ? RoutingContext.onPrimary(read) : read.get();
+    }
+
+    /**
+     * Read about several users, on the primary if any of them was written recently on this
+     * instance. There is no token to carry a timestamp, so a batch read that follows a write
+     * made on another instance can still see a lagging replica; callers that need their own
+     * writes back must be routed to the same instance (sticky routing) or use
+     * {@link #readForToken} for the user they wrote.
+     */
+    public <T> T readForUsers(Collection<Long> userIds, Supplier<T> read) {
+        boolean recent = userIds.stream().anyMatch(userId -> isRecent(userKey(userId)));
+        return recent ? RoutingContext.onPrimary(read) : read.get();
+    }
+
+    public <T> T readForEmail(String email, Supplier<T> read) {
+        return isRecent(emailKey(email)) ? RoutingContext.onPrimary(read) : read.get();
+    }
+
+    private boolean isRecent(String key) {
+        return recentWrites.getIfPresent(key) != null;
+    }
+
+    private static String userKey(Long userId) {
+        return "id:" + userId;
+    }
+
+    private static String emailKey(String email) {
+        return "email:" + email.toLowerCase(Locale.ROOT);
+    }
+}
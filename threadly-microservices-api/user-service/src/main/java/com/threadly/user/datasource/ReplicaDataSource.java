@@ -0,0 +1,22 @@
+package com.threadly.user.datasource;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import javax.sql.DataSource;
+
+/**
+ * One read replica and whether the last health check (or connection attempt) succeeded.
+ */
+@Getter
+@RequiredArgsConstructor
+public class ReplicaDataSource {
+
+    private final String name;
+    private final DataSource dataSource;
+    private volatile boolean healthy = true;
+
+    void markHealthy(boolean healthy) {
+        this.healthy = healthy;
+    }
+}
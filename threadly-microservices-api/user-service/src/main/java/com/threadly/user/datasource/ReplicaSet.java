@@ -0,0 +1,104 @@
+package com.threadly.user.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The read replica pools. Each one is checked with {@code Connection.isValid} on a fixed
+ * interval and is taken out of rotation while it fails.
+ */
+@Slf4j
+public class ReplicaSet implements AutoCloseable {
+
+    private final List<ReplicaDataSource> replicas;
+    private final int timeoutSeconds;
+    private final ScheduledExecutorService scheduler;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaSet(List<ReplicaDataSource> replicas, Duration interval, Duration timeout,
+                      MeterRegistry meterRegistry) {
+        this(replicas, timeout, meterRegistry);
+        scheduler.scheduleWithFixedDelay(this::checkAll, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Without scheduled health checks; tests run {@link #checkAll} themselves.
+     */
+    ReplicaSet(List<ReplicaDataSource> replicas, Duration timeout, MeterRegistry meterRegistry) {
+        this.replicas = List.copyOf(replicas);
+        this.timeoutSeconds = (int) Math.max(1, timeout.toSeconds());
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "replica-health");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        for (ReplicaDataSource replica : this.replicas) {
+            Gauge.builder("datasource.replica.healthy", replica, r -> r.isHealthy() ? 1 : 0)
+                    .description("1 while the replica is in rotation")
+                    .tag("replica", replica.getName())
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Next healthy replica in round-robin order, or {@code null} if none is healthy.
+     */
+    public ReplicaDataSource nextHealthy() {
+        int size = replicas.size();
+        if (size == 0) {
+            return null;
+        }
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            ReplicaDataSource replica = replicas.get((start + i) % size);
+            if (replica.isHealthy()) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    void checkAll() {
+        for (ReplicaDataSource replica : replicas) {
+            boolean healthy = check(replica);
+            if (healthy != replica.isHealthy()) {
+                if (healthy) {
+                    log.info("Replica {} is healthy again", replica.getName());
+                } else {
+                    log.warn("Replica {} failed its health check, reads go elsewhere", replica.getName());
+                }
+            }
+            replica.markHealthy(healthy);
+        }
+    }
+
+    private boolean check(ReplicaDataSource replica) {
+        try (Connection connection = replica.getDataSource().getConnection()) {
+            return connection.isValid(timeoutSeconds);
+        } catch (Exception e) {
+            log.debug("Health check of replica {} failed: {}", replica.getName(), e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        for (ReplicaDataSource replica : replicas) {
+            if (replica.getDataSource() instanceof HikariDataSource pool) {
+                pool.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.threadly.user.datasource;
+
+import java.util.function.Supplier;
+
+/**
+ * Lets a caller pin the reads it makes on this thread to the primary, even inside
+ * read-only transactions.
+ */
+public final class RoutingContext {
+
+    private static final ThreadLocal<Boolean> PRIMARY_FORCED = new ThreadLocal<>();
+
+    private RoutingContext() {
+    }
+
+    public static <T> T onPrimary(Supplier<T> work) {
+        Boolean previous = PRIMARY_FORCED.get();
+        PRIMARY_FORCED.set(Boolean.TRUE);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                PRIMARY_FORCED.remove();
+            } else {
+                PRIMARY_FORCED.set(previous);
+            }
+        }
+    }
+
+    public static boolean isPrimaryForced() {
+        return Boolean.TRUE.equals(PRIMARY_FORCED.get());
+    }
+}
@@ -0,0 +1,13 @@
+package com.threadly.user.dto.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BatchProfileRequest {
+
+    @NotEmpty(message = "At least one user ID is required")
+    private List<Long> ids;
+}
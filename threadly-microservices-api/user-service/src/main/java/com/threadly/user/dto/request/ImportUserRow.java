@@ -0,0 +1,28 @@
+package com.threadly.user.dto.request;
+
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One account in a bulk import: a line of NDJSON or a CSV record.
+ * Same rules as {@link RegisterRequest}, plus an optional full name.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ImportUserRow {
+
+    @NotBlank(message = "Email is required")
+    @Email(message = "Invalid email format")
+    private String email;
+
+    @NotBlank(message = "Password is required")
+    @Size(min = 6, max = 50, message = "Password must be between 6 and 50 characters")
+    private String password;
+
+    private String fullName;
+}
@@ -0,0 +1,11 @@
+package com.threadly.user.dto.request;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.Data;
+
+@Data
+public class LogoutRequest {
+
+    @NotBlank(message = "Refresh token is required")
+    private String refreshToken;
+}
@@ -0,0 +1,20 @@
+package com.threadly.user.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Public profiles in the order their IDs were requested (repeats dropped), plus the IDs that matched no user.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BatchProfileResponse {
+    private List<PublicProfileResponse> profiles;
+    private List<Long> missingIds;
+}
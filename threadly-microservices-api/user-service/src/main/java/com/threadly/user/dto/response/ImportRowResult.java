@@ -0,0 +1,26 @@
+package com.threadly.user.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one imported row, streamed back as one NDJSON line.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ImportRowResult {
+
+    public enum Status { CREATED, DUPLICATE, INVALID, FAILED }
+
+    private long line;
+    private String email;
+    private Status status;
+    private Long userId;
+    private String error;
+}
@@ -0,0 +1,20 @@
+package com.threadly.user.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Another user's profile as seen by any authenticated caller. Email and roles are left out:
+ * user IDs are sequential, so anything here can be listed for the whole user table.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class PublicProfileResponse {
+    private Long userId;
+    private String fullName;
+    private String avatarUrl;
+}
@@ -0,0 +1,35 @@
+package com.threadly.user.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of the revocation feed: entries after the requested cursor, the cursor to ask
+ * from next, and whether more entries are waiting.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class RevocationFeedResponse {
+
+    private List<Entry> entries;
+    private long cursor;
+    private boolean hasMore;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class Entry {
+        private String tokenId;
+        private Long userId;
+        private Long notBefore;
+        private long expiresAt;
+    }
+}
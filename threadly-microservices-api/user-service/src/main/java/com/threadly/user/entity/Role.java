@@ -1,20 +1,37 @@
 package com.threadly.user.entity;
 
+import com.threadly.user.constant.CacheRegions;
+import com.threadly.user.constant.IdGenerators;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.HashSet;
 import java.util.Set;
 
+/**
+ * Roles are seeded by DataInitializer and never updated, so they are cached read-only.
+ */
 @Entity
 @Table(name = "roles")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY, region = CacheRegions.ROLES)
 @Getter
 @Setter
 @AllArgsConstructor
 @NoArgsConstructor
 public class Role {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "role_id")
+    @TableGenerator(
+            name = "role_id",
+            table = IdGenerators.TABLE,
+            pkColumnName = "sequence_name",
+            valueColumnName = "next_val",
+            pkColumnValue = IdGenerators.ROLES,
+            allocationSize = 10
+    )
     private Long id;
 
     @Column(name = "name", nullable = false, unique = true)
@@ -0,0 +1,44 @@
+package com.threadly.user.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * A revoked token (token ID set) or a user-wide revocation (not-before set).
+ * The ID is the cursor of the delta feed the gateway pulls; rows past their expiry are purged.
+ */
+@Entity
+@Table(name = "token_revocations", indexes = {
+        @Index(name = "idx_token_revocations_user", columnList = "user_id"),
+        @Index(name = "idx_token_revocations_token", columnList = "token_id")
+})
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class TokenRevocation {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "token_id", length = 64)
+    private String tokenId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    // Epoch millis; tokens of this user issued before it are revoked
+    @Column(name = "not_before")
+    private Long notBefore;
+
+    // Epoch millis after which no token this entry covers can still be valid
+    @Column(name = "expires_at", nullable = false)
+    private long expiresAt;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+}
@@ -1,7 +1,12 @@
 package com.threadly.user.entity;
 
+import com.threadly.user.constant.CacheRegions;
+import com.threadly.user.constant.IdGenerators;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 import org.springframework.security.core.GrantedAuthority;
@@ -17,13 +22,24 @@ import java.util.stream.Collectors;
 
 @Entity
 @Table(name = "users")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.USERS)
 @Getter
 @Setter
 @AllArgsConstructor
 @NoArgsConstructor
 public class User implements UserDetails {
+    // Pooled ids from a table instead of IDENTITY, so Hibernate can batch inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "user_id")
+    @TableGenerator(
+            name = "user_id",
+            table = IdGenerators.TABLE,
+            pkColumnName = "sequence_name",
+            valueColumnName = "next_val",
+            pkColumnValue = IdGenerators.USERS,
+            allocationSize = 50
+    )
     private Long id;
 
     @Column(name = "email", nullable = false, unique = true)
@@ -47,7 +63,13 @@ public class User implements UserDetails {
     @Column(name = "password")
     private String password;
 
+    // Stamped into refresh tokens; bump it whenever roles or credentials change
+    @Column(name = "token_version", nullable = false)
+    @ColumnDefault("0")
+    private long tokenVersion;
+
     @ManyToMany(fetch = FetchType.EAGER, cascade = CascadeType.PERSIST)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.USER_ROLES)
     @JoinTable(
             name = "user_roles",
             joinColumns = @JoinColumn(name = "user_id"),
@@ -58,11 +80,20 @@ public class User implements UserDetails {
     public void addRole(Role role) {
         this.roles.add(role);
         role.getUsers().add(this);
+        bumpTokenVersion();
     }
 
     public void removeRole(Role role) {
         this.roles.remove(role);
         role.getUsers().remove(this);
+        bumpTokenVersion();
+    }
+
+    /**
+     * Makes refresh tokens issued so far re-read the user on their next refresh.
+     */
+    public void bumpTokenVersion() {
+        this.tokenVersion++;
     }
 
     @Override
@@ -0,0 +1,7 @@
+package com.threadly.user.exception;
+
+public class BatchSizeExceededException extends BaseException {
+    public BatchSizeExceededException(String message, String error) {
+        super(message, 400, error);
+    }
+}
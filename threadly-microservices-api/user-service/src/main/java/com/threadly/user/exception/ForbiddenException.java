@@ -0,0 +1,7 @@
+package com.threadly.user.exception;
+
+public class ForbiddenException extends BaseException {
+    public ForbiddenException(String message, String error) {
+        super(message, 403, error);
+    }
+}
@@ -2,6 +2,7 @@ package com.threadly.user.exception;
 
 import com.threadly.common.dto.ApiResponseDTO;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
@@ -31,6 +32,23 @@ public class GlobalExceptionHandler {
                 ));
     }
 
+    @ExceptionHandler(ServiceOverloadedException.class)
+    public ResponseEntity<ApiResponseDTO<Void>> handleServiceOverloaded(
+            ServiceOverloadedException ex,
+            HttpServletRequest request) {
+
+        log.warn("{}: {}", ex.getClass().getSimpleName(), ex.getMessage());
+
+        return ResponseEntity.status(ex.getStatus())
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(ApiResponseDTO.error(
+                        ex.getStatus(),
+                        ex.getMessage(),
+                        ex.getError(),
+                        request.getRequestURI()
+                ));
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ApiResponseDTO<Void>> handleValidationErrors(
             MethodArgumentNotValidException ex,
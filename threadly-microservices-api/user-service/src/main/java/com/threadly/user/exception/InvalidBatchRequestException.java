@@ -0,0 +1,7 @@
+package com.threadly.user.exception;
+
+public class InvalidBatchRequestException extends BaseException {
+    public InvalidBatchRequestException(String message, String error) {
+        super(message, 400, error);
+    }
+}
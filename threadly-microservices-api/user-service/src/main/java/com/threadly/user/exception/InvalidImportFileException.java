@@ -0,0 +1,7 @@
+package com.threadly.user.exception;
+
+public class InvalidImportFileException extends BaseException {
+    public InvalidImportFileException(String message, String error) {
+        super(message, 400, error);
+    }
+}
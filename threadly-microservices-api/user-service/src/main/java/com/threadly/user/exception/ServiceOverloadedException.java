@@ -0,0 +1,13 @@
+package com.threadly.user.exception;
+
+import lombok.Getter;
+
+@Getter
+public class ServiceOverloadedException extends BaseException {
+    private final long retryAfterSeconds;
+
+    public ServiceOverloadedException(String message, String error, long retryAfterSeconds) {
+        super(message, 503, error);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
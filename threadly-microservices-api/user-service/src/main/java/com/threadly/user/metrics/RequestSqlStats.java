@@ -0,0 +1,71 @@
+package com.threadly.user.metrics;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * SQL run by the current HTTP request: statements, rows and JDBC time.
+ * Bound to the request thread by {@link SqlAccountingFilter}; JDBC calls made on other
+ * threads are not counted.
+ */
+public final class RequestSqlStats {
+
+    private static final ThreadLocal<RequestSqlStats> CURRENT = new ThreadLocal<>();
+
+    private int statements;
+    private long rowsRead;
+    private long rowsWritten;
+    private long jdbcNanos;
+    private final Map<String, Integer> executionsBySql = new HashMap<>();
+
+    static RequestSqlStats start() {
+        RequestSqlStats stats = new RequestSqlStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Stats of the request on this thread, or {@code null} outside a request.
+     */
+    public static RequestSqlStats current() {
+        return CURRENT.get();
+    }
+
+    void recordStatement(String sql, long elapsedMs, long rowsWritten) {
+        statements++;
+        jdbcNanos += TimeUnit.MILLISECONDS.toNanos(elapsedMs);
+        this.rowsWritten += rowsWritten;
+        executionsBySql.merge(sql, 1, Integer::sum);
+    }
+
+    void recordRowRead() {
+        rowsRead++;
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public long getRows() {
+        return rowsRead + rowsWritten;
+    }
+
+    public long getJdbcTimeMs() {
+        return TimeUnit.NANOSECONDS.toMillis(jdbcNanos);
+    }
+
+    /**
+     * Statements that ran at least {@code threshold} times, with their counts.
+     */
+    public Map<String, Integer> repeatedStatements(int threshold) {
+        return executionsBySql.entrySet().stream()
+                .filter(entry -> entry.getValue() >= threshold)
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+    }
+}
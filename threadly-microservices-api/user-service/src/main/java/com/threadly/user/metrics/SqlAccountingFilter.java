@@ -0,0 +1,88 @@
+package com.threadly.user.metrics;
+
+import com.threadly.user.config.SqlAccountingProperties;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Opens a {@link RequestSqlStats} scope around each request, then publishes per-endpoint
+ * statement-count and JDBC-time histograms and checks the statement budget.
+ * Going over budget logs a warning, naming any statement that repeated enough to look like an N+1.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(name = "sql-accounting.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class SqlAccountingFilter extends OncePerRequestFilter {
+
+    private static final String UNKNOWN_URI = "UNKNOWN";
+
+    private final SqlAccountingProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestSqlStats stats = RequestSqlStats.start();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            RequestSqlStats.end();
+        }
+        report(request, stats);
+    }
+
+    private void report(HttpServletRequest request, RequestSqlStats stats) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : UNKNOWN_URI;
+        String method = request.getMethod();
+
+        DistributionSummary.builder("http.server.requests.sql.statements")
+                .description("SQL statements executed per request")
+                .tags("method", method, "uri", uri)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(stats.getStatements());
+        Timer.builder("http.server.requests.sql.time")
+                .description("JDBC time per request")
+                .tags("method", method, "uri", uri)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(stats.getJdbcTimeMs(), TimeUnit.MILLISECONDS);
+
+        log.debug("{} {}: {} statements, {} rows, {} ms JDBC",
+                method, uri, stats.getStatements(), stats.getRows(), stats.getJdbcTimeMs());
+
+        int budget = properties.budgetFor(uri);
+        if (budget < 0 || stats.getStatements() <= budget) {
+            return;
+        }
+
+        Map<String, Integer> repeated = stats.repeatedStatements(properties.getRepeatedStatementThreshold());
+        String message = String.format("%s %s ran %d SQL statements (budget %d)%s",
+                method, uri, stats.getStatements(), budget,
+                repeated.isEmpty() ? "" : ", likely N+1: " + repeated);
+        if (properties.isFailOnBudgetExceeded()) {
+            throw new IllegalStateException(message);
+        }
+        log.warn(message);
+    }
+}
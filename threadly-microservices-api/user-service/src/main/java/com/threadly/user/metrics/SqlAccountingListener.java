@@ -0,0 +1,64 @@
+package com.threadly.user.metrics;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.listener.MethodExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.sql.ResultSet;
+import java.util.List;
+
+/**
+ * datasource-proxy listener feeding {@link RequestSqlStats}: one statement per JDBC
+ * execution (a batch counts once), rows written from update counts, rows read from
+ * {@code ResultSet.next()} calls that returned a row.
+ */
+public class SqlAccountingListener implements QueryExecutionListener, MethodExecutionListener {
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        RequestSqlStats stats = RequestSqlStats.current();
+        if (stats == null || queryInfoList.isEmpty()) {
+            return;
+        }
+        stats.recordStatement(queryInfoList.get(0).getQuery(), execInfo.getElapsedTime(), rowsWritten(execInfo.getResult()));
+    }
+
+    @Override
+    public void beforeMethod(MethodExecutionContext executionContext) {
+    }
+
+    @Override
+    public void afterMethod(MethodExecutionContext executionContext) {
+        if (executionContext.getTarget() instanceof ResultSet
+                && "next".equals(executionContext.getMethod().getName())
+                && Boolean.TRUE.equals(executionContext.getResult())) {
+            RequestSqlStats stats = RequestSqlStats.current();
+            if (stats != null) {
+                stats.recordRowRead();
+            }
+        }
+    }
+
+    private static long rowsWritten(Object result) {
+        if (result instanceof Number count) {
+            return Math.max(0, count.longValue());
+        }
+        long total = 0;
+        if (result instanceof int[] counts) {
+            for (int count : counts) {
+                total += Math.max(0, count);
+            }
+        } else if (result instanceof long[] counts) {
+            for (long count : counts) {
+                total += Math.max(0, count);
+            }
+        }
+        return total;
+    }
+}
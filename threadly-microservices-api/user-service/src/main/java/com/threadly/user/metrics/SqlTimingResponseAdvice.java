@@ -0,0 +1,45 @@
+package com.threadly.user.metrics;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Adds the request's SQL totals to the response headers just before the body is written,
+ * when the handler has done all its queries but the headers can still be changed.
+ * The gateway copies these into its access log and removes them before the response
+ * reaches the client.
+ */
+@ControllerAdvice
+@ConditionalOnProperty(name = "sql-accounting.enabled", havingValue = "true", matchIfMissing = true)
+public class SqlTimingResponseAdvice implements ResponseBodyAdvice<Object> {
+
+    public static final String STATEMENTS_HEADER = "X-DB-Statements";
+    public static final String ROWS_HEADER = "X-DB-Rows";
+    public static final String TIME_HEADER = "X-DB-Time-Ms";
+    private static final String SERVER_TIMING_HEADER = "Server-Timing";
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        RequestSqlStats stats = RequestSqlStats.current();
+        if (stats != null) {
+            response.getHeaders().set(STATEMENTS_HEADER, String.valueOf(stats.getStatements()));
+            response.getHeaders().set(ROWS_HEADER, String.valueOf(stats.getRows()));
+            response.getHeaders().set(TIME_HEADER, String.valueOf(stats.getJdbcTimeMs()));
+            response.getHeaders().add(SERVER_TIMING_HEADER, "db;dur=" + stats.getJdbcTimeMs());
+        }
+        return body;
+    }
+}
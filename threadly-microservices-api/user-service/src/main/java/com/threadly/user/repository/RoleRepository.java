@@ -1,11 +1,21 @@
 package com.threadly.user.repository;
 
+import com.threadly.user.constant.CacheRegions;
 import com.threadly.user.entity.Role;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import java.util.Optional;
 
 public interface RoleRepository extends JpaRepository<Role, Long> {
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheRegions.ROLES_BY_NAME)
+    })
     Optional<Role> findByName(String name);
+
     boolean existsByName(String name);
 }
@@ -0,0 +1,27 @@
+package com.threadly.user.repository;
+
+import com.threadly.user.entity.TokenRevocation;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface TokenRevocationRepository extends JpaRepository<TokenRevocation, Long> {
+
+    List<TokenRevocation> findByIdGreaterThanAndExpiresAtGreaterThanOrderByIdAsc(long id, long now, Limit limit);
+
+    boolean existsByTokenId(String tokenId);
+
+    @Query("select max(r.notBefore) from TokenRevocation r where r.userId = :userId")
+    Optional<Long> findLatestNotBefore(@Param("userId") Long userId);
+
+    @Transactional
+    @Modifying
+    @Query("delete from TokenRevocation r where r.expiresAt <= :now")
+    int deleteExpired(@Param("now") long now);
+}
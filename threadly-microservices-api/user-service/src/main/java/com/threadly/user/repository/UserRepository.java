@@ -1,11 +1,51 @@
 package com.threadly.user.repository;
 
 import com.threadly.user.entity.User;
+import com.threadly.user.repository.projection.CredentialRow;
+import com.threadly.user.repository.projection.PublicProfileRow;
+import com.threadly.user.repository.projection.UserCredentials;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
     boolean existsByEmail(String email);
+
+    // Credentials and role names in one round trip, as scalars: no entity, no persistence-context entry
+
+    @Transactional(readOnly = true)
+    @Query("select u.id as id, u.email as email, u.password as passwordHash, u.tokenVersion as tokenVersion, "
+            + "r.name as roleName "
+            + "from User u left join u.roles r where u.email = :email")
+    List<CredentialRow> findCredentialRowsByEmail(@Param("email") String email);
+
+    @Transactional(readOnly = true)
+    @Query("select u.id as id, u.email as email, u.password as passwordHash, u.tokenVersion as tokenVersion, "
+            + "r.name as roleName "
+            + "from User u left join u.roles r where u.id = :id")
+    List<CredentialRow> findCredentialRowsById(@Param("id") Long id);
+
+    // Public fields only, as scalars, in one query whatever the number of IDs
+    @Query("select u.id as id, u.fullName as fullName, u.avatarUrl as avatarUrl from User u where u.id in :ids")
+    List<PublicProfileRow> findPublicProfilesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select u.tokenVersion from User u where u.id = :id")
+    Optional<Long> findTokenVersionById(@Param("id") Long id);
+
+    @Query("select u.email from User u where u.email in :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    default Optional<UserCredentials> findCredentialsByEmail(String email) {
+        return UserCredentials.fromRows(findCredentialRowsByEmail(email));
+    }
+
+    default Optional<UserCredentials> findCredentialsById(Long id) {
+        return UserCredentials.fromRows(findCredentialRowsById(id));
+    }
 }
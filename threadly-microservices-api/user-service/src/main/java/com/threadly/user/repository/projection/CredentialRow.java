@@ -0,0 +1,18 @@
+package com.threadly.user.repository.projection;
+
+/**
+ * One row of the login query: a user's credentials joined with one of its role names.
+ * A user with several roles comes back as several rows; {@code roleName} is null when it has none.
+ */
+public interface CredentialRow {
+
+    Long getId();
+
+    String getEmail();
+
+    String getPasswordHash();
+
+    Long getTokenVersion();
+
+    String getRoleName();
+}
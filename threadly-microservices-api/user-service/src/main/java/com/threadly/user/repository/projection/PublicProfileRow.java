@@ -0,0 +1,13 @@
+package com.threadly.user.repository.projection;
+
+/**
+ * The fields of a user that any authenticated caller may see: no email, roles or timestamps.
+ */
+public interface PublicProfileRow {
+
+    Long getId();
+
+    String getFullName();
+
+    String getAvatarUrl();
+}
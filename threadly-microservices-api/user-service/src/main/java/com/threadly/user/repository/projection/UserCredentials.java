@@ -0,0 +1,33 @@
+package com.threadly.user.repository.projection;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * What login and token refresh need from a user, without loading the {@code User} entity.
+ */
+public record UserCredentials(Long id, String email, String passwordHash, long tokenVersion, Set<String> roles) {
+
+    public UserCredentials {
+        roles = Set.copyOf(roles);
+    }
+
+    /**
+     * Fold the per-role rows of a single user into one value; empty when there are no rows.
+     */
+    public static Optional<UserCredentials> fromRows(List<CredentialRow> rows) {
+        if (rows.isEmpty()) {
+            return Optional.empty();
+        }
+        CredentialRow first = rows.get(0);
+        Set<String> roles = rows.stream()
+                .map(CredentialRow::getRoleName)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        return Optional.of(new UserCredentials(first.getId(), first.getEmail(), first.getPasswordHash(),
+                first.getTokenVersion(), roles));
+    }
+}
@@ -1,6 +1,8 @@
 package com.threadly.user.service;
 
 import com.threadly.user.constant.RoleConstants;
+import com.threadly.user.datasource.ReadYourWrites;
+import com.threadly.user.datasource.RoutingContext;
 import com.threadly.user.dto.response.AuthResponse;
 import com.threadly.user.dto.request.LoginRequest;
 import com.threadly.user.dto.request.RegisterRequest;
@@ -11,10 +13,15 @@ import com.threadly.user.exception.InvalidCredentialsException;
 import com.threadly.user.exception.RoleNotFoundException;
 import com.threadly.user.repository.RoleRepository;
 import com.threadly.user.repository.UserRepository;
+import com.threadly.user.repository.projection.UserCredentials;
 import com.threadly.user.util.JwtUtil;
+import com.threadly.user.util.TokenClaims;
+import com.threadly.user.util.TokenFailureReason;
+import com.threadly.user.util.TokenValidationResult;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -26,10 +33,18 @@ import java.util.stream.Collectors;
 @Slf4j
 public class AuthService {
 
+    private static final String REFRESH_FROM_CLAIMS = "claims";
+    private static final String REFRESH_FROM_DATABASE = "database";
+
     private final UserRepository userRepository;
     private final RoleRepository roleRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
     private final JwtUtil jwtUtil;
+    private final ReadYourWrites readYourWrites;
+    private final TokenVersionCache tokenVersionCache;
+    private final RevocationService revocationService;
+    private final RevocationCache revocationCache;
+    private final MeterRegistry meterRegistry;
 
     @Transactional
     public AuthResponse register(RegisterRequest request) {
@@ -46,7 +61,7 @@ public class AuthService {
         // Create new user
         User user = new User();
         user.setEmail(request.getEmail());
-        user.setPassword(passwordEncoder.encode(request.getPassword()));
+        user.setPassword(passwordHashingService.encode(request.getPassword()));
 
         // Assign default USER role
         Role userRole = roleRepository.findByName(RoleConstants.USER)
@@ -57,16 +72,19 @@ public class AuthService {
 
         user.addRole(userRole);
         User savedUser = userRepository.save(user);
-
-        // Generate JWT tokens using new methods
-        String accessToken = jwtUtil.generateAccessToken(savedUser.getId());
-        String refreshToken = jwtUtil.generateRefreshToken(savedUser.getId());
+        readYourWrites.recordWrite(savedUser.getId(), savedUser.getEmail());
+        tokenVersionCache.update(savedUser.getId(), savedUser.getTokenVersion());
 
         // Get role names
         Set<String> roleNames = savedUser.getRoles().stream()
                 .map(Role::getName)
                 .collect(Collectors.toSet());
 
+        // Generate JWT tokens using new methods
+        String accessToken = jwtUtil.generateAccessToken(savedUser.getId(), roleNames);
+        String refreshToken = jwtUtil.generateRefreshToken(
+                savedUser.getId(), savedUser.getEmail(), roleNames, savedUser.getTokenVersion());
+
         log.info("User registered successfully with ID: {} and email: {}",
                 savedUser.getId(), savedUser.getEmail());
 
@@ -82,18 +100,23 @@ public class AuthService {
                 .build();
     }
 
+    /**
+     * Reads only id, password hash and role names (one query, no entity), so nothing is
+     * dirty-checked and no DB connection is held while BCrypt runs.
+     */
     public AuthResponse login(LoginRequest request) {
         log.info("Login attempt for email: {}", request.getEmail());
 
-        // Find user by email
-        User user = userRepository.findByEmail(request.getEmail())
+        // Find user credentials by email
+        UserCredentials user = readYourWrites.readForEmail(request.getEmail(),
+                        () -> userRepository.findCredentialsByEmail(request.getEmail()))
                 .orElseThrow(() -> new InvalidCredentialsException(
                         "Invalid email or password",
                         "INVALID_CREDENTIALS"
                 ));
 
         // Validate password
-        if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
+        if (!passwordHashingService.matches(request.getPassword(), user.passwordHash())) {
             log.warn("Invalid password attempt for email: {}", request.getEmail());
             throw new InvalidCredentialsException(
                     "Invalid email or password",
@@ -101,38 +124,40 @@ public class AuthService {
             );
         }
 
-        // Generate JWT tokens using new methods
-        String accessToken = jwtUtil.generateAccessToken(user.getId());
-        String refreshToken = jwtUtil.generateRefreshToken(user.getId());
+        tokenVersionCache.update(user.id(), user.tokenVersion());
 
-        // Get role names
-        Set<String> roleNames = user.getRoles().stream()
-                .map(Role::getName)
-                .collect(Collectors.toSet());
+        // Generate JWT tokens using new methods
+        String accessToken = jwtUtil.generateAccessToken(user.id(), user.roles());
+        String refreshToken = jwtUtil.generateRefreshToken(user.id(), user.email(), user.roles(), user.tokenVersion());
 
         log.info("User logged in successfully with ID: {} and email: {}",
-                user.getId(), user.getEmail());
+                user.id(), user.email());
 
         return AuthResponse.builder()
                 .accessToken(accessToken)
                 .refreshToken(refreshToken)
                 .tokenType("Bearer")
                 .expiresIn(jwtUtil.getAccessTokenExpirationInSeconds())
-                .userId(user.getId())
-                .email(user.getEmail())
-                .roles(roleNames)
+                .userId(user.id())
+                .email(user.email())
+                .roles(user.roles())
                 .message("Login successful")
                 .build();
     }
 
     /**
-     * Refresh access token using refresh token
+     * Refresh access token using refresh token.
+     * The email and roles embedded in the refresh token are used as they are while its
+     * version matches the user's current one and the in-memory revocations clear it; only a
+     * stale or older token reads the user.
      */
     public AuthResponse refreshToken(String refreshToken) {
         log.info("Token refresh attempt");
 
-        // Validate refresh token
-        if (!jwtUtil.validateRefreshToken(refreshToken)) {
+        // Validate refresh token (single parse)
+        TokenValidationResult validation = jwtUtil.validateRefresh(refreshToken);
+        if (!validation.isValid()) {
+            log.warn("Refresh token rejected: {}", validation.failureReason());
             throw new InvalidCredentialsException(
                     "Invalid or expired refresh token",
                     "INVALID_REFRESH_TOKEN"
@@ -140,35 +165,116 @@ public class AuthService {
         }
 
         // Extract USER ID from refresh token (not email!)
-        Long userId = jwtUtil.getUserIdFromToken(refreshToken);
+        TokenClaims claims = validation.claims();
+        Long userId = claims.userId();
 
-        // Find user by ID
-        User user = userRepository.findById(userId)
+        // The version cache can lag a revoke-tokens made on another instance by its TTL; the
+        // revocation cache catches up within one poll, so check it before trusting the claims
+        if (revocationCache.isLoaded() && (revocationCache.isTokenRevoked(claims.tokenId())
+                || revocationCache.isRevokedForUser(userId, claims.issuedAt()))) {
+            log.warn("Refresh token for user ID: {} was revoked", userId);
+            throw new InvalidCredentialsException(
+                    "Invalid or expired refresh token",
+                    "INVALID_REFRESH_TOKEN"
+            );
+        }
+
+        Long currentVersion = tokenVersionCache.current(userId);
+        if (claims.hasIdentity() && currentVersion != null && claims.version() >= currentVersion
+                && revocationCache.isLoaded()) {
+            refreshCounter(REFRESH_FROM_CLAIMS).increment();
+
+            String newAccessToken = jwtUtil.generateAccessToken(userId, claims.roles());
+
+            log.info("Token refreshed from claims for user ID: {}", userId);
+
+            return refreshResponse(newAccessToken, refreshToken, userId, claims.email(), claims.roles());
+        }
+
+        // Stale or pre-version token: read the user (same projection as login)
+        refreshCounter(REFRESH_FROM_DATABASE).increment();
+        Long issuedAtMillis = claims.issuedAt() == null ? null : claims.issuedAt().getTime();
+        UserCredentials user = readYourWrites.readForToken(userId, issuedAtMillis,
+                        () -> userRepository.findCredentialsById(userId))
                 .orElseThrow(() -> new InvalidCredentialsException(
                         "User not found for refresh token",
                         "USER_NOT_FOUND"
                 ));
+        // Always from the primary: a lagging replica could miss a revocation just written
+        if (RoutingContext.onPrimary(() -> revocationService.isTokenRevoked(claims.tokenId())
+                || revocationService.isRevokedForUser(userId, claims.issuedAt()))) {
+            log.warn("Refresh token for user ID: {} was revoked", userId);
+            throw new InvalidCredentialsException(
+                    "Invalid or expired refresh token",
+                    "INVALID_REFRESH_TOKEN"
+            );
+        }
+        tokenVersionCache.update(user.id(), user.tokenVersion());
 
-        // Generate new access token với user ID
-        String newAccessToken = jwtUtil.generateAccessToken(user.getId());
+        // Generate new access token với user ID; reissue the refresh token so the next refresh skips the DB
+        String newAccessToken = jwtUtil.generateAccessToken(user.id(), user.roles());
+        String newRefreshToken = jwtUtil.generateRefreshToken(user.id(), user.email(), user.roles(), user.tokenVersion());
 
-        // Get role names
-        Set<String> roleNames = user.getRoles().stream()
-                .map(Role::getName)
-                .collect(Collectors.toSet());
+        log.info("Token refreshed successfully for user ID: {}", user.id());
+
+        return refreshResponse(newAccessToken, newRefreshToken, user.id(), user.email(), user.roles());
+    }
+
+    /**
+     * Revokes the presented access token, and the refresh token if one is given; the gateway
+     * stops accepting the access token within one revocation poll, and the refresh token is
+     * refused by every instance within one revocation cache poll.
+     */
+    public void logout(String accessToken, String refreshToken) {
+        TokenValidationResult validation = jwtUtil.validateAccess(accessToken);
+        if (!validation.isValid()) {
+            throw new InvalidCredentialsException(
+                    "Invalid or expired access token",
+                    "INVALID_ACCESS_TOKEN"
+            );
+        }
 
-        log.info("Token refreshed successfully for user ID: {}", user.getId());
+        TokenClaims refreshClaims = null;
+        if (refreshToken != null) {
+            TokenValidationResult refreshValidation = jwtUtil.validateRefresh(refreshToken);
+            // An expired refresh token has nothing left to revoke
+            if (refreshValidation.failureReason() != TokenFailureReason.EXPIRED) {
+                if (!refreshValidation.isValid()
+                        || !refreshValidation.claims().userId().equals(validation.claims().userId())) {
+                    throw new InvalidCredentialsException(
+                            "Invalid refresh token",
+                            "INVALID_REFRESH_TOKEN"
+                    );
+                }
+                refreshClaims = refreshValidation.claims();
+            }
+        }
+
+        revocationService.revokeToken(validation.claims());
+        if (refreshClaims != null) {
+            revocationService.revokeToken(refreshClaims);
+        }
+    }
 
+    private AuthResponse refreshResponse(String accessToken, String refreshToken, Long userId,
+                                         String email, Set<String> roles) {
         return AuthResponse.builder()
-                .accessToken(newAccessToken)
-                .refreshToken(refreshToken) // Keep same refresh token
+                .accessToken(accessToken)
+                .refreshToken(refreshToken)
                 .tokenType("Bearer")
                 .expiresIn(jwtUtil.getAccessTokenExpirationInSeconds())
-                .userId(user.getId())
-                .email(user.getEmail())
-                .roles(roleNames)
+                .userId(userId)
+                .email(email)
+                .roles(roles)
                 .message("Token refreshed successfully")
                 .build();
     }
 
+    private Counter refreshCounter(String source) {
+        return Counter.builder("auth.token.refresh")
+                .description("Token refreshes, by where the user's identity came from")
+                .tag("source", source)
+                .register(meterRegistry);
+    }
+
 }
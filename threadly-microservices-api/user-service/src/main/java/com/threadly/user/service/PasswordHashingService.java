@@ -0,0 +1,165 @@
+package com.threadly.user.service;
+
+import com.threadly.user.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs BCrypt hashing on a dedicated, bounded pool so a login spike cannot take over
+ * the request threads that also serve profile reads.
+ * When the pool and its queue are full, callers get a 503 with Retry-After straight away.
+ */
+@Service
+@Slf4j
+public class PasswordHashingService {
+
+    private static final String CALIBRATION_PASSWORD = "calibration-password";
+    private static final int CALIBRATION_ROUNDS = 3;
+
+    private final PasswordEncoder passwordEncoder;
+    private final MeterRegistry meterRegistry;
+    private final ThreadPoolExecutor executor;
+    private final long maxWaitMs;
+    private final long retryAfterSeconds;
+
+    private Timer encodeTimer;
+    private Timer matchTimer;
+    private Timer queueWaitTimer;
+    private volatile double calibratedMsPerHash;
+
+    public PasswordHashingService(
+            PasswordEncoder passwordEncoder,
+            MeterRegistry meterRegistry,
+            @Value("${security.password.hashing.threads:#{T(java.lang.Runtime).getRuntime().availableProcessors()}}") int threads,
+            @Value("${security.password.hashing.queue-capacity:64}") int queueCapacity,
+            @Value("${security.password.hashing.max-wait-ms:5000}") long maxWaitMs,
+            @Value("${security.password.hashing.retry-after-seconds:1}") long retryAfterSeconds) {
+        this.passwordEncoder = passwordEncoder;
+        this.meterRegistry = meterRegistry;
+        this.maxWaitMs = maxWaitMs;
+        this.retryAfterSeconds = retryAfterSeconds;
+
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                threads, threads,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread thread = new Thread(r, "password-hash-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PostConstruct
+    void init() {
+        this.encodeTimer = Timer.builder("auth.password.encode")
+                .description("BCrypt password hashing")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.matchTimer = Timer.builder("auth.password.match")
+                .description("BCrypt password verification")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.queueWaitTimer = Timer.builder("auth.password.queue.wait")
+                .description("Time a hashing task waits for a free hashing thread")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        Gauge.builder("auth.password.queue.depth", executor, e -> e.getQueue().size())
+                .description("Hashing tasks waiting for a thread")
+                .register(meterRegistry);
+        Gauge.builder("auth.password.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Hashing tasks currently running")
+                .register(meterRegistry);
+        Gauge.builder("auth.password.calibration", this, s -> s.calibratedMsPerHash)
+                .description("Measured milliseconds per BCrypt hash at startup")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+
+        calibrate();
+    }
+
+    public String encode(String rawPassword) {
+        return submit(encodeTimer, () -> passwordEncoder.encode(rawPassword));
+    }
+
+    public boolean matches(String rawPassword, String encodedPassword) {
+        return Boolean.TRUE.equals(submit(matchTimer, () -> passwordEncoder.matches(rawPassword, encodedPassword)));
+    }
+
+    private <T> T submit(Timer hashTimer, Supplier<T> task) {
+        long submittedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                queueWaitTimer.record(System.nanoTime() - submittedAt, TimeUnit.NANOSECONDS);
+                return hashTimer.record(task);
+            });
+        } catch (RejectedExecutionException e) {
+            throw overloaded();
+        }
+
+        try {
+            return future.get(maxWaitMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw overloaded();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw new IllegalStateException("Interrupted while hashing password", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    private ServiceOverloadedException overloaded() {
+        log.warn("Password hashing pool saturated (active: {}, queued: {})",
+                executor.getActiveCount(), executor.getQueue().size());
+        return new ServiceOverloadedException(
+                "Authentication service is busy, please retry",
+                "SERVICE_OVERLOADED",
+                retryAfterSeconds);
+    }
+
+    /**
+     * Measure the configured BCrypt strength on this hardware and report it.
+     */
+    private void calibrate() {
+        passwordEncoder.encode(CALIBRATION_PASSWORD); // warm-up
+        long start = System.nanoTime();
+        for (int i = 0; i < CALIBRATION_ROUNDS; i++) {
+            passwordEncoder.encode(CALIBRATION_PASSWORD);
+        }
+        calibratedMsPerHash = (System.nanoTime() - start) / 1_000_000.0 / CALIBRATION_ROUNDS;
+        log.info("Password hashing: {} threads, queue {}, {} ms per hash on this host",
+                executor.getMaximumPoolSize(), executor.getQueue().remainingCapacity(),
+                String.format("%.1f", calibratedMsPerHash));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,149 @@
+package com.threadly.user.service;
+
+import com.threadly.user.entity.TokenRevocation;
+import com.threadly.user.repository.TokenRevocationRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory copy of the unexpired token revocations, so refreshes served from the token's
+ * claims can be checked without a database read. Revocations made on this instance apply at
+ * once; those made on other instances arrive with the next poll, within {@code poll-interval}.
+ * Revocations are never undone, so polls only merge. Each poll re-reads the last
+ * {@code cursor-overlap} IDs below the cursor to pick up rows committed out of ID order;
+ * the whole table is re-read every {@code full-reload-interval} to drop expired entries.
+ */
+@Component
+@Slf4j
+public class RevocationCache {
+
+    private final TokenRevocationRepository revocationRepository;
+    private final int pageSize;
+    private final long cursorOverlap;
+    private final long fullReloadMillis;
+    private final ScheduledExecutorService poller;
+
+    // Token ID -> expires at
+    private final Map<String, Long> tokens = new ConcurrentHashMap<>();
+    private final Map<Long, UserEntry> users = new ConcurrentHashMap<>();
+
+    private long cursor;
+    private long lastFullReloadMillis;
+    private volatile boolean loaded;
+
+    public RevocationCache(
+            TokenRevocationRepository revocationRepository,
+            MeterRegistry meterRegistry,
+            @Value("${revocation.feed.max-page-size:1000}") int pageSize,
+            @Value("${revocation.cache.poll-interval:5s}") Duration pollInterval,
+            @Value("${revocation.cache.full-reload-interval:5m}") Duration fullReloadInterval,
+            @Value("${revocation.cache.cursor-overlap:1000}") long cursorOverlap) {
+        this.revocationRepository = revocationRepository;
+        this.pageSize = Math.max(1, pageSize);
+        this.fullReloadMillis = fullReloadInterval.toMillis();
+        this.cursorOverlap = Math.max(0, cursorOverlap);
+        this.poller = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "revocation-cache");
+            thread.setDaemon(true);
+            return thread;
+        });
+        poller.scheduleWithFixedDelay(this::poll, 0, pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+
+        Gauge.builder("auth.revocation.cache.tokens", tokens, Map::size)
+                .description("Revoked token IDs held in memory")
+                .register(meterRegistry);
+        Gauge.builder("auth.revocation.cache.users", users, Map::size)
+                .description("User-wide revocations held in memory")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Whether the first load has finished; until then the cache cannot vouch for a token.
+     */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    public boolean isTokenRevoked(String tokenId) {
+        return tokenId != null && tokens.containsKey(tokenId);
+    }
+
+    /**
+     * Same rule as {@link RevocationService#isRevokedForUser}: issued before the not-before
+     * time, and a token without an issue time is revoked by any user-wide entry.
+     */
+    public boolean isRevokedForUser(Long userId, Date issuedAt) {
+        UserEntry entry = users.get(userId);
+        if (entry == null) {
+            return false;
+        }
+        return issuedAt == null || issuedAt.getTime() < entry.notBefore();
+    }
+
+    /**
+     * Applies a revocation written on this instance without waiting for the next poll.
+     */
+    public void apply(TokenRevocation revocation) {
+        if (revocation.getTokenId() != null) {
+            tokens.put(revocation.getTokenId(), revocation.getExpiresAt());
+        }
+        if (revocation.getNotBefore() != null) {
+            users.merge(revocation.getUserId(),
+                    new UserEntry(revocation.getNotBefore(), revocation.getExpiresAt()), UserEntry::max);
+        }
+    }
+
+    private void poll() {
+        try {
+            long now = System.currentTimeMillis();
+            boolean full = now - lastFullReloadMillis >= fullReloadMillis;
+            long since = full ? 0 : Math.max(0, cursor - cursorOverlap);
+            long last = since;
+            List<TokenRevocation> page;
+            do {
+                page = revocationRepository.findByIdGreaterThanAndExpiresAtGreaterThanOrderByIdAsc(
+                        last, now, Limit.of(pageSize));
+                page.forEach(this::apply);
+                if (!page.isEmpty()) {
+                    last = page.get(page.size() - 1).getId();
+                }
+            } while (page.size() == pageSize);
+
+            cursor = Math.max(cursor, last);
+            if (full) {
+                lastFullReloadMillis = now;
+                tokens.values().removeIf(expiresAt -> expiresAt <= now);
+                users.values().removeIf(entry -> entry.expiresAt() <= now);
+            }
+            loaded = true;
+        } catch (RuntimeException e) {
+            log.warn("Token revocation cache poll failed: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        poller.shutdownNow();
+    }
+
+    private record UserEntry(long notBefore, long expiresAt) {
+
+        UserEntry max(UserEntry other) {
+            return new UserEntry(Math.max(notBefore, other.notBefore), Math.max(expiresAt, other.expiresAt));
+        }
+    }
+}
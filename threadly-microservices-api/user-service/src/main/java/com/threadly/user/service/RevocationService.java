@@ -0,0 +1,170 @@
+package com.threadly.user.service;
+
+import com.threadly.user.datasource.ReadYourWrites;
+import com.threadly.user.dto.response.RevocationFeedResponse;
+import com.threadly.user.entity.TokenRevocation;
+import com.threadly.user.entity.User;
+import com.threadly.user.exception.UserNotFoundException;
+import com.threadly.user.repository.TokenRevocationRepository;
+import com.threadly.user.repository.UserRepository;
+import com.threadly.user.util.JwtUtil;
+import com.threadly.user.util.TokenClaims;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records revoked tokens and user-wide "not before" times, and serves them to the gateway
+ * as a delta feed ordered by row ID. Entries are kept until no token they cover can still
+ * be valid, then purged in the background.
+ */
+@Service
+@Slf4j
+public class RevocationService {
+
+    private final TokenRevocationRepository revocationRepository;
+    private final UserRepository userRepository;
+    private final TokenVersionCache tokenVersionCache;
+    private final RevocationCache revocationCache;
+    private final ReadYourWrites readYourWrites;
+    private final JwtUtil jwtUtil;
+    private final int maxPageSize;
+    private final ScheduledExecutorService purger;
+
+    public RevocationService(
+            TokenRevocationRepository revocationRepository,
+            UserRepository userRepository,
+            TokenVersionCache tokenVersionCache,
+            RevocationCache revocationCache,
+            ReadYourWrites readYourWrites,
+            JwtUtil jwtUtil,
+            @Value("${revocation.feed.max-page-size:1000}") int maxPageSize,
+            @Value("${revocation.purge-interval:10m}") Duration purgeInterval) {
+        this.revocationRepository = revocationRepository;
+        this.userRepository = userRepository;
+        this.tokenVersionCache = tokenVersionCache;
+        this.revocationCache = revocationCache;
+        this.readYourWrites = readYourWrites;
+        this.jwtUtil = jwtUtil;
+        this.maxPageSize = maxPageSize;
+        this.purger = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "revocation-purge");
+            thread.setDaemon(true);
+            return thread;
+        });
+        purger.scheduleWithFixedDelay(this::purgeExpired,
+                purgeInterval.toMillis(), purgeInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Revokes one access or refresh token (logout). Tokens without an ID predate revocation
+     * support and simply run to their expiry.
+     */
+    @Transactional
+    public void revokeToken(TokenClaims claims) {
+        if (claims.tokenId() == null) {
+            log.info("Token of user ID: {} has no token ID, not revoked", claims.userId());
+            return;
+        }
+        revocationCache.apply(revocationRepository.save(new TokenRevocation(null, claims.tokenId(), claims.userId(),
+                null, claims.expiration().getTime(), null)));
+        log.info("Token {} revoked for user ID: {}", claims.tokenId(), claims.userId());
+    }
+
+    /**
+     * Revokes every access and refresh token issued to the user so far. The entry lives as
+     * long as the longest-lived token. JWT issue times are truncated to the second, so the
+     * not-before time is rounded up to the next whole second: a token minted earlier in the
+     * same second is covered too (as is one minted later in it, which is the safe side).
+     * Refreshes on this instance see it at once; other
+     * instances see it in their {@link RevocationCache} within one poll, before the version
+     * bump reaches their {@link TokenVersionCache}.
+     */
+    @Transactional
+    public void revokeUser(Long userId) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new UserNotFoundException(
+                        "User not found with ID: " + userId,
+                        "USER_NOT_FOUND"
+                ));
+        user.bumpTokenVersion();
+
+        long now = System.currentTimeMillis();
+        long notBefore = (now / 1000 + 1) * 1000;
+        revocationCache.apply(revocationRepository.save(new TokenRevocation(null, null, userId, notBefore,
+                now + jwtUtil.getRefreshTokenExpirationInMillis(), null)));
+
+        readYourWrites.recordWrite(userId, user.getEmail());
+        tokenVersionCache.update(userId, user.getTokenVersion());
+        log.info("All tokens revoked for user ID: {}", userId);
+    }
+
+    /**
+     * Whether a token issued at {@code issuedAt} was revoked by a user-wide revocation,
+     * i.e. issued before its not-before time.
+     */
+    @Transactional(readOnly = true)
+    public boolean isRevokedForUser(Long userId, Date issuedAt) {
+        if (issuedAt == null) {
+            return revocationRepository.findLatestNotBefore(userId).isPresent();
+        }
+        return revocationRepository.findLatestNotBefore(userId)
+                .map(notBefore -> issuedAt.getTime() < notBefore)
+                .orElse(false);
+    }
+
+    @Transactional(readOnly = true)
+    public boolean isTokenRevoked(String tokenId) {
+        return tokenId != null && revocationRepository.existsByTokenId(tokenId);
+    }
+
+    /**
+     * Unexpired entries with an ID above {@code since}, oldest first. A limit outside
+     * 1..max-page-size is clamped.
+     */
+    @Transactional(readOnly = true)
+    public RevocationFeedResponse feed(long since, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, maxPageSize));
+        List<TokenRevocation> rows = revocationRepository.findByIdGreaterThanAndExpiresAtGreaterThanOrderByIdAsc(
+                since, System.currentTimeMillis(), Limit.of(pageSize + 1));
+
+        boolean hasMore = rows.size() > pageSize;
+        List<TokenRevocation> page = hasMore ? rows.subList(0, pageSize) : rows;
+        long cursor = page.isEmpty() ? since : page.get(page.size() - 1).getId();
+
+        return RevocationFeedResponse.builder()
+                .entries(page.stream()
+                        .map(row -> new RevocationFeedResponse.Entry(
+                                row.getTokenId(), row.getUserId(), row.getNotBefore(), row.getExpiresAt()))
+                        .toList())
+                .cursor(cursor)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    private void purgeExpired() {
+        try {
+            int purged = revocationRepository.deleteExpired(System.currentTimeMillis());
+            if (purged > 0) {
+                log.info("Purged {} expired token revocations", purged);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Token revocation purge failed: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        purger.shutdownNow();
+    }
+}
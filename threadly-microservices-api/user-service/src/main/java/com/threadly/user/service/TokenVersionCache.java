@@ -0,0 +1,49 @@
+package com.threadly.user.service;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.threadly.user.datasource.RoutingContext;
+import com.threadly.user.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Latest known token version per user. A miss costs one primary-key lookup of a single
+ * column, always on the primary: a replica that lags behind a version bump would let the
+ * stale version live for a whole TTL. After that, refreshes for the user need no database read until the entry expires.
+ * The TTL bounds how long another instance can take to notice a version bump.
+ */
+@Component
+public class TokenVersionCache {
+
+    private final LoadingCache<Long, Long> versions;
+
+    public TokenVersionCache(
+            UserRepository userRepository,
+            MeterRegistry meterRegistry,
+            @Value("${jwt.refresh-token.version-cache.ttl:60s}") Duration ttl,
+            @Value("${jwt.refresh-token.version-cache.max-size:100000}") long maxSize) {
+        this.versions = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSize)
+                .recordStats()
+                .build(userId -> RoutingContext.onPrimary(
+                        () -> userRepository.findTokenVersionById(userId).orElse(null)));
+        CaffeineCacheMetrics.monitor(meterRegistry, versions, "auth.token-version");
+    }
+
+    /**
+     * Current version for the user, or {@code null} if the user does not exist.
+     */
+    public Long current(Long userId) {
+        return versions.get(userId);
+    }
+
+    public void update(Long userId, long version) {
+        versions.put(userId, version);
+    }
+}
@@ -0,0 +1,307 @@
+package com.threadly.user.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.threadly.user.constant.RoleConstants;
+import com.threadly.user.datasource.ReadYourWrites;
+import com.threadly.user.dto.request.ImportUserRow;
+import com.threadly.user.dto.response.ImportRowResult;
+import com.threadly.user.entity.Role;
+import com.threadly.user.entity.User;
+import com.threadly.user.exception.ForbiddenException;
+import com.threadly.user.exception.RoleNotFoundException;
+import com.threadly.user.repository.RoleRepository;
+import com.threadly.user.repository.UserRepository;
+import com.threadly.user.util.ImportRowReader;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bulk account import. Rows are read and handled one chunk at a time, so memory use
+ * depends on the chunk size, not on the file size. For each chunk:
+ * <ol>
+ *     <li>validate rows and drop duplicates within the chunk</li>
+ *     <li>one query finds emails that are already registered</li>
+ *     <li>hash the remaining passwords in parallel on a bounded pool</li>
+ *     <li>insert users and their role links in one batched transaction</li>
+ * </ol>
+ * The chunk's results go to the caller before the next chunk is read.
+ */
+@Service
+@Slf4j
+public class UserImportService {
+
+    /** Receives the results of each chunk, in input order. */
+    @FunctionalInterface
+    public interface ResultSink {
+        void accept(List<ImportRowResult> results) throws IOException;
+    }
+
+    private final UserRepository userRepository;
+    private final RoleRepository roleRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final ReadYourWrites readYourWrites;
+    private final ThreadPoolExecutor hashExecutor;
+    private final int chunkSize;
+
+    public UserImportService(
+            UserRepository userRepository,
+            RoleRepository roleRepository,
+            PasswordEncoder passwordEncoder,
+            Validator validator,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager,
+            ReadYourWrites readYourWrites,
+            @Value("${user-import.chunk-size:500}") int chunkSize,
+            @Value("${user-import.hash-threads:2}") int hashThreads) {
+        this.userRepository = userRepository;
+        this.roleRepository = roleRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readYourWrites = readYourWrites;
+        this.chunkSize = chunkSize;
+
+        // Separate from PasswordHashingService so an import cannot starve logins.
+        // The queue holds one whole chunk, so a single import never fills it; only concurrent
+        // imports can, and then the importing thread hashes itself, which throttles the uploads.
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.hashExecutor = new ThreadPoolExecutor(
+                hashThreads, hashThreads,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(chunkSize),
+                r -> {
+                    Thread thread = new Thread(r, "import-hash-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    public void requireAdmin(Long userId) {
+        boolean admin = userRepository.findCredentialsById(userId)
+                .map(credentials -> credentials.roles().contains(RoleConstants.ADMIN))
+                .orElse(false);
+        if (!admin) {
+            throw new ForbiddenException("Admin role required", "FORBIDDEN");
+        }
+    }
+
+    public void importUsers(BufferedReader input, boolean csv, ResultSink sink) throws IOException {
+        ImportRowReader reader = new ImportRowReader(input, objectMapper, csv);
+        List<ImportRowReader.Row> chunk = new ArrayList<>(chunkSize);
+        int[] counts = new int[ImportRowResult.Status.values().length];
+
+        ImportRowReader.Row row;
+        while ((row = reader.next()) != null) {
+            chunk.add(row);
+            if (chunk.size() == chunkSize) {
+                emit(processChunk(chunk), counts, sink);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            emit(processChunk(chunk), counts, sink);
+        }
+
+        log.info("User import finished: {} created, {} duplicate, {} invalid, {} failed",
+                counts[ImportRowResult.Status.CREATED.ordinal()],
+                counts[ImportRowResult.Status.DUPLICATE.ordinal()],
+                counts[ImportRowResult.Status.INVALID.ordinal()],
+                counts[ImportRowResult.Status.FAILED.ordinal()]);
+    }
+
+    private void emit(List<ImportRowResult> results, int[] counts, ResultSink sink) throws IOException {
+        for (ImportRowResult result : results) {
+            counts[result.getStatus().ordinal()]++;
+        }
+        sink.accept(results);
+    }
+
+    private List<ImportRowResult> processChunk(List<ImportRowReader.Row> rows) {
+        ImportRowResult[] results = new ImportRowResult[rows.size()];
+        List<Integer> candidates = new ArrayList<>();
+        Set<String> chunkEmails = new HashSet<>();
+
+        // 1. Validate, and drop repeats of an email within the chunk (case-insensitive, as in MySQL)
+        for (int i = 0; i < rows.size(); i++) {
+            ImportRowReader.Row row = rows.get(i);
+            if (row.error() != null) {
+                results[i] = result(row, ImportRowResult.Status.INVALID, row.error());
+                continue;
+            }
+            Set<ConstraintViolation<ImportUserRow>> violations = validator.validate(row.user());
+            if (!violations.isEmpty()) {
+                results[i] = result(row, ImportRowResult.Status.INVALID, violations.iterator().next().getMessage());
+            } else if (!chunkEmails.add(normalizeEmail(row.user().getEmail()))) {
+                results[i] = result(row, ImportRowResult.Status.DUPLICATE, "Duplicate email in import");
+            } else {
+                candidates.add(i);
+            }
+        }
+
+        // 2. One existence query for the whole chunk
+        if (!candidates.isEmpty()) {
+            Set<String> existing = new HashSet<>();
+            userRepository.findExistingEmails(chunkEmails).forEach(email -> existing.add(normalizeEmail(email)));
+            candidates.removeIf(i -> {
+                if (existing.contains(normalizeEmail(rows.get(i).user().getEmail()))) {
+                    results[i] = result(rows.get(i), ImportRowResult.Status.DUPLICATE, "Email already registered");
+                    return true;
+                }
+                return false;
+            });
+        }
+
+        // 3. Hash in parallel, 4. insert in one transaction
+        List<User> users = hashPasswords(rows, candidates, results);
+        if (!users.isEmpty()) {
+            save(rows, users, results);
+        }
+
+        return List.of(results);
+    }
+
+    private List<User> hashPasswords(List<ImportRowReader.Row> rows, List<Integer> candidates,
+                                     ImportRowResult[] results) {
+        List<Callable<String>> tasks = new ArrayList<>(candidates.size());
+        for (int i : candidates) {
+            String password = rows.get(i).user().getPassword();
+            tasks.add(() -> passwordEncoder.encode(password));
+        }
+
+        List<Future<String>> hashes;
+        try {
+            hashes = hashExecutor.invokeAll(tasks);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing imported passwords", e);
+        }
+
+        List<User> users = new ArrayList<>(candidates.size());
+        for (int k = 0; k < candidates.size(); k++) {
+            int i = candidates.get(k);
+            ImportUserRow row = rows.get(i).user();
+            try {
+                User user = new User();
+                user.setEmail(row.getEmail());
+                user.setFullName(row.getFullName());
+                user.setPassword(hashes.get(k).get());
+                users.add(user);
+            } catch (ExecutionException | InterruptedException e) {
+                log.warn("Password hashing failed for import line {}", rows.get(i).line(), e);
+                results[i] = result(rows.get(i), ImportRowResult.Status.FAILED, "Password hashing failed");
+            }
+        }
+        return users;
+    }
+
+    private void save(List<ImportRowReader.Row> rows, List<User> users, ImportRowResult[] results) {
+        // Rows still without a result are exactly the hashed ones, in the same order as users
+        List<Integer> indexes = new ArrayList<>(users.size());
+        for (int i = 0; i < results.length; i++) {
+            if (results[i] == null) {
+                indexes.add(i);
+            }
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                Role userRole = defaultRole();
+                // Owning side only: User.addRole would load the role's lazy user set
+                users.forEach(user -> user.getRoles().add(userRole));
+                userRepository.saveAll(users);
+            });
+            for (int k = 0; k < users.size(); k++) {
+                results[indexes.get(k)] = created(rows.get(indexes.get(k)), users.get(k));
+            }
+        } catch (DataIntegrityViolationException e) {
+            // Someone registered one of these emails meanwhile; retry row by row
+            log.warn("Import chunk insert failed, retrying {} rows one by one: {}", users.size(), e.getMessage());
+            for (int k = 0; k < users.size(); k++) {
+                results[indexes.get(k)] = saveOne(rows.get(indexes.get(k)), users.get(k));
+            }
+        }
+    }
+
+    private ImportRowResult saveOne(ImportRowReader.Row row, User user) {
+        User fresh = new User();
+        fresh.setEmail(user.getEmail());
+        fresh.setFullName(user.getFullName());
+        fresh.setPassword(user.getPassword());
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                fresh.getRoles().add(defaultRole());
+                userRepository.save(fresh);
+            });
+            return created(row, fresh);
+        } catch (DataIntegrityViolationException e) {
+            return result(row, ImportRowResult.Status.DUPLICATE, "Email already registered");
+        } catch (RuntimeException e) {
+            log.warn("Import of line {} failed", row.line(), e);
+            return result(row, ImportRowResult.Status.FAILED, "Could not save user");
+        }
+    }
+
+    private Role defaultRole() {
+        return roleRepository.findByName(RoleConstants.USER)
+                .orElseThrow(() -> new RoleNotFoundException(
+                        "Default role not found: " + RoleConstants.USER,
+                        "ROLE_NOT_FOUND"
+                ));
+    }
+
+    private ImportRowResult created(ImportRowReader.Row row, User user) {
+        readYourWrites.recordWrite(user.getId(), user.getEmail());
+        return ImportRowResult.builder()
+                .line(row.line())
+                .email(user.getEmail())
+                .status(ImportRowResult.Status.CREATED)
+                .userId(user.getId())
+                .build();
+    }
+
+    private static String normalizeEmail(String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
+
+    private static ImportRowResult result(ImportRowReader.Row row, ImportRowResult.Status status, String error) {
+        return ImportRowResult.builder()
+                .line(row.line())
+                .email(row.user() != null ? row.user().getEmail() : null)
+                .status(status)
+                .error(error)
+                .build();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        hashExecutor.shutdown();
+    }
+}
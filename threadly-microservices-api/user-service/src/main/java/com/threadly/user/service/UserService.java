@@ -1,18 +1,32 @@
 package com.threadly.user.service;
 
 
+import com.threadly.user.datasource.ReadYourWrites;
+import com.threadly.user.dto.response.BatchProfileResponse;
+import com.threadly.user.dto.response.PublicProfileResponse;
 import com.threadly.user.dto.response.UserProfileResponse;
 import com.threadly.user.entity.Role;
 import com.threadly.user.entity.User;
+import com.threadly.user.exception.BatchSizeExceededException;
+import com.threadly.user.exception.InvalidBatchRequestException;
 import com.threadly.user.exception.InvalidCredentialsException;
 import com.threadly.user.exception.UserNotFoundException;
 import com.threadly.user.repository.UserRepository;
+import com.threadly.user.repository.projection.PublicProfileRow;
 import com.threadly.user.util.JwtUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -21,11 +35,20 @@ import java.util.stream.Collectors;
 public class UserService {
 
     private final UserRepository userRepository;
+    private final ReadYourWrites readYourWrites;
 
-    public UserProfileResponse getCurrentUserProfileById(Long userId) {
+    @Value("${users.batch.max-size:100}")
+    private int maxBatchSize;
+
+    /**
+     * Profile of the token's bearer; {@code tokenIssuedAt} (epoch millis, may be null) keeps
+     * the read on the primary right after register on any instance.
+     */
+    @Transactional(readOnly = true)
+    public UserProfileResponse getCurrentUserProfileById(Long userId, Long tokenIssuedAt) {
         log.info("Fetching profile for user ID: {}", userId);
 
-        User user = userRepository.findById(userId)
+        User user = readYourWrites.readForToken(userId, tokenIssuedAt, () -> userRepository.findById(userId))
                 .orElseThrow(() -> new UserNotFoundException(
                         "User not found with ID: " + userId,
                         "USER_NOT_FOUND"
@@ -34,6 +57,56 @@ public class UserService {
         return mapToProfileResponse(user);
     }
 
+    /**
+     * Public profiles for many users with a single query. Any authenticated caller may ask
+     * for any ID, so only the fields in {@link PublicProfileResponse} are returned.
+     */
+    @Transactional(readOnly = true)
+    public BatchProfileResponse getProfilesByIds(List<Long> userIds) {
+        Set<Long> ids = new LinkedHashSet<>(userIds);
+        ids.remove(null);
+        if (ids.isEmpty()) {
+            throw new InvalidBatchRequestException(
+                    "At least one non-null user ID is required",
+                    "BATCH_EMPTY"
+            );
+        }
+        if (ids.size() > maxBatchSize) {
+            throw new BatchSizeExceededException(
+                    "At most " + maxBatchSize + " user IDs per batch, got " + ids.size(),
+                    "BATCH_TOO_LARGE"
+            );
+        }
+
+        log.info("Fetching profiles for {} user IDs", ids.size());
+
+        // Only writes made on this instance pin the read to the primary (see readForUsers)
+
+        Map<Long, PublicProfileRow> rowsById = readYourWrites.readForUsers(ids, () -> userRepository.findPublicProfilesByIdIn(ids))
+                .stream()
+                .collect(Collectors.toMap(PublicProfileRow::getId, Function.identity()));
+
+        List<PublicProfileResponse> profiles = new ArrayList<>(rowsById.size());
+        List<Long> missingIds = new ArrayList<>();
+        for (Long id : ids) {
+            PublicProfileRow row = rowsById.get(id);
+            if (row != null) {
+                profiles.add(PublicProfileResponse.builder()
+                        .userId(row.getId())
+                        .fullName(row.getFullName())
+                        .avatarUrl(row.getAvatarUrl())
+                        .build());
+            } else {
+                missingIds.add(id);
+            }
+        }
+
+        return BatchProfileResponse.builder()
+                .profiles(profiles)
+                .missingIds(missingIds)
+                .build();
+    }
+
     private UserProfileResponse mapToProfileResponse(User user) {
         return UserProfileResponse.builder()
                 .userId(user.getId())
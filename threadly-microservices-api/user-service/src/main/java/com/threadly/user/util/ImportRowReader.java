@@ -0,0 +1,123 @@
+package com.threadly.user.util;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.threadly.user.dto.request.ImportUserRow;
+import com.threadly.user.exception.InvalidImportFileException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Reads import rows one line at a time from NDJSON or CSV, so the upload is never held in memory.
+ * CSV needs a header row naming at least {@code email} and {@code password} ({@code fullName}
+ * is optional); fields may be double-quoted, with {@code ""} for a literal quote.
+ */
+public class ImportRowReader {
+
+    /** A parsed row, or the reason it could not be parsed. */
+    public record Row(long line, ImportUserRow user, String error) {
+    }
+
+    private final BufferedReader reader;
+    private final ObjectMapper objectMapper;
+    private final boolean csv;
+
+    private long line;
+    private int emailColumn = -1;
+    private int passwordColumn = -1;
+    private int fullNameColumn = -1;
+
+    public ImportRowReader(BufferedReader reader, ObjectMapper objectMapper, boolean csv) {
+        this.reader = reader;
+        this.objectMapper = objectMapper;
+        this.csv = csv;
+    }
+
+    /**
+     * Next non-blank row, or {@code null} at end of input.
+     */
+    public Row next() throws IOException {
+        String text;
+        while ((text = reader.readLine()) != null) {
+            line++;
+            if (text.isBlank()) {
+                continue;
+            }
+            if (!csv) {
+                return parseJson(text);
+            }
+            if (emailColumn < 0) {
+                readHeader(text);
+                continue;
+            }
+            return parseCsv(text);
+        }
+        return null;
+    }
+
+    private Row parseJson(String text) {
+        try {
+            return new Row(line, objectMapper.readValue(text, ImportUserRow.class), null);
+        } catch (JsonProcessingException e) {
+            return new Row(line, null, "Malformed JSON");
+        }
+    }
+
+    private void readHeader(String text) {
+        List<String> columns = splitCsv(text);
+        for (int i = 0; i < columns.size(); i++) {
+            switch (columns.get(i).trim().toLowerCase(Locale.ROOT)) {
+                case "email" -> emailColumn = i;
+                case "password" -> passwordColumn = i;
+                case "fullname", "full_name" -> fullNameColumn = i;
+                default -> { }
+            }
+        }
+        if (emailColumn < 0 || passwordColumn < 0) {
+            throw new InvalidImportFileException(
+                    "CSV header must name 'email' and 'password' columns",
+                    "INVALID_IMPORT_FILE");
+        }
+    }
+
+    private Row parseCsv(String text) {
+        List<String> fields = splitCsv(text);
+        if (fields.size() <= Math.max(emailColumn, passwordColumn)) {
+            return new Row(line, null, "Missing columns");
+        }
+        String fullName = fullNameColumn >= 0 && fullNameColumn < fields.size() ? fields.get(fullNameColumn) : null;
+        return new Row(line, new ImportUserRow(fields.get(emailColumn).trim(), fields.get(passwordColumn), fullName), null);
+    }
+
+    private static List<String> splitCsv(String text) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < text.length() && text.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
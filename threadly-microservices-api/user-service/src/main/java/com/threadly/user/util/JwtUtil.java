@@ -2,20 +2,33 @@ package com.threadly.user.util;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Component
+@RequiredArgsConstructor
 @Slf4j
 public class JwtUtil {
 
+    private final MeterRegistry meterRegistry;
+
     @Value("${jwt.secret}")
     private String secret;
 
@@ -28,27 +41,59 @@ public class JwtUtil {
     private static final String TOKEN_TYPE_ACCESS = "access";
     private static final String TOKEN_TYPE_REFRESH = "refresh";
     private static final String CLAIM_TYPE = "type";
+    private static final String CLAIM_EMAIL = "email";
+    private static final String CLAIM_ROLES = "roles";
+    private static final String CLAIM_VERSION = "ver";
+
+    private SecretKey signingKey;
+    private JwtParser jwtParser;
+
+    private Timer accessTokenTimer;
+    private Timer refreshTokenTimer;
+
+    @PostConstruct
+    void init() {
+        this.signingKey = Keys.hmacShaKeyFor(secret.getBytes());
+        this.jwtParser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
+
+        this.accessTokenTimer = tokenTimer(TOKEN_TYPE_ACCESS);
+        this.refreshTokenTimer = tokenTimer(TOKEN_TYPE_REFRESH);
+    }
+
+    private Timer tokenTimer(String type) {
+        return Timer.builder("jwt.token.generate")
+                .description("Time to build and sign a JWT")
+                .tag("type", type)
+                .register(meterRegistry);
+    }
 
     private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+        return signingKey;
     }
 
     /**
-     * Generate access token for user ID
+     * Generate access token carrying the user's roles, which the gateway checks for role-restricted routes
      */
-    public String generateAccessToken(Long userId) {
+    public String generateAccessToken(Long userId, Set<String> roles) {
         Map<String, Object> claims = new HashMap<>();
         claims.put(CLAIM_TYPE, TOKEN_TYPE_ACCESS);
-        return generateToken(userId, claims, accessTokenExpiration);
+        claims.put(CLAIM_ROLES, List.copyOf(roles));
+        return accessTokenTimer.record(() -> generateToken(userId, claims, accessTokenExpiration));
     }
 
     /**
-     * Generate refresh token for user ID
+     * Generate refresh token embedding email, roles and the user's token version,
+     * so a refresh can mint an access token without reading the user back
      */
-    public String generateRefreshToken(Long userId) {
+    public String generateRefreshToken(Long userId, String email, Set<String> roles, long tokenVersion) {
         Map<String, Object> claims = new HashMap<>();
         claims.put(CLAIM_TYPE, TOKEN_TYPE_REFRESH);
-        return generateToken(userId, claims, refreshTokenExpiration);
+        claims.put(CLAIM_EMAIL, email);
+        claims.put(CLAIM_ROLES, List.copyOf(roles));
+        claims.put(CLAIM_VERSION, tokenVersion);
+        return refreshTokenTimer.record(() -> generateToken(userId, claims, refreshTokenExpiration));
     }
 
     private String generateToken(Long userId, Map<String, Object> claims, long expiration) {
@@ -58,6 +103,7 @@ public class JwtUtil {
         try {
             return Jwts.builder()
                     .subject(String.valueOf(userId)) // ← Store userId as subject
+                    .id(UUID.randomUUID().toString()) // token ID, used for revocation
                     .claims(claims)
                     .issuedAt(now)
                     .expiration(expiryDate)
@@ -110,57 +156,107 @@ public class JwtUtil {
     }
 
     private Claims getAllClaimsFromToken(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
+        return jwtParser
                 .parseSignedClaims(token)
                 .getPayload();
     }
 
-    public boolean isTokenValid(String token) {
+    /**
+     * Parse and verify a token exactly once.
+     * Returns the verified claims, or the reason the token was rejected.
+     */
+    public TokenValidationResult validate(String token) {
+        if (token == null || token.isBlank()) {
+            return TokenValidationResult.invalid(TokenFailureReason.EMPTY);
+        }
+
         try {
-            getAllClaimsFromToken(token);
-            return !isTokenExpired(token);
+            Claims claims = getAllClaimsFromToken(token);
+            Date expiration = claims.getExpiration();
+            if (expiration != null && expiration.before(new Date())) {
+                return TokenValidationResult.invalid(TokenFailureReason.EXPIRED);
+            }
+
+            Number version = claims.get(CLAIM_VERSION, Number.class);
+            return TokenValidationResult.valid(new TokenClaims(
+                    Long.valueOf(claims.getSubject()),
+                    claims.get(CLAIM_TYPE, String.class),
+                    claims.getId(),
+                    expiration,
+                    claims.getIssuedAt(),
+                    claims.get(CLAIM_EMAIL, String.class),
+                    extractRoles(claims),
+                    version != null ? version.longValue() : null
+            ));
+        } catch (ExpiredJwtException e) {
+            return TokenValidationResult.invalid(TokenFailureReason.EXPIRED);
+        } catch (SignatureException e) {
+            log.warn("Invalid JWT signature: {}", e.getMessage());
+            return TokenValidationResult.invalid(TokenFailureReason.INVALID_SIGNATURE);
+        } catch (MalformedJwtException e) {
+            log.warn("Malformed JWT token: {}", e.getMessage());
+            return TokenValidationResult.invalid(TokenFailureReason.MALFORMED);
+        } catch (UnsupportedJwtException e) {
+            log.warn("Unsupported JWT token: {}", e.getMessage());
+            return TokenValidationResult.invalid(TokenFailureReason.UNSUPPORTED);
+        } catch (NumberFormatException e) {
+            log.warn("JWT subject is not a user ID: {}", e.getMessage());
+            return TokenValidationResult.invalid(TokenFailureReason.INVALID_SUBJECT);
         } catch (JwtException | IllegalArgumentException e) {
             log.warn("Invalid JWT token: {}", e.getMessage());
-            return false;
+            return TokenValidationResult.invalid(TokenFailureReason.INVALID);
         }
     }
 
-    public boolean isTokenExpired(String token) {
-        try {
-            Date expiration = getExpirationDateFromToken(token);
-            return expiration.before(new Date());
-        } catch (Exception e) {
-            log.warn("Error checking token expiration", e);
-            return true;
+    private static Set<String> extractRoles(Claims claims) {
+        Object roles = claims.get(CLAIM_ROLES);
+        if (roles instanceof Collection<?> values) {
+            return values.stream().map(String::valueOf).collect(Collectors.toSet());
         }
+        return Set.of();
     }
 
-    public boolean isAccessToken(String token) {
-        try {
-            String tokenType = getTokenType(token);
-            return TOKEN_TYPE_ACCESS.equals(tokenType);
-        } catch (Exception e) {
-            return false;
+    /**
+     * Validate a token and require the given token type ("access" or "refresh").
+     */
+    public TokenValidationResult validate(String token, String expectedType) {
+        TokenValidationResult result = validate(token);
+        if (result.isValid() && !expectedType.equals(result.claims().type())) {
+            return TokenValidationResult.invalid(TokenFailureReason.WRONG_TYPE);
         }
+        return result;
+    }
+
+    public TokenValidationResult validateAccess(String token) {
+        return validate(token, TOKEN_TYPE_ACCESS);
+    }
+
+    public TokenValidationResult validateRefresh(String token) {
+        return validate(token, TOKEN_TYPE_REFRESH);
+    }
+
+    public boolean isTokenValid(String token) {
+        return validate(token).isValid();
+    }
+
+    public boolean isTokenExpired(String token) {
+        return !validate(token).isValid();
+    }
+
+    public boolean isAccessToken(String token) {
+        return validateAccess(token).isValid();
     }
 
     public boolean isRefreshToken(String token) {
-        try {
-            String tokenType = getTokenType(token);
-            return TOKEN_TYPE_REFRESH.equals(tokenType);
-        } catch (Exception e) {
-            return false;
-        }
+        return validateRefresh(token).isValid();
     }
 
     public boolean validateAccessToken(String token) {
-        return isTokenValid(token) && isAccessToken(token);
+        return validateAccess(token).isValid();
     }
 
     public boolean validateRefreshToken(String token) {
-        return isTokenValid(token) && isRefreshToken(token);
+        return validateRefresh(token).isValid();
     }
 
     public long getAccessTokenExpirationInSeconds() {
@@ -170,5 +266,9 @@ public class JwtUtil {
     public long getRefreshTokenExpirationInSeconds() {
         return refreshTokenExpiration / 1000;
     }
+
+    public long getRefreshTokenExpirationInMillis() {
+        return refreshTokenExpiration;
+    }
 }
 
@@ -0,0 +1,33 @@
+package com.threadly.user.util;
+
+import java.util.Date;
+import java.util.Set;
+
+/**
+ * Immutable view of a verified JWT: subject (user ID), token type, token ID and timestamps, plus the
+ * identity embedded at issue time (email, roles, token version). Tokens issued before the
+ * identity was embedded have a null email and version and no roles.
+ */
+public record TokenClaims(Long userId, String type, String tokenId, Date expiration, Date issuedAt,
+                          String email, Set<String> roles, Long version) {
+
+    public TokenClaims {
+        expiration = expiration == null ? null : new Date(expiration.getTime());
+        issuedAt = issuedAt == null ? null : new Date(issuedAt.getTime());
+        roles = roles == null ? Set.of() : Set.copyOf(roles);
+    }
+
+    public boolean hasIdentity() {
+        return email != null && version != null;
+    }
+
+    @Override
+    public Date expiration() {
+        return expiration == null ? null : new Date(expiration.getTime());
+    }
+
+    @Override
+    public Date issuedAt() {
+        return issuedAt == null ? null : new Date(issuedAt.getTime());
+    }
+}
@@ -0,0 +1,15 @@
+package com.threadly.user.util;
+
+/**
+ * Why a token was rejected by {@link JwtUtil#validate(String)}.
+ */
+public enum TokenFailureReason {
+    EMPTY,
+    MALFORMED,
+    INVALID_SIGNATURE,
+    UNSUPPORTED,
+    EXPIRED,
+    INVALID_SUBJECT,
+    WRONG_TYPE,
+    INVALID
+}
@@ -0,0 +1,20 @@
+package com.threadly.user.util;
+
+/**
+ * Outcome of a single parse-and-verify pass over a token.
+ * Exactly one of {@code claims} or {@code failureReason} is set.
+ */
+public record TokenValidationResult(TokenClaims claims, TokenFailureReason failureReason) {
+
+    public static TokenValidationResult valid(TokenClaims claims) {
+        return new TokenValidationResult(claims, null);
+    }
+
+    public static TokenValidationResult invalid(TokenFailureReason reason) {
+        return new TokenValidationResult(null, reason);
+    }
+
+    public boolean isValid() {
+        return claims != null;
+    }
+}
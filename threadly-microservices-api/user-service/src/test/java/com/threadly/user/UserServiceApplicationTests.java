@@ -3,7 +3,7 @@ package com.threadly.user;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+@SpringBootTest(properties = "internal.secret=test-internal-secret")
 class UserServiceApplicationTests {
 
 	@Test
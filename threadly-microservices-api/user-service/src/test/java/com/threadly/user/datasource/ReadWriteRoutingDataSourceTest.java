@@ -0,0 +1,108 @@
+package com.threadly.user.datasource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLSyntaxErrorException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReadWriteRoutingDataSourceTest {
+
+	private final DataSource primary = mock(DataSource.class);
+	private final Connection primaryConnection = mock(Connection.class);
+	private final Connection replicaConnection = mock(Connection.class);
+	private final ReplicaDataSource replica = new ReplicaDataSource("replica-1", mock(DataSource.class));
+
+	private ReadWriteRoutingDataSource router;
+
+	@BeforeEach
+	void setUp() throws SQLException {
+		when(primary.getConnection()).thenReturn(primaryConnection);
+		when(replica.getDataSource().getConnection()).thenReturn(replicaConnection);
+		ReplicaSet replicas = new ReplicaSet(List.of(replica), Duration.ofSeconds(1), new SimpleMeterRegistry());
+		router = new ReadWriteRoutingDataSource(primary, replicas, new SimpleMeterRegistry());
+	}
+
+	@AfterEach
+	void tearDown() {
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+	}
+
+	@Test
+	void writesGoToPrimary() throws SQLException {
+		assertThat(router.getConnection()).isSameAs(primaryConnection);
+	}
+
+	@Test
+	void readOnlyTransactionsGoToReplica() throws SQLException {
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+		assertThat(router.getConnection()).isSameAs(replicaConnection);
+	}
+
+	@Test
+	void forcedPrimaryWinsOverReadOnly() {
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+		assertThat(RoutingContext.onPrimary(this::connection)).isSameAs(primaryConnection);
+		assertThat(connection()).isSameAs(replicaConnection);
+	}
+
+	@Test
+	void unreachableReplicaFallsBackAndLeavesRotation() throws SQLException {
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+		when(replica.getDataSource().getConnection()).thenThrow(new SQLException("link failure", "08S01"));
+
+		assertThat(router.getConnection()).isSameAs(primaryConnection);
+		assertThat(replica.isHealthy()).isFalse();
+		// Out of rotation: the replica is not even tried
+		assertThat(router.getConnection()).isSameAs(primaryConnection);
+	}
+
+	@Test
+	void exhaustedReplicaPoolFallsBackButStaysInRotation() throws SQLException {
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+		when(replica.getDataSource().getConnection())
+				.thenThrow(new SQLTransientConnectionException("Connection is not available, request timed out"));
+
+		assertThat(router.getConnection()).isSameAs(primaryConnection);
+		assertThat(replica.isHealthy()).isTrue();
+	}
+
+	@Test
+	void noHealthyReplicaFallsBackToPrimary() throws SQLException {
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+		replica.markHealthy(false);
+
+		assertThat(router.getConnection()).isSameAs(primaryConnection);
+	}
+
+	@Test
+	void connectionFailureClassification() {
+		assertThat(ReadWriteRoutingDataSource.isConnectionFailure(new SQLException("x", "08001"))).isTrue();
+		assertThat(ReadWriteRoutingDataSource.isConnectionFailure(new SQLTransientConnectionException(
+				"timed out", "HY000", new SQLException("link failure", "08S01")))).isTrue();
+		assertThat(ReadWriteRoutingDataSource.isConnectionFailure(new SQLTransientConnectionException("timed out"))).isFalse();
+		assertThat(ReadWriteRoutingDataSource.isConnectionFailure(new SQLSyntaxErrorException("bad", "42000"))).isFalse();
+	}
+
+	private Connection connection() {
+		try {
+			return router.getConnection();
+		} catch (SQLException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
@@ -0,0 +1,77 @@
+package com.threadly.user.datasource;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReadYourWritesTest {
+
+	private static final Duration WINDOW = Duration.ofSeconds(5);
+
+	private final ReadYourWrites readYourWrites = new ReadYourWrites(WINDOW, 1_000);
+
+	@Test
+	void recentlyWrittenUserIsReadFromPrimary() {
+		readYourWrites.recordWrite(1L, "Alice@Example.com");
+
+		assertThat(readYourWrites.readForUser(1L, RoutingContext::isPrimaryForced)).isTrue();
+		assertThat(readYourWrites.readForUser(2L, RoutingContext::isPrimaryForced)).isFalse();
+	}
+
+	@Test
+	void emailsMatchIgnoringCase() {
+		readYourWrites.recordWrite(1L, "Alice@Example.com");
+
+		assertThat(readYourWrites.readForEmail("alice@example.COM", RoutingContext::isPrimaryForced)).isTrue();
+		assertThat(readYourWrites.readForEmail("bob@example.com", RoutingContext::isPrimaryForced)).isFalse();
+	}
+
+	@Test
+	void batchGoesToPrimaryIfAnyUserIsRecent() {
+		readYourWrites.recordWrite(2L, "bob@example.com");
+
+		assertThat(readYourWrites.readForUsers(List.of(1L, 2L), RoutingContext::isPrimaryForced)).isTrue();
+		assertThat(readYourWrites.readForUsers(List.of(1L, 3L), RoutingContext::isPrimaryForced)).isFalse();
+	}
+
+	@Test
+	void tokenYoungerThanWindowIsReadFromPrimaryOnAnyInstance() {
+		long now = System.currentTimeMillis();
+
+		// Nothing recorded on this instance; the token's age alone decides
+		assertThat(readYourWrites.readForToken(1L, now - 1_000, RoutingContext::isPrimaryForced)).isTrue();
+		assertThat(readYourWrites.readForToken(1L, now - WINDOW.toMillis() - 1_000, RoutingContext::isPrimaryForced))
+				.isFalse();
+		assertThat(readYourWrites.readForToken(1L, null, RoutingContext::isPrimaryForced)).isFalse();
+	}
+
+	@Test
+	void oldTokenStillReadsFromPrimaryAfterLocalWrite() {
+		readYourWrites.recordWrite(1L, "alice@example.com");
+		long old = System.currentTimeMillis() - WINDOW.toMillis() - 1_000;
+
+		assertThat(readYourWrites.readForToken(1L, old, RoutingContext::isPrimaryForced)).isTrue();
+	}
+
+	@Test
+	void writeIsForgottenAfterWindow() throws InterruptedException {
+		ReadYourWrites shortWindow = new ReadYourWrites(Duration.ofMillis(50), 1_000);
+		shortWindow.recordWrite(1L, "alice@example.com");
+
+		Thread.sleep(200);
+
+		assertThat(shortWindow.readForUser(1L, RoutingContext::isPrimaryForced)).isFalse();
+	}
+
+	@Test
+	void primaryForcingIsUndoneAfterRead() {
+		readYourWrites.recordWrite(1L, "alice@example.com");
+
+		readYourWrites.readForUser(1L, RoutingContext::isPrimaryForced);
+
+		assertThat(RoutingContext.isPrimaryForced()).isFalse();
+	}
+}
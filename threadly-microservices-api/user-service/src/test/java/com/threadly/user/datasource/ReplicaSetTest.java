@@ -0,0 +1,73 @@
+package com.threadly.user.datasource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReplicaSetTest {
+
+	private final ReplicaDataSource a = new ReplicaDataSource("a", mock(DataSource.class));
+	private final ReplicaDataSource b = new ReplicaDataSource("b", mock(DataSource.class));
+	private final ReplicaDataSource c = new ReplicaDataSource("c", mock(DataSource.class));
+
+	@Test
+	void healthyReplicasTakeTurns() {
+		ReplicaSet set = replicaSet(a, b, c);
+
+		assertThat(names(set, 4)).containsExactly("a", "b", "c", "a");
+	}
+
+	@Test
+	void unhealthyReplicaIsSkipped() {
+		ReplicaSet set = replicaSet(a, b, c);
+		b.markHealthy(false);
+
+		assertThat(names(set, 4)).containsExactly("a", "c", "c", "a");
+	}
+
+	@Test
+	void noneWhenAllUnhealthyOrEmpty() {
+		ReplicaSet set = replicaSet(a);
+		a.markHealthy(false);
+
+		assertThat(set.nextHealthy()).isNull();
+		assertThat(replicaSet().nextHealthy()).isNull();
+	}
+
+	@Test
+	void healthCheckTakesFailingReplicaOutAndBackIn() throws SQLException {
+		ReplicaSet set = replicaSet(a, b);
+		Connection connection = mock(Connection.class);
+		when(a.getDataSource().getConnection()).thenReturn(connection);
+		when(b.getDataSource().getConnection()).thenThrow(new SQLException("refused", "08001"));
+
+		when(connection.isValid(anyInt())).thenReturn(false);
+		set.checkAll();
+		assertThat(a.isHealthy()).isFalse();
+		assertThat(b.isHealthy()).isFalse();
+
+		when(connection.isValid(anyInt())).thenReturn(true);
+		set.checkAll();
+		assertThat(a.isHealthy()).isTrue();
+		assertThat(b.isHealthy()).isFalse();
+	}
+
+	private static ReplicaSet replicaSet(ReplicaDataSource... replicas) {
+		return new ReplicaSet(List.of(replicas), Duration.ofSeconds(1), new SimpleMeterRegistry());
+	}
+
+	private static List<String> names(ReplicaSet set, int count) {
+		return IntStream.range(0, count).mapToObj(i -> set.nextHealthy().getName()).toList();
+	}
+}
@@ -0,0 +1,87 @@
+package com.threadly.user.metrics;
+
+import com.threadly.user.config.SqlAccountingProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SqlAccountingFilterTest {
+
+	private static final String URI = "/api/users/profile";
+
+	private final SqlAccountingProperties properties = new SqlAccountingProperties();
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	private SqlAccountingFilter filter;
+
+	@BeforeEach
+	void setUp() {
+		properties.setStatementBudget(2);
+		properties.setRepeatedStatementThreshold(3);
+		properties.setFailOnBudgetExceeded(true);
+		filter = new SqlAccountingFilter(properties, meterRegistry);
+	}
+
+	@Test
+	void overBudgetFailsTheRequestAndNamesTheRepeatedStatement() {
+		assertThatThrownBy(() -> run(3))
+				.isInstanceOf(IllegalStateException.class)
+				.hasMessageContaining("GET " + URI + " ran 3 SQL statements (budget 2)")
+				.hasMessageContaining("likely N+1")
+				.hasMessageContaining("select * from users where id = ?");
+	}
+
+	@Test
+	void withinBudgetPasses() {
+		assertThatCode(() -> run(2)).doesNotThrowAnyException();
+	}
+
+	@Test
+	void overBudgetOnlyWarnsByDefault() {
+		properties.setFailOnBudgetExceeded(false);
+
+		assertThatCode(() -> run(5)).doesNotThrowAnyException();
+	}
+
+	@Test
+	void endpointBudgetOverridesDefault() {
+		properties.getEndpointBudgets().put(URI, 5);
+
+		assertThatCode(() -> run(5)).doesNotThrowAnyException();
+		assertThatThrownBy(() -> run(6)).isInstanceOf(IllegalStateException.class);
+	}
+
+	@Test
+	void negativeBudgetDisablesTheCheck() {
+		properties.getEndpointBudgets().put(URI, -1);
+
+		assertThatCode(() -> run(50)).doesNotThrowAnyException();
+	}
+
+	@Test
+	void statementCountIsRecordedEvenWhenOverBudget() {
+		assertThatThrownBy(() -> run(4)).isInstanceOf(IllegalStateException.class);
+
+		assertThat(meterRegistry.get("http.server.requests.sql.statements").tag("uri", URI).summary().totalAmount())
+				.isEqualTo(4);
+	}
+
+	private void run(int statements) throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", URI);
+		FilterChain handler = (req, res) -> {
+			req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, URI);
+			for (int i = 0; i < statements; i++) {
+				RequestSqlStats.current().recordStatement("select * from users where id = ?", 1, 0);
+			}
+		};
+		filter.doFilter(request, new MockHttpServletResponse(), handler);
+	}
+}
@@ -0,0 +1,168 @@
+package com.threadly.user.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.threadly.user.constant.RoleConstants;
+import com.threadly.user.datasource.ReadYourWrites;
+import com.threadly.user.dto.response.ImportRowResult;
+import com.threadly.user.entity.Role;
+import com.threadly.user.entity.User;
+import com.threadly.user.repository.RoleRepository;
+import com.threadly.user.repository.UserRepository;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserImportServiceTest {
+
+	private static final int CHUNK_SIZE = 2;
+
+	private final UserRepository userRepository = mock(UserRepository.class);
+	private final RoleRepository roleRepository = mock(RoleRepository.class);
+	private final PasswordEncoder passwordEncoder = mock(PasswordEncoder.class);
+	private final Role userRole = mock(Role.class);
+	private final AtomicLong ids = new AtomicLong();
+	private final List<List<ImportRowResult>> chunks = new ArrayList<>();
+
+	private UserImportService importService;
+
+	@BeforeEach
+	void setUp() {
+		when(roleRepository.findByName(RoleConstants.USER)).thenReturn(Optional.of(userRole));
+		when(passwordEncoder.encode(anyString())).thenAnswer(call -> "hashed:" + call.getArgument(0));
+		when(userRepository.findExistingEmails(anyCollection())).thenReturn(List.of());
+		when(userRepository.saveAll(any())).thenAnswer(call -> {
+			Iterable<User> users = call.getArgument(0);
+			users.forEach(user -> user.setId(ids.incrementAndGet()));
+			return users;
+		});
+		when(userRepository.save(any(User.class))).thenAnswer(call -> {
+			User user = call.getArgument(0);
+			user.setId(ids.incrementAndGet());
+			return user;
+		});
+
+		Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+		importService = new UserImportService(userRepository, roleRepository, passwordEncoder, validator,
+				new ObjectMapper(), mock(PlatformTransactionManager.class),
+				new ReadYourWrites(Duration.ofSeconds(5), 1_000), CHUNK_SIZE, 1);
+	}
+
+	@AfterEach
+	void tearDown() {
+		importService.shutdown();
+	}
+
+	@Test
+	void rowsAreHandledOneChunkAtATimeInInputOrder() throws IOException {
+		importUsers(row("a@example.com"), row("b@example.com"), row("c@example.com"),
+				row("d@example.com"), row("e@example.com"));
+
+		assertThat(chunks).extracting(List::size).containsExactly(2, 2, 1);
+		assertThat(results()).extracting(ImportRowResult::getLine).containsExactly(1L, 2L, 3L, 4L, 5L);
+		assertThat(results()).extracting(ImportRowResult::getStatus).containsOnly(ImportRowResult.Status.CREATED);
+		assertThat(results()).extracting(ImportRowResult::getUserId).doesNotContainNull().doesNotHaveDuplicates();
+		verify(userRepository, times(3)).findExistingEmails(anyCollection());
+		verify(userRepository, times(3)).saveAll(any());
+	}
+
+	@Test
+	void repeatedEmailWithinChunkIsDuplicateIgnoringCase() throws IOException {
+		importUsers(row("a@example.com"), row("A@Example.com"));
+
+		assertThat(results()).extracting(ImportRowResult::getStatus)
+				.containsExactly(ImportRowResult.Status.CREATED, ImportRowResult.Status.DUPLICATE);
+		assertThat(results().get(1).getError()).isEqualTo("Duplicate email in import");
+	}
+
+	@Test
+	void alreadyRegisteredEmailIsDuplicate() throws IOException {
+		when(userRepository.findExistingEmails(anyCollection())).thenReturn(List.of("B@example.com"));
+
+		importUsers(row("a@example.com"), row("b@example.com"));
+
+		assertThat(results()).extracting(ImportRowResult::getStatus)
+				.containsExactly(ImportRowResult.Status.CREATED, ImportRowResult.Status.DUPLICATE);
+		assertThat(results().get(1).getError()).isEqualTo("Email already registered");
+		verify(passwordEncoder, never()).encode("secret-b@example.com");
+	}
+
+	@Test
+	void invalidRowsAreReportedWithoutHashing() throws IOException {
+		importUsers("{\"email\": \"not-an-email\", \"password\": \"secret1\"}", "{broken");
+
+		assertThat(results()).extracting(ImportRowResult::getStatus)
+				.containsExactly(ImportRowResult.Status.INVALID, ImportRowResult.Status.INVALID);
+		verify(passwordEncoder, never()).encode(anyString());
+		verify(userRepository, never()).saveAll(any());
+	}
+
+	@Test
+	void chunkConflictIsRetriedRowByRow() throws IOException {
+		when(userRepository.saveAll(any())).thenThrow(new DataIntegrityViolationException("duplicate key"));
+		when(userRepository.save(argThat(user -> user != null && "b@example.com".equals(user.getEmail()))))
+				.thenThrow(new DataIntegrityViolationException("duplicate key"));
+
+		importUsers(row("a@example.com"), row("b@example.com"));
+
+		assertThat(results()).extracting(ImportRowResult::getStatus)
+				.containsExactly(ImportRowResult.Status.CREATED, ImportRowResult.Status.DUPLICATE);
+		assertThat(results().get(0).getUserId()).isNotNull();
+	}
+
+	@Test
+	void importedUsersLinkTheRoleFromTheOwningSideOnly() throws IOException {
+		List<User> saved = new ArrayList<>();
+		when(userRepository.saveAll(any())).thenAnswer(call -> {
+			Iterable<User> users = call.getArgument(0);
+			users.forEach(saved::add);
+			return users;
+		});
+
+		importUsers(row("a@example.com"));
+
+		assertThat(saved).singleElement().satisfies(user -> {
+			assertThat(user.getRoles()).containsExactly(userRole);
+			assertThat(user.getPassword()).isEqualTo("hashed:secret-a@example.com");
+		});
+		verify(userRole, never()).getUsers();
+	}
+
+	private void importUsers(String... lines) throws IOException {
+		BufferedReader input = new BufferedReader(new StringReader(String.join("\n", lines)));
+		importService.importUsers(input, false, chunks::add);
+	}
+
+	private List<ImportRowResult> results() {
+		return chunks.stream().flatMap(List::stream).toList();
+	}
+
+	private static String row(String email) {
+		return """
+				{"email": "%s", "password": "secret-%s", "fullName": "Test"}""".formatted(email, email);
+	}
+}
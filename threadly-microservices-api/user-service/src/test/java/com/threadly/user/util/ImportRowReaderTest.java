@@ -0,0 +1,106 @@
+package com.threadly.user.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.threadly.user.exception.InvalidImportFileException;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ImportRowReaderTest {
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	@Test
+	void ndjsonRowsKeepTheirLineNumbers() throws IOException {
+		List<ImportRowReader.Row> rows = readAll(false, """
+				{"email": "a@example.com", "password": "secret1", "fullName": "A"}
+
+				{"email": "b@example.com", "password": "secret2"}
+				""");
+
+		assertThat(rows).extracting(ImportRowReader.Row::line).containsExactly(1L, 3L);
+		assertThat(rows.get(0).user().getFullName()).isEqualTo("A");
+		assertThat(rows.get(1).user().getEmail()).isEqualTo("b@example.com");
+		assertThat(rows.get(1).user().getFullName()).isNull();
+	}
+
+	@Test
+	void malformedJsonLineIsReportedAndReadingGoesOn() throws IOException {
+		List<ImportRowReader.Row> rows = readAll(false, """
+				{"email": "a@example.com",
+				{"email": "b@example.com", "password": "secret2"}
+				""");
+
+		assertThat(rows.get(0).error()).isEqualTo("Malformed JSON");
+		assertThat(rows.get(0).user()).isNull();
+		assertThat(rows.get(1).error()).isNull();
+	}
+
+	@Test
+	void csvColumnsFollowTheHeaderInAnyOrder() throws IOException {
+		List<ImportRowReader.Row> rows = readAll(true, """
+				Password,full_name,EMAIL
+				secret1,Alice, a@example.com
+				""");
+
+		assertThat(rows).hasSize(1);
+		assertThat(rows.get(0).line()).isEqualTo(2);
+		assertThat(rows.get(0).user().getEmail()).isEqualTo("a@example.com");
+		assertThat(rows.get(0).user().getPassword()).isEqualTo("secret1");
+		assertThat(rows.get(0).user().getFullName()).isEqualTo("Alice");
+	}
+
+	@Test
+	void csvQuotedFieldsMayHoldCommasAndQuotes() throws IOException {
+		List<ImportRowReader.Row> rows = readAll(true, """
+				email,password,fullName
+				a@example.com,"pa,ss""word","Doe, ""Jo"""
+				""");
+
+		assertThat(rows.get(0).user().getPassword()).isEqualTo("pa,ss\"word");
+		assertThat(rows.get(0).user().getFullName()).isEqualTo("Doe, \"Jo\"");
+	}
+
+	@Test
+	void csvRowMissingRequiredColumnsIsReported() throws IOException {
+		List<ImportRowReader.Row> rows = readAll(true, """
+				fullName,email,password
+				Alice,a@example.com
+				""");
+
+		assertThat(rows.get(0).error()).isEqualTo("Missing columns");
+	}
+
+	@Test
+	void csvFullNameIsOptional() throws IOException {
+		List<ImportRowReader.Row> rows = readAll(true, """
+				email,password
+				a@example.com,secret1
+				""");
+
+		assertThat(rows.get(0).user().getFullName()).isNull();
+	}
+
+	@Test
+	void csvHeaderWithoutEmailOrPasswordIsRejected() {
+		assertThatThrownBy(() -> readAll(true, "name,password\nAlice,secret1\n"))
+				.isInstanceOf(InvalidImportFileException.class);
+	}
+
+	private List<ImportRowReader.Row> readAll(boolean csv, String input) throws IOException {
+		ImportRowReader reader = new ImportRowReader(new BufferedReader(new StringReader(input)), objectMapper, csv);
+		List<ImportRowReader.Row> rows = new ArrayList<>();
+		ImportRowReader.Row row;
+		while ((row = reader.next()) != null) {
+			rows.add(row);
+		}
+		return rows;
+	}
+}